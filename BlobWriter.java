@@ -0,0 +1,165 @@
+//==================================================================================
+// File: BlobWriter.java
+//
+// Description: Writes a binary font (layout in FontBlob.java) as the glyphs
+//              stream past: the glyph data goes straight to the file through one
+//              buffer, the codepoints are collected (CodepointIndex.Builder), and
+//              finish() appends the range table and goes back to fill in the
+//              header and CRC. Memory use is the codepoint pairs, 8 bytes a glyph.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 A GlyphEncoder, fed by FontConv's read loop or GlyphEncoder.encode();
+//           write() removed -- RL
+// 2026Oct17 Up to 64 rows, 8 bytes a column -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+  //=================================================================================
+  // Class: BlobWriter
+  // Description: Streams glyphs out as a binary font, with a size report
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class BlobWriter implements GlyphEncoder
+{
+  private final FileChannel ch;
+  private final int iRows;
+  private final int nCols;
+  private final int iColBytes;
+  private final int iWpc;
+  private final long lMask;
+  private final ByteBuffer buf = ByteBuffer.allocate(FontConv.BUFSIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private final CRC32 crc = new CRC32();
+  private final CodepointIndex.Builder cps = new CodepointIndex.Builder();
+  private long lOffset = FontBlob.HEADER;
+
+  //=================================================================================
+  // Function:    BlobWriter(FileChannel ch, int iRows, int nCols)
+  // Description: Starts the blob at the current position of ch, which must be 0
+  // Input:       FileChannel ch: open for writing, empty
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: glyph width, 1 to 65535
+  // Output:      ch
+  // Returns:     None; throws IllegalArgumentException for sizes the header
+  //              can't hold
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  BlobWriter(FileChannel ch, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS || nCols < 1 || nCols > 0xffff)
+    {
+      throw new IllegalArgumentException("binary font needs 1-"+Geometry.MAXROWS
+                                         +" rows and 1-65535 columns, not "+iRows+"x"+nCols);
+    }
+    this.ch = ch;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iColBytes = FontBlob.columnBytes(iRows);
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.lMask = Geometry.mask(iRows);
+    ch.position(FontBlob.HEADER);
+
+  } // BlobWriter()
+
+  // Writes out what is buffered, adding it to the CRC
+  private void flush() throws IOException
+  {
+    buf.flip();
+    crc.update(buf.array(), 0, buf.limit());
+    while(buf.hasRemaining()) ch.write(buf);
+    buf.clear();
+  }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Appends one glyph and notes the character its comment names
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      ch
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    cps.glyph(sComment);
+    for(int col=0; col<nCols; col++)
+    {
+      if(buf.remaining() < 8) flush();
+      long v = Geometry.column(aWords, off+col*iWpc, iWpc) & lMask;
+      for(int j=0; j<iColBytes; j++) buf.put((byte)(v >>> (8*j)));
+    }
+    lOffset += (long)nCols*iColBytes;
+    if(lOffset > Integer.MAX_VALUE) throw new IllegalArgumentException("binary font over 2GB");
+
+  } // glyph()
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Appends the range table, then writes the header
+  // Input:       None
+  // Output:      ch
+  // Returns:     String: the size report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    CodepointIndex index = cps.build();
+    int[][] aRanges = index.ranges(Integer.MAX_VALUE);
+    int nRanges = aRanges[0].length;
+    int nGlyphs = cps.glyphs();
+    int iGlyphBytes = nCols*iColBytes;
+
+    int iPad = (int)(-lOffset & 3);
+    for(int i=0; i<iPad; i++) buf.put((byte)0);
+    long lRangesOff = lOffset + iPad;
+    for(int r=0; r<nRanges; r++)
+    {
+      if(buf.remaining() < FontBlob.RANGE) flush();
+      buf.putInt(aRanges[0][r]).putInt(aRanges[1][r]).putInt(aRanges[2][r]);
+    }
+    flush();
+    long lSize = lRangesOff + (long)nRanges*FontBlob.RANGE;
+    if(lSize > Integer.MAX_VALUE) throw new IllegalArgumentException("binary font over 2GB");
+
+    buf.putInt(FontBlob.MAGIC).putShort((short)FontBlob.VERSION).putShort((short)FontBlob.HEADER);
+    buf.putShort((short)iRows).putShort((short)nCols).putShort((short)iColBytes).putShort((short)0);
+    buf.putInt(nGlyphs).putInt(iGlyphBytes).putInt(FontBlob.HEADER);
+    buf.putInt(nRanges).putInt((int)lRangesOff).putInt((int)crc.getValue());
+    buf.flip();
+    for(long p=0; buf.hasRemaining(); ) p += ch.write(buf, p);
+    buf.clear();
+
+    String sNl = System.lineSeparator();
+    StringBuilder sb = new StringBuilder(512);
+    sb.append("Binary font").append(sNl);
+    sb.append(String.format("  glyphs:           %d (%dx%d), %d bytes each (%d per column)%n",
+                            nGlyphs, iRows, nCols, iGlyphBytes, iColBytes));
+    sb.append(String.format("  characters:       %d in %d range(s); %d glyph(s) with none named, %d repeating one%n",
+                            index.size(), nRanges, cps.unnamed(), index.duplicates()));
+    sb.append(String.format("  size:             %d bytes: header %d, glyphs %d, ranges %d%n",
+                            lSize, FontBlob.HEADER, (long)nGlyphs*iGlyphBytes, (long)nRanges*FontBlob.RANGE));
+    sb.append(String.format("  glyph n:          one read of %d bytes at %d + n*%d%n",
+                            iGlyphBytes, FontBlob.HEADER, iGlyphBytes));
+    return sb.toString();
+
+  } // finish()
+
+} // class BlobWriter
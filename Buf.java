@@ -0,0 +1,42 @@
+//==================================================================================
+// File: Buf.java
+//
+// Description: Where the States machine puts what it parses from a line.
+//
+// History:
+// 2015Dec Created (in CBArray.java) -- RL
+// 2026Oct17 Out of CBArray.java; GlyphParser makes one per line -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Class: Buf
+  // Description: Buffer for output from state machine. One per parse, so any
+  //              number of lines may be parsed at once on different threads.
+  // Input: 
+  // Output:
+  // Returns:
+  // History:
+  // 2015Dec Created -- RL
+  // 2026Oct17 Fields are per instance rather than static -- RL
+  //=================================================================================
+class Buf
+{
+  int i=0;
+  String comment;
+  int[] iBuf;
+  boolean bCommentPresent=false;
+  boolean bCharacterPresent=false;
+  StringBuilder sbCode;
+  boolean hex;
+  void sethex(){hex=true;}
+  void resethex(){hex=false;}
+  boolean gethex(){return(hex);}
+  Buf(int size)
+  {
+    iBuf = new int[size];
+    sbCode = new StringBuilder();
+    hex = false;
+    i = 0;
+  }
+} // class Buf
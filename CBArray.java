@@ -26,6 +26,54 @@
 //           pgm_read_word, so rebuilding output to only save series of 8 bit
 //           values. Saving before starting that effort as
 //           CBArrayMostlyWorking2015Dec20.java -- RL
+// 2026Oct17 Moved the parse loop into States.parse() and the line end fix-ups into
+//           FontFormat so the headless FontConv can share them; whitespace-only
+//           and unterminated lines now fail instead of hanging the parser -- RL
+// 2026Oct17 Parser state is per call (Buf, Input); States.parse() replaced by
+//           GlyphParser, which returns immutable Glyph records. States,
+//           State, Buf and Input moved to their own files -- RL
+// 2026Oct17 Optional parallel load (-parallel on the command line) through
+//           ParallelLoader; parsed lines are kept with their LineBuf -- RL
+// 2026Oct17 File contents held in a GlyphStore, parsed once at load; LineBuf
+//           removed. Save File writes from the store and saveFileAs8Bit() no
+//           longer overwrites the lines in memory. CharBuf moved to its own
+//           file -- RL
+// 2026Oct17 Optional memory-mapped, lazily parsed load (-mmap on the command
+//           line) through MappedFont; Save File writes a temporary file and
+//           renames it over the target -- RL
+// 2026Oct17 Save File also writes a binary FontProject sidecar; Open File loads
+//           from it, without parsing, while it still matches the file -- RL
+// 2026Oct17 The displayed record is held in an int[] column model (aColumns);
+//           a pixel toggle flips one bit and relabels one column, and
+//           charPresent()/buildRec() read the model instead of the labels -- RL
+// 2026Oct17 The pixel grid is one PixelGrid component instead of rows*cols
+//           JToggleButtons; pixelChanged() replaces itemStateChanged() -- RL
+// 2026Oct17 beginUpdate()/endUpdate() batch a whole-record change: listeners
+//           are quiet meanwhile and labels and grid are refreshed once -- RL
+// 2026Oct17 Save File also writes the compressed form (saveFileCompressed()) -- RL
+// 2026Oct17 Save File also writes the trimmed form (saveFileTrimmed()) -- RL
+// 2026Oct17 Save File also writes the deduplicated form; the three C exports go
+//           through saveFileExport() -- RL
+// 2026Oct17 Go To Char jumps to the record of a character by binary search of a
+//           CodepointIndex, built on first use after each edit; the position
+//           shows the record's codepoint -- RL
+// 2026Oct17 Save File also writes a binary font for device file systems
+//           (saveFileBlob()) -- RL
+// 2026Oct17 Save File writes the 8 bit file and every export in one pass over
+//           the font, each a GlyphEncoder (saveFileExports()); adds the Adafruit
+//           GFX and XBM forms -- RL
+// 2026Oct17 Glyph size is no longer fixed by CharSize: Open File detects it from
+//           the file (Geometry.detect()) unless -rows/-cols are given, and the
+//           grid, code labels and column model are rebuilt for it
+//           (setGeometry()); up to 64 rows, two words a column past 32. One
+//           code label per column (there was one per row) -- RL
+// 2026Oct17 Save File writes the font through IncrementalSave: unedited lines
+//           are copied from the file they were read from; Open File records
+//           where each line is in the file -- RL
+// 2026Oct17 Open File and Save File run off the Event Dispatch Thread
+//           (OpenWorker, SaveWorker), with a progress bar and a Cancel button;
+//           the sequential load shows the first record as soon as it is parsed
+//           and streams the rest in -- RL
 //==================================================================================
 package cbarray;
 
@@ -37,12 +85,18 @@ import java.io.FileNotFoundException;
 import java.io.BufferedReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Scanner;
 import java.util.Locale;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import java.awt.*;
 
@@ -61,356 +115,9 @@ import javax.swing.event.ChangeListener;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
+import fontdev.CharSize;
 import static fontdev.CharSize.*; // The size of this font
 
-  //=================================================================================
-  // Class: LineBuf
-  // Description: Stores one line from the input file
-  // Input: 
-  // Output:
-  // Returns:
-  // History:
-  // 2015Dec Created -- RL
-  //=================================================================================
-class LineBuf
-{
-//  Boolean bCommentPresent;
-//  Boolean bCharacterPresent;
-  String sLine;
-  public LineBuf()
-  {
-//    bCommentPresent = false;
-//    bCharacterPresent = false;
-    sLine = new String();
-  }
-  public LineBuf(String s)
-  {
-//    this.bCommentPresent = false;
-//    this.bCharacterPresent = false;
-    this.sLine = new String(s);
-  }
-} // class LineBuf
-
-  //=================================================================================
-  // Class: CharBuf
-  // Description: Stores all information regarding one character cell,
-  //              including related in-line comment and character encoding
-  // Input: 
-  // Output:
-  // Returns:
-  // History:
-  // 2015Dec Created -- RL
-  //=================================================================================
-class CharBuf
-{
-  String sComment;
-  int aEncoding[];
-  Boolean bCommentPresent;
-  Boolean bCharacterPresent;
-  public CharBuf()
-  {
-    aEncoding = new int[CharSize.rows];
-  }
-/*
-  public CharBuf(String sComment, int aEncoding[])
-  {
-    this.sComment = sComment;
-    this.aEncoding = aEncoding;
-    this.bCommentPresent = (sComment.length() > 0) ? true : false;
-  }
-*/
-  public CharBuf(CharBuf b)
-  {
-    this.sComment = b.sComment;
-    this.aEncoding = b.aEncoding;
-    this.bCommentPresent = b.bCommentPresent;
-    this.bCharacterPresent = b.bCharacterPresent;
-  }
-} // class CharBuf
-
-// State machine for parsing input file
-interface State {
-    public State next(Input word);
-
-} // class CharBuf
-
-  //=================================================================================
-  // Class: Buf
-  // Description: Buffer for output from state machine
-  // Input: 
-  // Output:
-  // Returns:
-  // History:
-  // 2015Dec Created -- RL
-  //=================================================================================
-class Buf
-{
-  public static int i=0;
-  public static String comment;
-  public static Integer[] iBuf;
-  public static Boolean bCommentPresent=false;
-  public static Boolean bCharacterPresent=false;
-  public static StringBuffer sbCode;
-  public static boolean hex;
-  public static void sethex(){hex=true;}
-  public static void resethex(){hex=false;}
-  public static boolean gethex(){return(hex);}
-  Buf(int size)
-  {
-    bCommentPresent = new Boolean(false);
-    bCharacterPresent = new Boolean(false);
-    iBuf = new Integer[size];
-    for(int j=0; j<size; j++) iBuf[j]=0;
-    sbCode = new StringBuffer("");
-    hex = false;
-    i = 0;
-  }
-} // class Buf
-
-  //=================================================================================
-  // Class: Input
-  // Description: Input for state machine
-  // Input: 
-  // Output:
-  // Returns:
-  // History:
-  // 2015Dec Created -- RL
-  //=================================================================================
-class Input {
-    public static String input;
-    private static int current;
-    char read()
-    {
-      if(input.length() == 0)
-      {
-        return 0;
-      }
-      else
-      {
-        return input.charAt(current < input.length() ? current++ : current-1);
-      }
-
-    }
-    public char getcur() {return input.charAt(current); }
-    public boolean endofinput() {return current >= input.length(); }
-    public Input(String input)
-    {
-      this.input = input;
-      current=0;
-//System.out.println("new Input()");
-    }
-} // class Input
-
-  //=================================================================================
-  // enum: States
-  // Description: The state machine for parsing a line of the input file
-  // Input: N/A
-  // Output:
-  // Returns:
-  // History:
-  // 2015Dec Created -- RL
-  //=================================================================================
-enum States implements State {
-//    static String sCode = new String("");
-  Init
-  {
-    @Override
-    public State next(Input word)
-    {
-// System.out.println("Init, evaluating "+Input.getcur());
-      char c = word.read();
-//      if(c == 0) return DONE;
-//      else
-//      {
-        switch(c)
-        {
-          case 0: return DONENULL;
-          case ' ': return SPACELAST;
-          case '/': return COMMENT2;
-          case '{': return PARSECODE;
-          default: return Fail;
-        }
-//      }
-    }
-  },
-  SPACELAST
-  {
-    @Override
-    public State next(Input word)
-    {
-      char c = word.read();
-//System.out.println("SPACELAST, evaluating "+c);
-      switch(c)
-      {
-        case ' ': return SPACELAST;
-        case '/': return COMMENT2;
-        case '{': return PARSECODE;
-        default: return Fail;
-      }
-    }
-  },
-  COMMENT2
-  {
-    @Override
-    public State next(Input word)
-    {
-      char c = word.read();
-//System.out.println("COMMENT2, curchar="+c);
-      switch(c)
-      {
-        case '/':
-        {
-          Buf.bCommentPresent=true;
-          return COMMENTLINE;
-        }
-        default: return Fail;
-      }
-    }
-  },
-  COMMENTLINE
-  {
-    @Override
-    public State next(Input word)
-    {
-// System.out.println("COMMENTLINE, curchar="+Input.getcur());
-      // Save comment as it is
-      Buf.comment = Input.input;
-      return DONE;
-    }
-  },
-  PARSECODE
-  {
-    @Override
-    public State next(Input word)
-    {
-      char a = word.read();
-      Character b = new Character(a);
-      Character c = b.toUpperCase(b);
-//System.out.println("PARSECODE, Evaluating passed value "+c);
-      if(Character.isWhitespace(a))
-      {
-        return PARSECODE; // skip whitespace
-      }
-      else if(Character.isDigit(a) || c == 'A' || c == 'B' || c == 'C' || c == 'D' ||
-              c == 'E' || c == 'F' || c == 'X')
-      {
-        if(c == 'X') Buf.sethex();
-        Buf.sbCode.append(a);
-        return PARSECODE;
-      }
-      else if(c == ',' || c == '}')
-      {
-        // Save sCode.toInt(); 
-        String s = Buf.sbCode.toString();
-        Integer thiscode;
-        if(Buf.gethex()) thiscode = (int)Long.parseLong(s.substring(2), 16);
-        else thiscode = (int)Long.parseLong(s, 10);
-        Buf.iBuf[Buf.i++] = thiscode; 
-//System.out.println("PARSECODE, thiscode="+thiscode);
-        Buf.resethex();
-        Buf.sbCode.delete(0, Buf.sbCode.length());
-        if(c == ',')
-        {
-          return PARSECODE;
-        }
-        else if(c == '}')
-        {
-         Buf.bCharacterPresent=true;
-         return CODEDONE;
-        }
-        else
-        {
-          return Fail;
-        }
-      }
-      else
-      {
-        return Fail;
-      }
-    }
-  },
-  CODEDONE
-  {
-    @Override
-    public State next(Input word)
-    {
-      if(word.endofinput()) return DONE;
-      char c = word.read();
-//System.out.println("CODEDONE, curchar="+c);
-      
-      switch(c)
-      {
-        case ',': return CODEDONE;
-        case ' ': return CODEDONE;
-        case '/':
-        {
-          // Clear StringBuffer
-          Buf.sbCode.delete(0, Buf.sbCode.length());
-          // Append this to stringbuffer
-          Buf.sbCode.append(c);
-          return LINEENDCOMMENT;
-        }
-        default: return Fail;
-      }
-    }
-  },
-  LINEENDCOMMENT
-  {
-    @Override
-    public State next(Input word) {
-      char c = word.read();
-//System.out.println("LINEENDCOMMENT, curchar="+c);
-      if(word.endofinput())
-      {
-        Buf.sbCode.append(c);
-        Buf.comment = Buf.sbCode.toString();
-        return DONE;
-      }
-      else if(!Character.isISOControl(c))
-      {
-        Buf.sbCode.append(c);
-        return LINEENDCOMMENT;
-      }
-      else
-      {
-        return Fail;
-      }
-    }
-  },
-  DONENULL
-  {
-    @Override
-    public State next(Input word)
-    {
-      return DONENULL;
-    }
-  },
-  DONE
-  {
-    @Override
-    public State next(Input word)
-    {
-      char c = word.read();
-//System.out.println("DONE, curchar="+c);
-      return DONE;
-    }
-  },
-  Fail
-  {
-    @Override
-    public State next(Input word)
-    {
-// System.out.println("Fail, curchar="+Input.getcur());
-      return Fail;
-    }
-  };
- 
-  public abstract State next(Input word);
-
-} // enum States
-
-// end state machine
-
   //=================================================================================
   // Class: CBArray
   // Description: 
@@ -423,22 +130,34 @@ enum States implements State {
 //*********************** CBArray **********************************
 // Class CBArray - the user interface
 //public class CBArray extends JFrame implements ItemListener,ChangeListener
-public class CBArray extends JFrame implements ItemListener,DocumentListener,ActionListener,WindowListener
+public class CBArray extends JFrame implements PixelGrid.Listener,DocumentListener,ActionListener,WindowListener
 {
-static int rows=CharSize.rows;
+static int rows=CharSize.rows;   // size of the font being edited; set by setGeometry()
 static int cols=CharSize.cols;
+static Geometry sizeDefault;      // CharSize, or -rows/-cols; for fonts that don't show theirs
+static boolean bSizeGiven = false; // -rows/-cols given: every font is that size, not detected
 
 
 //String[] sFileContents = new String[];
 //List<String> asFileContents = new ArrayList<String>();
-List<LineBuf> asFileContents = new ArrayList<LineBuf>();
+FontLines asFileContents = new GlyphStore(rows, cols);
+static boolean bParallelLoad = false; // load files with ParallelLoader
+static boolean bMappedLoad = false;   // load files with MappedFont
 //toss this? int[] iEncodings = new int[cols];
 
-  CharBuf bChar = new CharBuf();
+  CharBuf bChar = new CharBuf(cols*Geometry.wordsPerColumn(rows));
 //  JCheckBox[][] bits = new JCheckBox[rows][cols]; 
-  JToggleButton[][] bits = new JToggleButton[rows][cols]; 
-  JLabel[] codes = new JLabel[rows];
+//  JToggleButton[][] bits = new JToggleButton[rows][cols]; 
+  PixelGrid grid = new PixelGrid(rows, cols);
+  JLabel[] codes = new JLabel[cols];
+  int iWpc = Geometry.wordsPerColumn(rows);  // words a column in aColumns
+  int[] aColumns = new int[cols*iWpc];  // column words of the displayed record; bit r is row r
+  private final StringBuilder sbLabel = new StringBuilder(24);
+  JPanel pixelPanel = new JPanel();
+  JPanel valuePanel = new JPanel();
+  private int iBatch = 0;   // > 0 while inside beginUpdate()/endUpdate()
   int iCurrentLine=0;
+  CodepointIndex cpIndex = null;    // codepoint -> line; null until Go To Char needs it after an edit
   Boolean bRecDirty=false;
   Boolean bFileDirty=false;
 //  static int aN_A[] = new int[] {0,0,0,0x1f8,0x10,0x8,0x1f0,0,0x1e0,0x1c,0,0xf0,0x108,0x90,0x1f8,0};
@@ -454,9 +173,22 @@ List<LineBuf> asFileContents = new ArrayList<LineBuf>();
   JButton bnDelRec = new JButton("Del Rec");
   JButton bnOpenFile = new JButton("Open File");
   JButton bnSaveFile = new JButton("Save File");
+  JButton bnGoToChar = new JButton("Go To Char");
   JTextField comment = new JTextField(50);
   JCheckBox charPresent = new JCheckBox("Character Present");
   JLabel currPos = new JLabel(" Record 0/0");
+  JButton bnCancel = new JButton("Cancel");
+  JProgressBar progress = new JProgressBar(0, 100);
+  SwingWorker<?, ?> fileJob = null;   // open or save running, or null
+  boolean bCloseAfterSave = false;    // window closed while saving
+
+  // Open and save run here, one at a time, off the Event Dispatch Thread
+  private static final ExecutorService fileExec = Executors.newSingleThreadExecutor(r ->
+  {
+    Thread t = new Thread(r, "CBArray file");
+    t.setDaemon(true);
+    return t;
+  });
 
   public CBArray()
   {
@@ -471,40 +203,14 @@ List<LineBuf> asFileContents = new ArrayList<LineBuf>();
     add(commentPanel, BorderLayout.NORTH);
 
 // Left panel - the 'pixel' grid
-    JPanel checkPanel = new JPanel(new GridLayout(rows,cols,0,0));
-//checkPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
-    ImageIcon pxOn = new ImageIcon("fontdev/pixelBlack.jpg");
-    ImageIcon pxOff = new ImageIcon("fontdev/pixelWhite.jpg");
-System.out.println("pxOn="+pxOn);
-System.out.println("pxOff="+pxOff);
-    for(int row=0; row<rows; row++)
-    {
-      for(int col=0; col<cols; col++)
-      {
-        if(col < cols)
-        {
-          bits[row][col] = new JToggleButton(pxOff);
-          bits[row][col].setPreferredSize(new Dimension(15,15));
-          bits[row][col].setSelectedIcon(pxOn);
-          bits[row][col].setMnemonic(KeyEvent.VK_C);
-          bits[row][col].setSelected(false);
-          checkPanel.add(bits[row][col]);
-          bits[row][col].addItemListener(this);
-        }
-      }
-    }
-JPanel pixelPanel = new JPanel();
+    grid.setListener(this);
 pixelPanel.setLayout(new BoxLayout(pixelPanel, BoxLayout.LINE_AXIS));
 pixelPanel.add(new Box.Filler(new Dimension(75, 1), new Dimension(150, 1), new Dimension(175, 1)));
-pixelPanel.add(checkPanel);
+pixelPanel.add(grid);
    add(pixelPanel, BorderLayout.WEST);
 
 // Right panel - the 'values' list
-    JPanel valuePanel = new JPanel(new GridLayout(rows,1,0,0));
-    for(int row=0; row<rows; row++) {
-      codes[row] = new JLabel("0x00000000 ");
-      valuePanel.add(codes[row]);
-    }
+    addCodeLabels();
     add(valuePanel, BorderLayout.EAST);
 
     comment.getDocument().addDocumentListener(this);
@@ -519,6 +225,11 @@ pixelPanel.add(checkPanel);
     bnDelRec.addActionListener(this);
     bnOpenFile.addActionListener(this);
     bnSaveFile.addActionListener(this);
+    bnGoToChar.addActionListener(this);
+    bnCancel.addActionListener(this);
+    bnCancel.setEnabled(false);
+    progress.setStringPainted(true);
+    progress.setString("");
 
     addWindowListener(this);
 
@@ -551,6 +262,14 @@ pixelPanel.add(checkPanel);
     c.gridx = 1;
     buttonPanel.add(bnSaveFile, c);
     c.gridx = 2;
+    c.gridy = 0;
+    c.fill = GridBagConstraints.HORIZONTAL;
+    buttonPanel.add(progress, c);
+    c.fill = GridBagConstraints.NONE;
+    c.gridy = 1;
+    buttonPanel.add(bnCancel, c);
+    c.gridy = 2;
+    buttonPanel.add(bnGoToChar, c);
     c.gridy = 3;
     buttonPanel.add(charPresent, c);
     c.gridy = 4;
@@ -572,13 +291,14 @@ pack();
   // Returns:
   // History:
   // 2015Dec20 Created -- RL
+  // 2026Oct17 Ignored during a batch update (the record is being loaded) -- RL
   //=================================================================================
   public void changedUpdate(DocumentEvent de)
   {
-    bRecDirty = true;
+    if(iBatch == 0) bRecDirty = true;
   }
-  public void insertUpdate(DocumentEvent de) { bRecDirty = true; }
-  public void removeUpdate(DocumentEvent de) { bRecDirty = true; }
+  public void insertUpdate(DocumentEvent de) { if(iBatch == 0) bRecDirty = true; }
+  public void removeUpdate(DocumentEvent de) { if(iBatch == 0) bRecDirty = true; }
 // Listens to the buttons
 //  public void stateChanged(ChangeEvent ev)
   //=================================================================================
@@ -589,6 +309,7 @@ pack();
   // Returns:
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 Cancel stops the open or save running -- RL
   //=================================================================================
   public void actionPerformed(ActionEvent ae)
   {
@@ -648,44 +369,110 @@ System.out.println("openFile");
     {
       saveFile();
     }
+    else if(source == bnCancel)
+    {
+      if(fileJob instanceof SaveWorker) ((SaveWorker)fileJob).stop();
+      else if(fileJob != null) fileJob.cancel(true);
+    }
+    else if(source == bnGoToChar)
+    {
+      goToChar();
+    }
   } // StateChanged()
 
   //=================================================================================
-  // Function: itemStateChanged(ItemEvent e) 
-  // Description:
+  // Function: pixelChanged(int row, int col, boolean bOn)
+  // Description: A pixel was toggled: flip its bit in the column model and
+  //              relabel that one column
   // Input: 
   // Output:
   // Returns:
   // History:
-  // 2015Dec Created -- RL
+  // 2015Dec Created (as itemStateChanged()) -- RL
+  // 2026Oct17 Updates one bit of aColumns rather than re-encoding every column
+  //           from the buttons and reformatting every label -- RL
+  // 2026Oct17 Called by PixelGrid rather than by each button -- RL
+  // 2026Oct17 Rows 32 on flip a bit of the column's second word -- RL
   //=================================================================================
-  // Listens to the checkboxes
-  public void itemStateChanged(ItemEvent e)
+  // Listens to the pixel grid
+  public void pixelChanged(int row, int col, boolean bOn)
   {
-    int code;
-    int col;
-    int crow=0;
 bRecDirty = true;
-    for(col=0; col<cols; col++)
-    {
-      code=0;
-      for(int row=rows-1; row>=0; row--)
-      {
-        code |= bits[row][col].isSelected() ? 1 : 0;
-//System.out.println("col="+col+"; row="+row+"; code="+code);
-	if(row>0) // don't shift on last pass
-        {
-          code <<= 1;
-        }
-      }
-      Integer i = new Integer(code);
-//      codes[crow++].setText(new String(new Integer(code).toHexString(code)));
-      codes[crow++].setText(String.format("0x%8s", new Integer(code).toHexString(code)).replace(' ','0'));
-      
-//System.out.println("");
+    aColumns[col*iWpc + (row >>> 5)] ^= 1 << (row & 31);
+    setCodeLabel(col);
+
+  } // pixelChanged()
+
+  //=================================================================================
+  // Function:    setCodeLabel(int col)
+  // Description: Shows column col of aColumns in its code label as 0x followed by
+  //              8 digits a word
+  // Input:       int col: column
+  // Output:      codes[col]
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 16 digits for columns of two words -- RL
+  //=================================================================================
+  private void setCodeLabel(int col)
+  {
+    sbLabel.setLength(0);
+    codes[col].setText(FontFormat.appendHexColumn(sbLabel, aColumns, col*iWpc, iWpc).toString());
+
+  } // setCodeLabel()
+
+  //=================================================================================
+  // Function:    addCodeLabels()
+  // Description: Fills valuePanel with one code label per column
+  // Input:       None
+  // Output:      codes, valuePanel
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created (from CBArray()), one label per column -- RL
+  //=================================================================================
+  private void addCodeLabels()
+  {
+    valuePanel.removeAll();
+    valuePanel.setLayout(new GridLayout(cols,1,0,0));
+    codes = new JLabel[cols];
+    for(int col=0; col<cols; col++) {
+      codes[col] = new JLabel((iWpc > 1) ? "0x0000000000000000 " : "0x00000000 ");
+      valuePanel.add(codes[col]);
     }
 
-  } // itemStateChanged
+  } // addCodeLabels()
+
+  //=================================================================================
+  // Function:    setGeometry(Geometry size)
+  // Description: Changes the glyph size being edited: a new grid, code labels,
+  //              column model and CharBuf, cleared, and the window repacked.
+  //              Nothing is done if the size is already in use.
+  // Input:       Geometry size: the new size
+  // Output:      rows, cols, iWpc, aColumns, bChar, grid, codes
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void setGeometry(Geometry size)
+  {
+    if(size.rows() == rows && size.cols() == cols) return;
+System.out.println("setGeometry(): "+size.rows()+" rows x "+size.cols()+" columns");
+    rows = size.rows();
+    cols = size.cols();
+    iWpc = size.wordsPerColumn();
+    aColumns = new int[size.lineWords()];
+    bChar = new CharBuf(size.lineWords());
+
+    pixelPanel.remove(grid);
+    grid = new PixelGrid(rows, cols);
+    grid.setListener(this);
+    pixelPanel.add(grid);
+    addCodeLabels();
+    beginUpdate();
+    endUpdate();
+    pack();
+
+  } // setGeometry()
 
   // windowClosing
   //=================================================================================
@@ -696,14 +483,43 @@ bRecDirty = true;
   // Returns:
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 A font still being opened is dropped, not saved (it isn't all
+  //           there); a save, running or started here, is waited for, as the
+  //           window exits when this returns -- RL
+  // 2026Oct17 Not waited for here, on the EDT: the window stays open and
+  //           SaveWorker.done() closes it -- RL
   //=================================================================================
   public void windowClosing(WindowEvent e)
   {
 //    System.out.println("Application closing...");
-    if((bFileDirty) && promptForSave("File"))
+    if(fileJob instanceof OpenWorker)
+    {
+      fileJob.cancel(true);
+    }
+    else if((fileJob == null) && (bFileDirty) && promptForSave("File"))
     {
       saveFile();
     }
+    if(fileJob instanceof SaveWorker)
+    {
+      bCloseAfterSave = true;
+      setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+      progress.setString("Saving, then closing");
+    }
+  }
+
+  // The save the window was closed during is over: exit if it saved, otherwise
+  // (cancelled or failed) stay open, as the font is not on disk
+  private void closeAfterSave(boolean bSaved)
+  {
+    if(!bCloseAfterSave) return;
+    bCloseAfterSave = false;
+    setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    if(bSaved)
+    {
+      dispose();
+      System.exit(0);
+    }
   }
   //=================================================================================
   // Function: 
@@ -792,19 +608,55 @@ bRecDirty = true;
   // Returns:
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 Sets the column model and reloads the grid -- RL
+  // 2026Oct17 One batch update -- RL
+  // 2026Oct17 Geometry.mask() a column, for up to 64 rows -- RL
   //=================================================================================
   private void updateAll(boolean b)
   {
 //System.out.println("updateAll");
-    for(int row=0; row<rows; row++)
-    {
-      for(int col=0; col<cols; col++)
-      {
-        bits[row][col].setSelected(b);
-      }
-    }
+    beginUpdate();
+    long lCol = b ? Geometry.mask(rows) : 0;
+    for(int col=0; col<cols; col++) Geometry.setColumn(aColumns, col*iWpc, iWpc, lCol);
+    endUpdate();
+bRecDirty = true;
 
   } // updateAll()
+
+  //=================================================================================
+  // Function:    beginUpdate()
+  // Description: Starts a batch update of the displayed record. Until the matching
+  //              endUpdate(), aColumns may be changed freely and edits to the
+  //              comment field do not mark the record dirty. Batches nest.
+  // Input:       None
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void beginUpdate()
+  {
+    iBatch++;
+
+  } // beginUpdate()
+
+  //=================================================================================
+  // Function:    endUpdate()
+  // Description: Ends a batch update; the outermost one relabels every column and
+  //              reloads the grid from aColumns, with one repaint
+  // Input:       None
+  // Output:      codes, grid
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void endUpdate()
+  {
+    if(--iBatch > 0) return;
+    for(int col=0; col<cols; col++) setCodeLabel(col);
+    grid.load(aColumns);
+
+  } // endUpdate()
   
    //=================================================================================
   // Function: 
@@ -824,7 +676,7 @@ System.out.println("firstRec();");
     if(asFileContents.size() > 0)
     {
       iCurrentLine = 0;
-      parseAndDisplayLine(iCurrentLine);
+      displayLine(iCurrentLine);
     }
 
   } // firstRec()
@@ -847,7 +699,7 @@ System.out.println("lastRec();");
     if(asFileContents.size() > 0)
     {
       iCurrentLine = asFileContents.size()-1;
-      parseAndDisplayLine(iCurrentLine);
+      displayLine(iCurrentLine);
     }
 
   } // lastRec()
@@ -870,7 +722,7 @@ System.out.println("prevRec();");
     if(asFileContents.size() > 0)
     {
       iCurrentLine = iCurrentLine > 0 ? iCurrentLine-1 : iCurrentLine;
-      parseAndDisplayLine(iCurrentLine);
+      displayLine(iCurrentLine);
     }
 
   } // prevRec()
@@ -904,18 +756,19 @@ System.out.println("nextRec();");
               "Do you want to save the comment only?",
               "Question",
               JOptionPane.YES_NO_OPTION);
-            if(iAnswer == 0) asFileContents.set(iCurrentLine, buildCommentRec());
-            else asFileContents.set(iCurrentLine, buildRec());
+            if(iAnswer == 0) buildCommentRec();
+            else buildRec();
           }
           else
           {
-            asFileContents.set(iCurrentLine, buildRec());
+            buildRec();
           }
+          bFileDirty = true;
         }
         else System.out.println("nextRec(): Don't save this rec");
       }
       iCurrentLine = iCurrentLine < asFileContents.size()-1 ? iCurrentLine+1 : iCurrentLine;
-      parseAndDisplayLine(iCurrentLine);
+      displayLine(iCurrentLine);
     }
 
   } // nextRec()
@@ -942,25 +795,25 @@ System.out.println("insRec();");
     int iAnswer = JOptionPane.showOptionDialog(this, params, "Question",
                                          JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE,
                                          null, options, options[2]);
-    LineBuf lb;
-    if(cb.isSelected()) lb = new LineBuf(asFileContents.get(iCurrentLine).sLine);
-    else lb = new LineBuf();
+    int iCopyOf = (cb.isSelected() && asFileContents.size() > 0) ? iCurrentLine : -1;
     
     if(iAnswer==0)
     {
 System.out.println("Insert Before current; copy="+(cb.isSelected()?"Yes":"No"));
-      asFileContents.add(iCurrentLine, lb);
+      asFileContents.insert(iCurrentLine, iCopyOf);
+      cpIndex = null;
       bFileDirty = true;
     }
     else if(iAnswer==1)
     {
 System.out.println("Append at end; copy="+(cb.isSelected()?"Yes":"No"));
-      asFileContents.add(lb);
+      asFileContents.insert(asFileContents.size(), iCopyOf);
+      cpIndex = null;
       bFileDirty = true;
     }
     else System.out.println("Cancel");
 
-    parseAndDisplayLine(iCurrentLine);
+    if(asFileContents.size() > 0) displayLine(iCurrentLine);
 
   } // insRec()
 
@@ -988,14 +841,15 @@ System.out.println("Deleting current record");
       if(asFileContents.size() > 0)
       {
         asFileContents.remove(iCurrentLine);
+        cpIndex = null;
         bFileDirty = true;
         // if there are still elements left after delete, check if we deleted the end array element
         if(asFileContents.size() > 0)
         {
           // If this is the last line, back up one record
           if(iCurrentLine >= asFileContents.size()) iCurrentLine--;
+          displayLine(iCurrentLine);
         }
-        parseAndDisplayLine(iCurrentLine);
       }
       // Else no records to delete
 
@@ -1003,6 +857,50 @@ System.out.println("Deleting current record");
     
   } // delRec()
 
+  //=================================================================================
+  // Function:    goToChar()
+  // Description: Asks for a character and displays the record that draws it,
+  //              going by the codepoints the record comments name. The index is
+  //              built the first time after the file is opened or edited (one
+  //              pass over the lines); each jump after that is a binary search.
+  // Input:       None
+  // Output:      iCurrentLine, the display
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void goToChar()
+  {
+System.out.println("goToChar();");
+    if(asFileContents.size() == 0) return;
+    String s = JOptionPane.showInputDialog(this, "Character, U+XXXX or 0x code:", "Go To Char",
+                                           JOptionPane.QUESTION_MESSAGE);
+    if(s == null) return;
+    int cp = Codepoints.fromText(s.trim());
+    if(cp < 0)
+    {
+      JOptionPane.showMessageDialog(this, "\""+s+"\" is not a character", "Go To Char",
+                                    JOptionPane.WARNING_MESSAGE);
+      return;
+    }
+    if(cpIndex == null)
+    {
+      long t0 = System.nanoTime();
+      cpIndex = CodepointIndex.of(asFileContents);
+System.out.println("goToChar(): "+cpIndex.size()+" codepoints indexed in "+(System.nanoTime()-t0)/1000000+" ms");
+    }
+    int l = cpIndex.find(cp);
+    if(l < 0)
+    {
+      JOptionPane.showMessageDialog(this, String.format("No record is U+%04X", cp), "Go To Char",
+                                    JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+    iCurrentLine = l;
+    displayLine(iCurrentLine);
+
+  } // goToChar()
+
   //=================================================================================
   // Function:    charPresent()
   // Description: Reviews current character codes to determine if any pixels are set
@@ -1011,40 +909,31 @@ System.out.println("Deleting current record");
   // Returns:     Boolean true if a character appears to be present; false otherwise
   // History:
   // 2015Dec20 Created -- RL
+  // 2026Oct17 OR over the column model rather than decoding the labels -- RL
   //=================================================================================
   Boolean charPresent()
   {
-    Boolean bRVal=false;
-    String sHexCode;
-    Long lCode;
-    Integer iCode;
-    for(int i=0; i<cols; i++)
-    {
-      sHexCode = codes[i].getText().replaceAll("\\s","");
- System.out.println("cp hxcd:\""+sHexCode+"\"");
-     lCode = Long.decode(sHexCode);
-      iCode = lCode.intValue();
-      if(iCode != 0) bRVal=true;
-    }
-    return(bRVal);
+    int iOr = 0;
+    for(int i=0; i<aColumns.length; i++) iOr |= aColumns[i];
+    return(iOr != 0);
 
   } // charPresent()
   //=================================================================================
   // Function:    buildCommentRec()
   // Description: Builds a 'comment only' line record from current display contents
   // Input:       None
-  // Output:      None
-  // Returns:     LineBuf: Image of record from current display contents
+  // Output:      Record iCurrentLine of asFileContents
+  // Returns:     None
   // History:
   // 2015Dec20 Created -- RL
+  // 2026Oct17 Stores the record rather than returning a LineBuf -- RL
   //=================================================================================
-  private LineBuf buildCommentRec()
+  private void buildCommentRec()
   {
-    LineBuf lb = new LineBuf();
     String s = new String(comment.getText());
 System.out.println("buildCommentRec() output: \""+s+"\"");
-    lb.sLine = s;
-    return(lb);
+    asFileContents.setLine(iCurrentLine, s);
+    cpIndex = null;
 
   } // buildCommentRec()
 
@@ -1052,59 +941,42 @@ System.out.println("buildCommentRec() output: \""+s+"\"");
   // Function:    buildRec()
   // Description: Builds a line record from current display contents
   // Input:       None
-  // Output:      None
-  // Returns:     LineBuf: Image of record from current display contents
+  // Output:      Record iCurrentLine of asFileContents
+  // Returns:     None
   // History:
   // 2015Dec18 Created -- RL
   // 2015Dec19 (but not yet working) -- RL
   // 2015Dec20 Tested and working -- RL
+  // 2026Oct17 Stores the column words and comment rather than building text;
+  //           the line is only formatted when the file is saved -- RL
+  // 2026Oct17 Words come from the column model, not the code labels -- RL
   //=================================================================================
-  private LineBuf buildRec()
+  private void buildRec()
   {
-    LineBuf lb = new LineBuf();
-    String s = new String();
-    s = "{";
-    String sHexCode;
-    Integer iCode;
-    Long lCode;
-    for(int i=0; i<cols; i++)
-    {
-      sHexCode = codes[i].getText().replaceAll("\\s","");
-      lCode = Long.decode(sHexCode);
-      iCode = lCode.intValue();
-      bChar.aEncoding[i] = iCode;
-//      String n = String.format("0x%4s", new Integer(e).toHexString(e)).replace(' ','0');
-//System.out.print("n="+i+":"+sHexCode+";");
-      s += sHexCode;
-      if(i < cols-1) s += ',';
-    }
-System.out.println();
-    s += "}";
-    // if not last line, append a comma
-    if(iCurrentLine < asFileContents.size()-1)
-    {
-      s += ",";
-    }
-    String c = new String(comment.getText());
-    if(c.length() > 0) s += (" "+c);
-System.out.println("buildRec() output: \""+s+"\"");
-    lb.sLine = s;
-    return(lb);
+    System.arraycopy(aColumns, 0, bChar.aEncoding, 0, aColumns.length);
+    asFileContents.set(iCurrentLine, aColumns, comment.getText());
+    cpIndex = null;
 
   } // buildRec()
 
   //=================================================================================
   // Function: openFile()
-  // Description: Open (and read and parse) a file
+  // Description: Open (and read and parse) a file. The file is chosen here; it is
+  //              read by an OpenWorker, off the Event Dispatch Thread.
   // Output: 
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 Switches to the file's glyph size first (fileSize()) -- RL
+  // 2026Oct17 Gives the lines their FontSource, indexed before they are read so
+  //           a file changed meanwhile is never copied from -- RL
+  // 2026Oct17 Reading and parsing moved to OpenWorker -- RL
   //=================================================================================
   private void openFile()
   {
 //bnOpenFile.setEnabled(false);
 boolean foo = true;
 if(foo) {
+    if(fileJob != null) return;
     JFileChooser chooser = new JFileChooser();
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
       "h Files", "h");
@@ -1115,102 +987,458 @@ if(foo) {
     if(rval == JFileChooser.APPROVE_OPTION)
     {
       System.out.println("File:"+chooser.getSelectedFile().getName());
-      Scanner s = null;
-      LineBuf buf = null;
-      try
+      String sFullPathToFile = new String(chooser.getCurrentDirectory()+"/"+chooser.getSelectedFile().getName());
+      // Only the sequential load can tell how far it has got
+      startFileJob(new OpenWorker(new File(sFullPathToFile)), "Opening", !bMappedLoad && !bParallelLoad);
+    }
+} // if(foo) (debug)
+//bnOpenFile.setEnabled(true);
+
+  } // openFile()
+
+  //=================================================================================
+  // Class: OpenWorker
+  // Description: Reads and parses the font Open File chose, off the Event
+  //              Dispatch Thread. The sequential load hands its lines to the EDT
+  //              a batch at a time, the first as soon as it holds a record, so
+  //              the first record is shown at once and the font can be browsed
+  //              and edited while the rest streams in. The sidecar, -parallel and
+  //              -mmap loads are swapped in when done. Cancel drops the font.
+  // History:
+  // 2026Oct17 Created (from openFile()) -- RL
+  //=================================================================================
+  private final class OpenWorker extends SwingWorker<FontLines, Void>
+  {
+    static final int BATCH = 8192;      // lines handed to the EDT at a time
+
+    private final File f;
+    private final long t0 = System.nanoTime();
+    private Geometry size;              // the file's glyph size
+    private FontSource src;             // where its lines are
+    private ParallelLoader.Result parallel;   // -parallel: for the lines that didn't parse
+    private GlyphStore store;           // EDT: the sequential load's lines so far
+
+    OpenWorker(File f)
+    {
+      this.f = f;
+    }
+
+    //===============================================================================
+    // Function:    doInBackground()
+    // Description: Loads the file, from its sidecar if that still matches it
+    // Input:       None
+    // Output:      The sequential load's batches, through added()
+    // Returns:     FontLines: the font; null for the sequential load, whose lines
+    //              are already in place
+    // History:
+    // 2026Oct17 Created (from openFile()) -- RL
+    // 2026Oct17 Size from the sidecar's header where there is one; the file is
+    //           scanned for it only when there isn't -- RL
+    //===============================================================================
+    @Override
+    protected FontLines doInBackground() throws IOException
+    {
+      Geometry sizeSide = bSizeGiven ? null : FontProject.size(f);
+      size = (sizeSide != null) ? sizeSide : fileSize(f);
+      if(bMappedLoad)
+      {
+        // MappedFont finds the lines' source itself
+        FontLines lines = openFileMapped(f, size);
+        if(isCancelled()) lines.close();
+        return lines;
+      }
+      if(FontProject.sidecar(f).isFile())
       {
-        String sFullPathToFile = new String(chooser.getCurrentDirectory()+"/"+chooser.getSelectedFile().getName());
-//        s = new Scanner(new BufferedReader(new FileReader(chooser.getSelectedFile().getName())));
-        s = new Scanner(new BufferedReader(new FileReader(sFullPathToFile)));
-        while(s.hasNextLine())
+        // Indexed before the sidecar is matched against the file, so a file
+        // changed meanwhile is never copied from
+        FontSource srcSide = indexFile(f);
+        GlyphStore project = FontProject.load(f, size.rows(), size.cols());
+        if(project != null)
         {
-          buf = new LineBuf();
-          buf.sLine = s.nextLine();
-//          Matcher m = p.matcher(buf.sLine);
-//          // Comment lines are simple to parse/find - do that now
-//          buf.iType = m.matches() ? 1 : 0;
-//          System.out.println("OpenFile:"+buf.sLine);
-//            parseLine(s.nextLine());
-//          asFileContents.add(s.nextLine());
-          asFileContents.add(buf);
+System.out.println("openFile(): loaded from "+FontProject.sidecar(f));
+          project.setSource(srcSide);
+          return project;
         }
+        // It doesn't match the file after all, so neither may its size
+        if(sizeSide != null) size = fileSize(f);
+      }
+      if(bParallelLoad)
+      {
+        parallel = ParallelLoader.load(f, size.rows(), size.cols());
+        return parallel.store;
+      }
+      readLines();
+      return null;
+
+    } // doInBackground()
+
+    //===============================================================================
+    // Function:    readLines()
+    // Description: The sequential load: reads the file a line at a time, handing
+    //              the parsed lines to the EDT in batches, then indexes it. The
+    //              index comes last, so it doesn't hold up the first record; if
+    //              the file has changed since it was opened it gets none, and is
+    //              never copied from.
+    // Input:       None
+    // Output:      Batches, through added(); src
+    // Returns:     None
+    // History:
+    // 2026Oct17 Created (from openFile()) -- RL
+    // 2026Oct17 Decodes UTF-8, as the other loaders do and IncrementalSave
+    //           writes, not the platform charset -- RL
+    //===============================================================================
+    private void readLines() throws IOException
+    {
+      long lModified = f.lastModified();
+      long lLength = f.length();
+      int iLine = 0;
+      boolean bShown = false;             // a batch has gone to the EDT
+      GlyphStore batch = new GlyphStore(size.rows(), size.cols());
+      try(FileInputStream in = new FileInputStream(f);
+          Scanner s = new Scanner(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))))
+      {
+        while(s.hasNextLine() && !isCancelled())
+        {
+          if(!batch.add(s.nextLine()))
+          {
+            System.out.println("openFile(): Couldn't parse line "+iLine);
+          }
+          iLine++;
+          if(batch.size() == BATCH
+             || (!bShown && (batch.flags(batch.size()-1) & FontLines.F_CHAR) != 0))
+          {
+            hand(batch);
+            bShown = true;
+            batch = new GlyphStore(size.rows(), size.cols(), BATCH);
+            if(lLength > 0) setProgress((int)Math.min(99, 100*in.getChannel().position()/lLength));
+          }
+        }
+      }
+      if(isCancelled()) return;
+      // An empty file still replaces the font
+      if(batch.size() > 0 || !bShown) hand(batch);
+
+      src = indexFile(f);
+      if(f.lastModified() != lModified || f.length() != lLength) src = null;
+      setProgress(100);
+
+    } // readLines()
+
+    // Passes a batch to the EDT, behind those before it and ahead of done()
+    private void hand(GlyphStore batch)
+    {
+      SwingUtilities.invokeLater(() -> added(batch));
+    }
+
+    //===============================================================================
+    // Function:    added(GlyphStore batch)
+    // Description: On the EDT: appends a batch to the font. The first replaces the
+    //              font being edited and shows its first record; after that only
+    //              the position is refreshed, and the record being edited is
+    //              left alone.
+    // Input:       GlyphStore batch: the next lines of the file
+    // Output:      asFileContents
+    // Returns:     None
+    // History:
+    // 2026Oct17 Created -- RL
+    //===============================================================================
+    private void added(GlyphStore batch)
+    {
+      if(isCancelled()) return;
+      if(store == null)
+      {
+        asFileContents.close();
+        setGeometry(size);
+        store = new GlyphStore(size.rows(), size.cols(), BATCH);
+        store.beginSource();
+        asFileContents = store;
         bFileDirty = false;
+        store.addAll(batch);
+        cpIndex = null;
+        setFileBusy(true, true);
+        iCurrentLine = 0;
+        if(store.size() > 0) displayLine(iCurrentLine);
+        else clearRec();
+System.out.println("openFile(): first record after "+(System.nanoTime()-t0)/1000000+" ms");
+        return;
       }
-      catch(FileNotFoundException ex)
+      store.addAll(batch);
+      cpIndex = null;
+      showPosition();
+
+    } // added()
+
+    //===============================================================================
+    // Function:    done()
+    // Description: On the EDT: puts the font in place (the sequential load's
+    //              already is, and gets its source) or reports why not. A font
+    //              cancelled or failed part way through is dropped.
+    // Input:       None
+    // Output:      asFileContents
+    // Returns:     None
+    // History:
+    // 2026Oct17 Created (from openFile()) -- RL
+    //===============================================================================
+    @Override
+    protected void done()
+    {
+      endFileJob();
+      if(isCancelled())
       {
-        System.out.println(ex);
+System.out.println("openFile(): cancelled");
+        if(store != null) clearFont();
+        return;
       }
-      finally
+      try
       {
-        if(s != null)
+        FontLines lines = get();
+        if(lines == null)
         {
-          s.close();
+          store.endSource(src);
         }
+        else
+        {
+          asFileContents.close();
+          setGeometry(size);
+          asFileContents = lines;
+          cpIndex = null;
+          bFileDirty = false;
+          iCurrentLine = 0;
+          if(asFileContents.size() > 0) displayLine(iCurrentLine);
+          else clearRec();
+          if(parallel != null) warnUnparsed(parallel.aBadLines);
+        }
+System.out.println("openFile(): "+asFileContents.size()+" lines in "+(System.nanoTime()-t0)/1000000+" ms");
       }
+      catch(InterruptedException | ExecutionException ex)
+      {
+System.out.println(ex.getCause());
+        if(store != null) clearFont();
+      }
+
+    } // done()
+
+  } // class OpenWorker
+
+  //=================================================================================
+  // Function:    startFileJob(SwingWorker<?, ?> job, String sWhat, boolean bProgress)
+  // Description: Runs an open or save on fileExec; until it is done the controls
+  //              it would get in the way of are disabled, and Cancel stops it
+  // Input:       SwingWorker<?, ?> job: the job
+  //              String sWhat: what it is doing, for the progress bar
+  //              boolean bProgress: true if the job sets its progress
+  // Output:      fileJob, progress
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void startFileJob(SwingWorker<?, ?> job, String sWhat, boolean bProgress)
+  {
+    fileJob = job;
+    setFileBusy(true, false);
+    progress.setIndeterminate(!bProgress);
+    progress.setValue(0);
+    progress.setString(sWhat);
+    job.addPropertyChangeListener((ev) ->
+    {
+      // Fired on the EDT
+      if(job != fileJob || !"progress".equals(ev.getPropertyName())) return;
+      int v = (Integer)ev.getNewValue();
+      progress.setValue(v);
+      progress.setString(sWhat+" "+v+"%");
+    });
+    fileExec.execute(job);
+
+  } // startFileJob()
+
+  // The open or save is over; the controls come back
+  private void endFileJob()
+  {
+    fileJob = null;
+    setFileBusy(false, false);
+    progress.setIndeterminate(false);
+    progress.setValue(0);
+    progress.setString("");
+  }
+
+  //=================================================================================
+  // Function:    setFileBusy(boolean bBusy, boolean bEdit)
+  // Description: Enables the controls for what can be done while a file is being
+  //              opened or saved: nothing that changes the number of records, and
+  //              no open or save; the record may be browsed and edited only if
+  //              bEdit (a font streaming in). The font is not to be touched while
+  //              it is being saved, or replaced before it is shown.
+  // Input:       boolean bBusy: a file is being opened or saved
+  //              boolean bEdit: the font may be browsed and edited meanwhile
+  // Output:      The controls' enabled state
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void setFileBusy(boolean bBusy, boolean bEdit)
+  {
+    JComponent[] aEdit = {bnSetAll, bnClearAll, bnFirstRec, bnLastRec, bnPrevRec, bnNextRec,
+                          bnGoToChar, comment, charPresent, grid};
+    for(JComponent jc : aEdit) jc.setEnabled(!bBusy || bEdit);
+    bnInsRec.setEnabled(!bBusy);
+    bnDelRec.setEnabled(!bBusy);
+    bnOpenFile.setEnabled(!bBusy);
+    bnSaveFile.setEnabled(!bBusy);
+    bnCancel.setEnabled(bBusy);
+
+  } // setFileBusy()
+
+  //=================================================================================
+  // Function:    clearFont()
+  // Description: An empty font in place of the one being edited; for an open
+  //              cancelled or failed part way through
+  // Input:       None
+  // Output:      asFileContents, the displayed record
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void clearFont()
+  {
+    asFileContents.close();
+    asFileContents = new GlyphStore(rows, cols);
+    cpIndex = null;
+    bFileDirty = false;
+    iCurrentLine = 0;
+    clearRec();
+
+  } // clearFont()
+
+  // Shows a blank record, for a font with none
+  private void clearRec()
+  {
+    bChar = new CharBuf(aColumns.length);
+    bChar.sComment = "";
+    displayRec();
+    bRecDirty = false;
+  }
+
+  //=================================================================================
+  // Function:    indexFile(File f)
+  // Description: Where each line of f is, for Save File to copy unedited lines
+  //              from
+  // Input:       File f: font file
+  // Output:      None
+  // Returns:     FontSource: its lines; null if it can't be read (Save File then
+  //              writes every line)
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static FontSource indexFile(File f)
+  {
+    try
+    {
+      return FontSource.index(f);
     }
-    // See if file was opened and read
-    // If so, parse and display the first line
-    if(asFileContents.size() > 0)
+    catch(IOException ex)
     {
-      iCurrentLine = 0;
-      parseAndDisplayLine(iCurrentLine);
+      System.out.println("indexFile(): "+ex);
+      return null;
     }
-} // if(foo) (debug)
-//bnOpenFile.setEnabled(true);
 
-  } // openFile()
+  } // indexFile()
 
   //=================================================================================
-  // Function: parseAndDisplayLine()
-  // Description: Parse and display a line from the current file
-  // Input: int l: line number to display
-  // Output: 
+  // Function:    fileSize(File f)
+  // Description: The glyph size to open a font with: sizeDefault if -rows/-cols
+  //              were given, otherwise what Geometry.detect() reads from the file
+  //              (sizeDefault where it shows nothing)
+  // Input:       File f: font file
+  // Output:      None
+  // Returns:     Geometry: the size; sizeDefault if the file can't be read
   // History:
-  // 2015Dec Created -- RL
+  // 2026Oct17 Created -- RL
   //=================================================================================
-  private void parseAndDisplayLine(int l)
+  private static Geometry fileSize(File f)
   {
-    State s;
-    Buf b = new Buf(cols);
-    Input in = new Input(asFileContents.get(l).sLine);
-//    for(s = States.Init; s != null && s != States.Fail && s != States.DONE; s = s.next(in))
-    for(s = States.Init; s != null && s != States.Fail && s != States.DONE && s != States.DONENULL; s = s.next(in))
+    if(bSizeGiven) return sizeDefault;
+    try
     {
-//System.out.println("parseAndDisplayLine(): Next Char:"+in.getcur());
+      return Geometry.detect(f, sizeDefault);
+    }
+    catch(IOException | IllegalArgumentException ex)
+    {
+      System.out.println("fileSize(): "+ex);
+      return sizeDefault;
     }
 
-if(s == States.DONENULL)
-{
-  Buf.bCommentPresent = false;
-  Buf.bCharacterPresent = false;
-  Buf.comment = "";
-  for(int col=0; col<cols; col++) Buf.iBuf[col]=0;
-System.out.println("DoneNull");
-}
-
-    if(s == States.DONE || s == States.DONENULL)
+  } // fileSize()
+
+  //=================================================================================
+  // Function:    warnUnparsed(int[] aBadLines)
+  // Description: Reports the lines a -parallel load could not parse, by line
+  //              number
+  // Input:       int[] aBadLines: ParallelLoader.Result.aBadLines
+  // Output:      Console, and a warning dialog
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created (as openFileParallel()) -- RL
+  // 2026Oct17 Only the report; the load is OpenWorker's -- RL
+  //=================================================================================
+  private void warnUnparsed(int[] aBadLines)
+  {
+    if(aBadLines.length == 0) return;
+    StringBuilder sb = new StringBuilder();
+    for(int i=0; i<aBadLines.length; i++)
     {
-      // File read and parsed correctly; display it
-      bChar.bCommentPresent = Buf.bCommentPresent;
-      bChar.bCharacterPresent = Buf.bCharacterPresent;
-      bChar.sComment = Buf.comment;
-System.out.println("Parse: BufComment="+Buf.comment);
-      for(int col = 0; col < cols && Buf.iBuf[col] != null; col++)
-      {
-        bChar.aEncoding[col] = Buf.iBuf[col];
-//int code = Buf.iBuf[col];
-//System.out.println("parse/code:"+new Integer(code).toHexString(code));
-      }
+      System.out.println("openFile(): Couldn't parse line "+aBadLines[i]);
+      if(i < 10) sb.append(i > 0 ? ", " : "").append(aBadLines[i]);
+    }
+    if(aBadLines.length > 10) sb.append(", ...");
+    JOptionPane.showMessageDialog(this, aBadLines.length+" line(s) could not be parsed: "+sb,
+                                  "Warning", JOptionPane.WARNING_MESSAGE);
 
+  } // warnUnparsed()
+
+  //=================================================================================
+  // Function:    openFileMapped(File f, Geometry size)
+  // Description: Opens a file with MappedFont: only the line index is built here,
+  //              lines are parsed as they are displayed
+  // Input:       File f: file to open; Geometry size: its glyph size
+  // Output:      None
+  // Returns:     FontLines: the font
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Returns the font, for OpenWorker -- RL
+  //=================================================================================
+  private static FontLines openFileMapped(File f, Geometry size) throws IOException
+  {
+    long t0 = System.nanoTime();
+    FontLines lines = MappedFont.open(f, size.rows(), size.cols());
+System.out.println("openFileMapped(): "+lines.size()+" lines indexed in "
+                   +(System.nanoTime()-t0)/1000000+" ms");
+    return lines;
+
+  } // openFileMapped()
+
+  //=================================================================================
+  // Function: displayLine()
+  // Description: Display a line from the current file
+  // Input: int l: line number to display
+  // Output: 
+  // History:
+  // 2015Dec Created (as parseAndDisplayLine()) -- RL
+  // 2026Oct17 Lines are parsed at load; read from the GlyphStore -- RL
+  //=================================================================================
+  private void displayLine(int l)
+  {
+    if((asFileContents.flags(l) & FontLines.F_RAW) == 0)
+    {
+      asFileContents.read(l, bChar);
       displayRec();
       bRecDirty=false;
     }
     else
     {
-      System.out.println("parseAndDisplayLine(): Couldn't parse input file. Final state="+s);
+      System.out.println("displayLine(): Couldn't parse line "+(l+1)+" of input file");
     }
 
-  } // parseAndDisplayLine()
+  } // displayLine()
 
   //=================================================================================
   // Function: displayRec()
@@ -1218,55 +1446,48 @@ System.out.println("Parse: BufComment="+Buf.comment);
   // Output: 
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 Loads the column model first and tests bit r for row r, which works
+  //           for any row count (the fixed 0x80000000 mask only did for 32);
+  //           labels come from the model; comment, character present and
+  //           position are set once rather than once per column -- RL
+  // 2026Oct17 PixelGrid.load() rather than a setSelected() per button -- RL
+  // 2026Oct17 One batch update, so setting the comment leaves the record clean -- RL
+  // 2026Oct17 Position moved to showPosition() -- RL
   //=================================================================================
   private void displayRec()
   {
-    int code;
-//    int ctmp;
-    int col;
-    int crow=0;
-    for(col=0; col<cols; col++)
-    {
-      code=bChar.aEncoding[col];
-//System.out.println("disprec; code="+code);
-      for(int row=rows-1; row>=0; row--)
-      {
-//        ctmp = code & 0x1;
-        bits[row][col].setSelected((code & 0x80000000) != 0 ? true : false);
-//System.out.println("disprec col="+col+"; row="+row+"; code="+code);
-	if(row>0) // don't shift on last pass
-        {
-          code <<= 1;
-        }
-      }
-      Integer i = bChar.aEncoding[col];
-//      codes[crow++].setText(new String(new Integer(code).toHexString(code)));
-// 16 col/32 col characters: change following format string to match column width
-if(cols == 16)
-{
-String s = String.format("0x%4s", new Integer(i).toHexString(i)).replace(' ','0');
-}
-else if(cols == 32)
-{
-String s = String.format("0x%8s", new Integer(i).toHexString(i)).replace(' ','0');
-}
-//System.out.println("displayRec:"+s);
-      // Update the comment field
-      comment.setText(bChar.sComment);
-//System.out.println("displayRec comment:"+bChar.sComment);
-
-      // Update the 'character present' indication
-      charPresent.setSelected(bChar.bCharacterPresent);
-      // Update the displayed file position
-      String s2 = new String(" Record "+(iCurrentLine+1)+"/"+asFileContents.size());
-      currPos.setText(s2);
-//      codes[crow++].setText(String.format("0x%4s", new Integer(code).toHexString(code)).replace(' ','0'));
-//      codes[crow++].setText(s);
-//          System.out.println("Code["+i+"]="+String.format("0x%4s", Integer.toHexString(n)).replace(' ', '0'));
-    }
+    beginUpdate();
+    System.arraycopy(bChar.aEncoding, 0, aColumns, 0, aColumns.length);
+    // Update the comment field
+    comment.setText(bChar.sComment);
+
+    // Update the 'character present' indication
+    charPresent.setSelected(bChar.bCharacterPresent);
+    showPosition();
+    endUpdate();
     
   } // displayRec()
 
+  //=================================================================================
+  // Function:    showPosition()
+  // Description: Shows which record is displayed, of how many, and its character
+  // Input:       None
+  // Output:      currPos
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created (from displayRec()); also as a font streams in -- RL
+  //=================================================================================
+  private void showPosition()
+  {
+    // Update the displayed file position
+    int iRec = (asFileContents.size() > 0) ? iCurrentLine+1 : 0;
+    String s2 = new String(" Record "+iRec+"/"+asFileContents.size());
+    int cp = Codepoints.fromComment(bChar.sComment);
+    if(cp >= 0) s2 += String.format(" U+%04X", cp);
+    currPos.setText(s2);
+
+  } // showPosition()
+
   //=================================================================================
   // Function: promptForSave(String s)
   // Description: prompt for save
@@ -1300,38 +1521,24 @@ String s = String.format("0x%8s", new Integer(i).toHexString(i)).replace(' ','0'
   // Returns:
   // History:
   // 2015Dec Created -- RL
+  // 2026Oct17 Write to a temporary file and rename it over the target, so a
+  //           memory-mapped file being saved over is never truncated -- RL
+  // 2026Oct17 Write the FontProject sidecar -- RL
+  // 2026Oct17 Line loop moved to FontFormat.write() -- RL
+  // 2026Oct17 Also writes the compressed form -- RL
+  // 2026Oct17 Also writes the trimmed form -- RL
+  // 2026Oct17 Also writes the deduplicated form -- RL
+  // 2026Oct17 Also writes the binary font -- RL
+  // 2026Oct17 8 bit file and exports in one pass -- RL
+  // 2026Oct17 Through IncrementalSave; only edited lines are written out -- RL
+  // 2026Oct17 Writing moved to SaveWorker -- RL
+  // 2026Oct17 Cancel stops a save only until the font file is written -- RL
   //=================================================================================
   // Save file
   private void saveFile()
   {
 System.out.println("saveFile();");
-    LineBuf buf = new LineBuf();
-//System.out.println("Save; FileDirty="+bFileDirty);
-   // Make an inital pass over file adjusting the line ends 
-   for(int i=0; i<asFileContents.size(); i++)
-    {
-      buf = asFileContents.get(i);
-//  System.out.println("Save;("+i+"):"+" CommentPresent:"+buf.bCommentPresent+
-//                     " CharPresent:"+buf.bCharacterPresent+"  Line:"+buf.sLine);
-//System.out.println("Save raw;("+i+"): Line:"+buf.sLine);
-      if(i < asFileContents.size()-1)
-      {
-        if(buf.sLine.contains("}") && !buf.sLine.contains("},"))
-        {
-          String s = buf.sLine.replaceAll("}","},");
-          buf.sLine = s;
-//System.out.println("Save adj;("+i+"): Line:"+buf.sLine);
-        }
-      }
-      else if(i == asFileContents.size() -1)
-      {
-        if(buf.sLine.contains("},"))
-        {
-          buf.sLine.replaceAll("},","}");
- //System.out.println("Save adj last;("+i+"): Line:"+buf.sLine);
-        }
-      }
-    }
+    if(fileJob != null) return;
     // Then save the file...
     JFileChooser chooser = new JFileChooser();
     FileNameExtensionFilter filter = new FileNameExtensionFilter("h Files", "h");
@@ -1339,134 +1546,239 @@ System.out.println("saveFile();");
     int rval = chooser.showSaveDialog(null);
     if(rval == JFileChooser.APPROVE_OPTION)
     {
-      try
-      {
-        String sFullPathToFile = new String(chooser.getCurrentDirectory()+"/"+chooser.getSelectedFile().getName());
+      String sFullPathToFile = new String(chooser.getCurrentDirectory()+"/"+chooser.getSelectedFile().getName());
 System.out.println("Saving to:\""+sFullPathToFile+"\"");
-        PrintWriter writer = new PrintWriter(sFullPathToFile);
-        for(int i=0; i<asFileContents.size(); i++)
-        {
-          writer.println(asFileContents.get(i).sLine);
-        }
-        writer.close();
-saveFileAs8Bit(sFullPathToFile);
-      }
-      catch(FileNotFoundException ex)
-      {
-System.out.println(ex);
-      }
-      finally
-      {
-      }
+      startFileJob(new SaveWorker(asFileContents, sFullPathToFile), "Saving", false);
     }
   } // saveFile
 
   //=================================================================================
-  // Function:    saveFileAs8Bit
-  // Description: Since ESP8266 pgm_read_word() does not appear to work, but
-  //                pgm_read_byte() does, this function produces an additional output
-  //                file that is 'byte split' rather than 16 or 32 bit 'word split'
-  //
-  // Input:       String sFilename
-  // Output:      Writes byte split output file with 'b' appended to incoming filename
-  // Returns:
+  // Class: SaveWorker
+  // Description: Writes the font, its exports and its sidecar, off the Event
+  //              Dispatch Thread. Nothing may touch the font meanwhile (a
+  //              MappedFont is read from here); setFileBusy() sees to that.
+  //              Cancel (stop()) interrupts the font file write, and
+  //              IncrementalSave leaves the old file as it was. Once the new
+  //              file is in place it is too late: the exports and sidecar are
+  //              written to match it and the save runs to the end. SwingWorker's
+  //              own cancel() isn't used, as it calls done() at once, while the
+  //              save may still be writing.
   // History:
-  // 2015Dec20 Created -- RL
+  // 2026Oct17 Created (from saveFile()) -- RL
+  // 2026Oct17 Cancel only before the font file is committed -- RL
+  // 2026Oct17 Closes the window, if it was closed while saving -- RL
   //=================================================================================
-  // Save file using only 8 bit values
-  private void saveFileAs8Bit(String sFullPathToFile)
+  private final class SaveWorker extends SwingWorker<IncrementalSave.Result, Void>
   {
-    StringBuffer sbFullPathToOutputFile = new StringBuffer(sFullPathToFile);
-System.out.println("saveFileAs8Bit();");
-// Assuming asFileContents has already been parsed and cleaned up above....
-    int p;
-    LineBuf buf = new LineBuf();
-    StringBuilder sbOutbuf;
-    // Convert from 16 or 32 bit words to 8 bit values
-    for(int i=0; i<asFileContents.size(); i++)
+    private final FontLines lines;
+    private final String sFullPathToFile;
+    private Thread thread = null;        // writing the font file; guarded by this
+    private boolean bStopped = false;    // Cancel pressed in time; guarded by this
+    private boolean bCommitted = false;  // font file in place; guarded by this
+
+    SaveWorker(FontLines lines, String sFullPathToFile)
+    {
+      this.lines = lines;
+      this.sFullPathToFile = sFullPathToFile;
+    }
+
+    @Override
+    protected IncrementalSave.Result doInBackground() throws IOException
     {
-      buf = asFileContents.get(i);
-      sbOutbuf = new StringBuilder(); // clear the output buffer
-// Algorithm:
-// Call this function to generate byte output files (append '8' to filename) in addition
-// to the normal output files every time a file is saved
-// buf.sLine has current line
-// find '{'
-      p = buf.sLine.indexOf('{');
-      // Copy all of this to the output buffer
-System.out.println("buf.sLine:"+buf.sLine);
-if(p > -1) System.out.println("sfa8b p="+p);
-      if(p>0) sbOutbuf.append(buf.sLine.substring(0,p));
-      else sbOutbuf.append("{");
-// then parse each column value...
-//String[] hexnumstrings = buf.sLine.split(",");
-      for(int col=0; col<cols; col++)
+      long t0 = System.nanoTime();
+      IncrementalSave.Result r = null;
+      synchronized(this)
       {
-        // find first "0x" of this output 16 or 32 bit word
-        p = buf.sLine.indexOf("0x", p);
-if(p > -1) System.out.println("sfa8b#2 p="+p);
-        sbOutbuf.append(buf.sLine.substring(p, p+4));
-        sbOutbuf.append(",");
-        p+=4;
-// have first byte - now process one more for 16 rows, or 3 more for 32 rows
-// ...and split each into 2 bytes (16 rows) or 4 bytes (32 rows), saving to new string
-        for(int byt=1; byt<(rows/8); byt++)
+        if(bStopped) return null;
+        thread = Thread.currentThread();
+      }
+      try
+      {
+        r = IncrementalSave.write(lines, new File(sFullPathToFile));
+      }
+      catch(IOException ex)
+      {
+        // Interrupted by stop(): the old file is still there
+        synchronized(this)
         {
-System.out.println("foreachbyte-"+byt+":"+sbOutbuf.toString());
-          sbOutbuf.append("0x");
-          sbOutbuf.append(buf.sLine.substring(p, p+2));
-          sbOutbuf.append(",");
-          p += 2;
+          if(!bStopped) throw ex;
         }
-//        if(col < cols) sbOutbuf.append(",");
-      } // endfor each column
-      if(i<asFileContents.size()-1) // if not last line
+      }
+      finally
       {
-        sbOutbuf.append("},");
-        if(buf.sLine.substring(buf.sLine.indexOf("}")).length() > 2)
+        synchronized(this)
         {
-          sbOutbuf.append(buf.sLine.substring(p+2)); // append comment if present
+          thread = null;
+          bCommitted = (r != null);
+          Thread.interrupted();  // a stop() that came too late
         }
       }
-      else
+      if(r == null) return null;
+System.out.println("saveFile(): "+r.nWritten+" line(s) written, "+r.lCopied+" bytes copied, in "
+                   +(System.nanoTime()-t0)/1000000+" ms");
+saveFileExports(lines, sFullPathToFile);
+      FontProject.write(new File(sFullPathToFile), lines);
+      return r;
+    }
+
+    // Cancel: stops the font file write, if it isn't already in place
+    synchronized void stop()
+    {
+      if(bCommitted)
+      {
+System.out.println("saveFile(): font file already written, finishing the save");
+        return;
+      }
+      bStopped = true;
+      if(thread != null) thread.interrupt();
+    }
+
+    @Override
+    protected void done()
+    {
+      endFileJob();
+      try
       {
-        sbOutbuf.append("}");
-        if(buf.sLine.substring(buf.sLine.indexOf("}")).length() > 2)
+        if(get() == null)
         {
-          sbOutbuf.append(buf.sLine.substring(p+2)); // append comment if present
+System.out.println("saveFile(): cancelled");
+          closeAfterSave(false);
+          return;
         }
-      } // endelse last line
+        bFileDirty = false;
+        closeAfterSave(true);
+      }
+      catch(InterruptedException | ExecutionException ex)
+      {
+System.out.println(ex.getCause());
+        closeAfterSave(false);
+      }
+    }
 
-      // replace original sLine with new string
-      buf.sLine = sbOutbuf.toString();
+  } // class SaveWorker
 
-    } // endfor each line in file
-    
+  // Makes one export's encoder in out, given the file it goes to
+  interface Export
+  {
+    GlyphEncoder open(Outputs out, File f) throws IOException;
+  }
 
-    // Then save the file...
+  //=================================================================================
+  // Function:    addExport
+  // Description: Adds one export to the pass; a font the export can't take (too
+  //              many rows to split, columns past its tables) is reported and
+  //              left out, and the others go ahead
+  // Input:       Outputs out; File f: where it goes; String sWhat: for the console
+  //              Export e: the export
+  // Output:      out
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static void addExport(Outputs out, File f, String sWhat, Export e) throws IOException
+  {
+System.out.println("Saving "+sWhat+" to:\""+f+"\"");
     try
     {
-      sbFullPathToOutputFile.append("8bit");
-System.out.println("Saving 8 bit only to:\""+sbFullPathToOutputFile.toString()+"\"");
-      PrintWriter writer = new PrintWriter(sbFullPathToOutputFile.toString());
-      for(int i=0; i<asFileContents.size(); i++)
-      {
-        writer.println(asFileContents.get(i).sLine);
-      }
-      writer.close();
+      e.open(out, f);
     }
-    catch(FileNotFoundException ex)
+    catch(IllegalArgumentException ex)
     {
 System.out.println(ex);
     }
-    finally
+  } // addExport()
+
+  //=================================================================================
+  // Function:    saveFileExports
+  // Description: Writes the files Save File puts beside the font, in one pass over
+  //              it: the 8 bit ('byte split') file - since ESP8266 pgm_read_word()
+  //              does not appear to work, but pgm_read_byte() does - the binary
+  //              font, and the compressed, trimmed, deduplicated, Adafruit GFX and
+  //              XBM C exports. Each goes to a temporary file first and they are
+  //              moved into place together, so an export that fails part way (a
+  //              compressed glyph that doesn't round trip) leaves none of them
+  //              behind. The reports go to the console.
+  //
+  // Input:       FontLines lines: the font
+  //              String sFullPathToFile
+  // Output:      Writes the 8 bit file and the exports, each with a suffix
+  //              appended to the file name
+  // Returns:
+  // History:
+  // 2015Dec20 Created (as saveFileAs8Bit()) -- RL
+  // 2026Oct17 Splits the stored column words rather than re-scanning the text,
+  //           and leaves asFileContents alone -- RL
+  // 2026Oct17 Line loop moved to FontFormat.write8Bit() -- RL
+  // 2026Oct17 Reports rows that can't be byte split -- RL
+  // 2026Oct17 saveFileAs8Bit(), saveFileBlob() and saveFileExport() made one
+  //           pass of GlyphEncoders through an Outputs -- RL
+  // 2026Oct17 Rows from the font rather than CharSize -- RL
+  // 2026Oct17 Takes the font, as it runs on SaveWorker's thread -- RL
+  //=================================================================================
+  private static void saveFileExports(FontLines lines, String sFullPathToFile)
+  {
+System.out.println("saveFileExports();");
+    String sName = ProgmemWriter.identifier(sFullPathToFile);
+    String sFrom = new File(sFullPathToFile).getName();
+    int iRows = lines.rows();
+    int nCols = lines.cols();
+    try(Outputs out = new Outputs(false))
+    {
+      addExport(out, new File(sFullPathToFile+"8bit"), "8 bit only",
+                (o, f) -> o.text(f, (w) -> new SplitWriter(w, iRows, nCols, FontFormat.SPLIT)));
+      addExport(out, new File(sFullPathToFile+"bin"), "binary font",
+                (o, f) -> o.binary(f, (ch) -> new BlobWriter(ch, iRows, nCols)));
+      addExport(out, new File(sFullPathToFile+"z"), "compressed",
+                (o, f) -> o.text(f, (w) -> new CompressedWriter(w, sName, sFrom, iRows, nCols)));
+      addExport(out, new File(sFullPathToFile+"trim"), "trimmed",
+                (o, f) -> o.text(f, (w) -> new TrimWriter(w, sName, sFrom, iRows, nCols)));
+      addExport(out, new File(sFullPathToFile+"dedup"), "deduplicated",
+                (o, f) -> o.text(f, (w) -> new DedupWriter(w, sName, sFrom, iRows, nCols)));
+      addExport(out, new File(sFullPathToFile+"gfx"), "Adafruit GFX",
+                (o, f) -> o.text(f, (w) -> new GfxWriter(w, sName, sFrom, iRows, nCols)));
+      addExport(out, new File(sFullPathToFile+"xbm"), "XBM",
+                (o, f) -> o.text(f, (w) -> new XbmWriter(w, sName, sFrom, iRows, nCols)));
+      GlyphEncoder.encode(lines, out.encoders());
+System.out.print(out.finish());
+    }
+    catch(IOException | IllegalArgumentException | IllegalStateException ex)
     {
+System.out.println(ex);
     }
-  } // saveFileAs8Bit()
+  } // saveFileExports()
 
 
   public static void main(String[] args) throws FileNotFoundException
   {
+    for(int i=0; i<args.length; i++)
+    {
+      String s = args[i];
+      if(s.equals("-parallel")) bParallelLoad = true;
+      if(s.equals("-mmap")) bMappedLoad = true;
+      if((s.equals("-rows") || s.equals("-cols")) && i+1 < args.length)
+      {
+        try
+        {
+          if(s.equals("-rows")) rows = Integer.parseInt(args[++i]);
+          else cols = Integer.parseInt(args[++i]);
+        }
+        catch(NumberFormatException ex)
+        {
+          System.out.println(s+" needs a number, not "+args[i]);
+          return;
+        }
+        bSizeGiven = true;
+      }
+    }
+    try
+    {
+      sizeDefault = new Geometry(rows, cols);
+    }
+    catch(IllegalArgumentException ex)
+    {
+      System.out.println(ex.getMessage());
+      return;
+    }
     new CBArray();
 
   } // main()
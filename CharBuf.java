@@ -0,0 +1,57 @@
+//==================================================================================
+// File: CharBuf.java
+//
+// Description: One record as the editor shows it: column words, comment and
+//              flags, as the record stores read it out.
+//
+// History:
+// 2015Dec Created (in CBArray.java) -- RL
+// 2026Oct17 Own file, as the record stores read into it -- RL
+//==================================================================================
+package cbarray;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: CharBuf
+  // Description: Stores all information regarding one character cell,
+  //              including related in-line comment and character encoding
+  // Input: 
+  // Output:
+  // Returns:
+  // History:
+  // 2015Dec Created -- RL
+  // 2026Oct17 boolean rather than Boolean flags -- RL
+  // 2026Oct17 CharBuf(int nWords), for fonts of other sizes than CharSize -- RL
+  //=================================================================================
+class CharBuf
+{
+  String sComment;
+  int aEncoding[];
+  boolean bCommentPresent;
+  boolean bCharacterPresent;
+  public CharBuf()
+  {
+    this(CharSize.cols*Geometry.wordsPerColumn(CharSize.rows));
+  }
+  // nWords: column words of a line, FontLines.lineWords()
+  public CharBuf(int nWords)
+  {
+    aEncoding = new int[nWords];
+  }
+/*
+  public CharBuf(String sComment, int aEncoding[])
+  {
+    this.sComment = sComment;
+    this.aEncoding = aEncoding;
+    this.bCommentPresent = (sComment.length() > 0) ? true : false;
+  }
+*/
+  public CharBuf(CharBuf b)
+  {
+    this.sComment = b.sComment;
+    this.aEncoding = b.aEncoding;
+    this.bCommentPresent = b.bCommentPresent;
+    this.bCharacterPresent = b.bCharacterPresent;
+  }
+} // class CharBuf
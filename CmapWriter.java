@@ -0,0 +1,248 @@
+//==================================================================================
+// File: CmapWriter.java
+//
+// Description: Writes the character map of a font as C: which glyph draws which
+//              codepoint, for the glyph numbering every other export uses (the
+//              records with a character, in file order). The codepoint of each
+//              glyph comes from its line end comment (Codepoints.fromComment()).
+//
+//              The map is a range table - runs of consecutive codepoints drawn
+//              by consecutive glyphs, as start, length and base glyph, sorted -
+//              with name_glyph(cp), a binary search of it. A font made of a few
+//              Unicode blocks is a handful of ranges however many glyphs it has.
+//              Optionally a perfect hash (PerfectHash) as well, with
+//              name_glyph_hash(cp): two hashes and one compare, for fonts
+//              scattered over so many ranges that the search is too slow.
+//
+//              Both tables are checked against every codepoint before finish()
+//              returns. Only the pairs (8 bytes a glyph, CodepointIndex.Builder)
+//              are held.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Pairs collected by CodepointIndex.Builder -- RL
+// 2026Oct17 A GlyphEncoder -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: CmapWriter
+  // Description: Collects glyph codepoints and writes the range table, optional
+  //              perfect hash and lookup functions, with a report
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class CmapWriter implements GlyphEncoder
+{
+  static final int MAXRANGE = 0xffff;       // range lengths are uint16_t
+
+  private final Writer w;
+  private final String sName;
+  private final String sFrom;
+  private final boolean bHash;
+  private final CodepointIndex.Builder cps = new CodepointIndex.Builder();
+
+  //=================================================================================
+  // Function:    CmapWriter(Writer w, String sName, String sFrom, boolean bHash)
+  // Description: Nothing is written until finish()
+  // Input:       Writer w: output
+  //              String sName: C identifier; the tables are sName_range_start ...
+  //              String sFrom: where the font came from, for the header comment
+  //              boolean bHash: also write the perfect hash
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  CmapWriter(Writer w, String sName, String sFrom, boolean bHash)
+  {
+    this.w = w;
+    this.sName = sName;
+    this.sFrom = sFrom;
+    this.bHash = bHash;
+
+  } // CmapWriter()
+
+  // The next glyph, by its line end comment
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+  {
+    cps.glyph(sComment);
+  }
+
+  // One table of values, 12 to a line
+  private void table(String sDecl, int[] a, boolean bHex) throws IOException
+  {
+    String sNl = System.lineSeparator();
+    w.write(sDecl+" = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    for(int i=0; i<a.length; i++)
+    {
+      sb.append(bHex ? String.format("0x%04x", a[i]) : Integer.toString(a[i])).append(',');
+      if(i % 12 == 11 || i == a.length-1)
+      {
+        sb.append(sNl);
+        w.write(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Sorts the codepoints, writes the tables and lookup functions,
+  //              and checks every codepoint comes back to its glyph
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the report; throws IllegalStateException if a table
+  //              gives a wrong glyph
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    CodepointIndex index = cps.build();
+    int nGlyphs = cps.glyphs();
+    int n = index.size();
+    int[][] aRanges = index.ranges(MAXRANGE);
+    int nRanges = aRanges[0].length;
+    int iMaxCp = (n == 0) ? 0 : index.codepoint(n-1);
+    boolean bCp16 = iMaxCp <= 0xffff;
+    boolean bGlyph16 = nGlyphs <= 0x10000;
+    String sCpType = bCp16 ? "uint16_t" : "uint32_t";
+    String sGlyphType = bGlyph16 ? "uint16_t" : "uint32_t";
+    String sCpRead = bCp16 ? "pgm_read_word" : "pgm_read_dword";
+    String sGlyphRead = bGlyph16 ? "pgm_read_word" : "pgm_read_dword";
+
+    w.write("// "+sName+": character map by FontConv of "+sFrom+sNl);
+    w.write("// Codepoints "+sName+"_range_start[i] .. +"+sName+"_range_len[i]-1 are glyphs "
+            +sName+"_range_base[i] on;"+sNl);
+    w.write("// ranges ascend. "+sName+"_glyph(cp) gives the glyph of cp, or -1."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    table("const "+sCpType+" "+sName+"_range_start[] PROGMEM", aRanges[0], true);
+    table("const uint16_t "+sName+"_range_len[] PROGMEM", aRanges[1], false);
+    table("const "+sGlyphType+" "+sName+"_range_base[] PROGMEM", aRanges[2], false);
+    w.write("#define "+sUpper+"_RANGES "+nRanges+sNl);
+    w.write("#define "+sUpper+"_MAPPED "+n+sNl);
+    w.write(sNl);
+    w.write("static inline int32_t "+sName+"_glyph(uint32_t cp)"+sNl);
+    w.write("{"+sNl);
+    w.write("  uint32_t lo = 0, hi = "+sUpper+"_RANGES;"+sNl);
+    w.write("  while(lo < hi)"+sNl);
+    w.write("  {"+sNl);
+    w.write("    uint32_t mid = (lo + hi) / 2;"+sNl);
+    w.write("    if(cp < "+sCpRead+"(&"+sName+"_range_start[mid])) hi = mid;"+sNl);
+    w.write("    else lo = mid + 1;"+sNl);
+    w.write("  }"+sNl);
+    w.write("  if(lo == 0) return -1;"+sNl);
+    w.write("  lo--;"+sNl);
+    w.write("  uint32_t off = cp - "+sCpRead+"(&"+sName+"_range_start[lo]);"+sNl);
+    w.write("  if(off >= pgm_read_word(&"+sName+"_range_len[lo])) return -1;"+sNl);
+    w.write("  return (int32_t)("+sGlyphRead+"(&"+sName+"_range_base[lo]) + off);"+sNl);
+    w.write("}"+sNl);
+
+    // Check the ranges as the firmware searches them
+    for(int i=0; i<n; i++)
+    {
+      int cp = index.codepoint(i);
+      int r = Arrays.binarySearch(aRanges[0], cp);
+      if(r < 0) r = -r - 2;
+      if(r < 0 || cp - aRanges[0][r] >= aRanges[1][r] || aRanges[2][r] + cp - aRanges[0][r] != index.value(i))
+      {
+        throw new IllegalStateException("range table gives the wrong glyph for U+"+Integer.toHexString(cp));
+      }
+    }
+
+    PerfectHash ph = null;
+    if(bHash && n > 0)
+    {
+      int[] aKeys = new int[n];
+      for(int i=0; i<n; i++) aKeys[i] = index.codepoint(i);
+      ph = new PerfectHash(aKeys, n);
+      int nSlots = ph.slots();
+      int[] aDisp = new int[ph.buckets()];
+      for(int b=0; b<aDisp.length; b++) aDisp[b] = ph.disp(b);
+      // An empty slot holds the first key, which always hashes elsewhere
+      int[] aKey = new int[nSlots];
+      int[] aGlyph = new int[nSlots];
+      for(int s=0; s<nSlots; s++)
+      {
+        int i = ph.key(s);
+        aKey[s] = (i < 0) ? aKeys[0] : aKeys[i];
+        aGlyph[s] = (i < 0) ? 0 : index.value(i);
+      }
+      for(int i=0; i<n; i++)
+      {
+        int s = ph.slot(aKeys[i]);
+        if(aKey[s] != aKeys[i] || aGlyph[s] != index.value(i))
+        {
+          throw new IllegalStateException("perfect hash gives the wrong glyph for U+"+Integer.toHexString(aKeys[i]));
+        }
+      }
+
+      w.write(sNl);
+      w.write("// Perfect hash: "+sName+"_glyph_hash(cp) is "+sName+"_glyph(cp) in two hashes and one compare."+sNl);
+      w.write("// d = disp[mix(cp) % BUCKETS], slot = mix(cp ^ (d+1)*0x9e3779b9) % SLOTS, then key[slot] must be cp."+sNl);
+      table("const uint16_t "+sName+"_hash_disp[] PROGMEM", aDisp, false);
+      table("const "+sCpType+" "+sName+"_hash_key[] PROGMEM", aKey, true);
+      table("const "+sGlyphType+" "+sName+"_hash_glyph[] PROGMEM", aGlyph, false);
+      w.write("#define "+sUpper+"_HASH_BUCKETS "+ph.buckets()+"u"+sNl);
+      w.write("#define "+sUpper+"_HASH_SLOTS "+nSlots+"u"+sNl);
+      w.write(sNl);
+      w.write("static inline uint32_t "+sName+"_mix(uint32_t x)"+sNl);
+      w.write("{"+sNl);
+      w.write("  x ^= x >> 16;"+sNl);
+      w.write("  x *= 0x7feb352du;"+sNl);
+      w.write("  x ^= x >> 15;"+sNl);
+      w.write("  x *= 0x846ca68bu;"+sNl);
+      w.write("  x ^= x >> 16;"+sNl);
+      w.write("  return x;"+sNl);
+      w.write("}"+sNl);
+      w.write(sNl);
+      w.write("static inline int32_t "+sName+"_glyph_hash(uint32_t cp)"+sNl);
+      w.write("{"+sNl);
+      w.write("  uint32_t d = pgm_read_word(&"+sName+"_hash_disp["+sName+"_mix(cp) % "+sUpper+"_HASH_BUCKETS]);"+sNl);
+      w.write("  uint32_t s = "+sName+"_mix(cp ^ ((d + 1) * 0x9e3779b9u)) % "+sUpper+"_HASH_SLOTS;"+sNl);
+      w.write("  if("+sCpRead+"(&"+sName+"_hash_key[s]) != cp) return -1;"+sNl);
+      w.write("  return (int32_t)"+sGlyphRead+"(&"+sName+"_hash_glyph[s]);"+sNl);
+      w.write("}"+sNl);
+    }
+
+    int iCpBytes = bCp16 ? 2 : 4;
+    int iGlyphBytes = bGlyph16 ? 2 : 4;
+    long lRanges = (long)nRanges*(iCpBytes + 2 + iGlyphBytes);
+    long lDense = (n == 0) ? 0 : (long)(iMaxCp - index.codepoint(0) + 1)*iGlyphBytes;
+    int iSteps = 32 - Integer.numberOfLeadingZeros(nRanges);
+    StringBuilder sb = new StringBuilder(512);
+    sb.append("Character map of ").append(sName).append(sNl);
+    sb.append(String.format("  glyphs:           %d, %d with no character named, %d repeating one%n",
+                            nGlyphs, cps.unnamed(), index.duplicates()));
+    sb.append(String.format("  codepoints:       %d%s%n", n,
+                            (n == 0) ? "" : String.format(", U+%04X to U+%04X", index.codepoint(0), iMaxCp)));
+    sb.append(String.format("  range table:      %d ranges, %d bytes, at most %d search steps%n",
+                            nRanges, lRanges, iSteps));
+    sb.append(String.format("  dense table:      %d bytes for comparison%n", lDense));
+    if(ph != null)
+    {
+      sb.append(String.format("  perfect hash:     %d buckets, %d slots (%.0f%% full), largest displacement %d%n",
+                              ph.buckets(), ph.slots(), 100.0*n/ph.slots(), ph.maxDisp()));
+      sb.append(String.format("                    %d bytes, one probe%n",
+                              2L*ph.buckets() + (long)ph.slots()*(iCpBytes + iGlyphBytes)));
+    }
+    return sb.toString();
+
+  } // finish()
+
+} // class CmapWriter
@@ -0,0 +1,197 @@
+//==================================================================================
+// File: CodepointIndex.java
+//
+// Description: Which record draws which character, as a sorted table. Built once
+//              from the codepoint each record names (Codepoints.fromComment());
+//              then a character's record is a binary search, O(log n), and the
+//              table splits into runs of consecutive characters drawn by
+//              consecutive records - the range table the firmware searches.
+//
+//              Values are whatever the caller numbers records by: line numbers
+//              for the editor, glyph numbers (records with a character, in file
+//              order) for the C exports. Where two records name one character
+//              the first in the file wins.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Builder, for exports that number glyphs as they stream -- RL
+//==================================================================================
+package cbarray;
+
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: CodepointIndex
+  // Description: Sorted codepoint -> record table with binary search and runs
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class CodepointIndex
+{
+  private final int[] aCps;
+  private final int[] aValues;
+  private final int n;
+  private final int nDuplicates;
+
+  //=================================================================================
+  // Class: Builder
+  // Description: Collects the codepoint of each glyph of a streamed font, numbering
+  //              the glyphs 0, 1, ... as they come
+  // History:
+  // 2026Oct17 Created (from CmapWriter) -- RL
+  //=================================================================================
+  static final class Builder
+  {
+    private int[] aCps = new int[1024];
+    private int[] aGlyphs = new int[1024];
+    private int nPairs;
+    private int nGlyphs;
+    private int nUnnamed;
+
+    // The next glyph, by its line end comment
+    void glyph(String sComment)
+    {
+      int cp = Codepoints.fromComment(sComment);
+      if(cp < 0)
+      {
+        nUnnamed++;
+      }
+      else
+      {
+        if(nPairs == aCps.length)
+        {
+          aCps = Arrays.copyOf(aCps, 2*nPairs);
+          aGlyphs = Arrays.copyOf(aGlyphs, 2*nPairs);
+        }
+        aCps[nPairs] = cp;
+        aGlyphs[nPairs++] = nGlyphs;
+      }
+      nGlyphs++;
+    }
+
+    int glyphs() { return nGlyphs; }
+    int unnamed() { return nUnnamed; }        // glyphs whose comment names no character
+
+    CodepointIndex build() { return new CodepointIndex(aCps, aGlyphs, nPairs); }
+
+  } // class Builder
+
+  //=================================================================================
+  // Function:    CodepointIndex(int[] aCps, int[] aValues, int n)
+  // Description: Sorts n codepoint, value pairs by codepoint. Values must ascend in
+  //              file order, so for a repeated codepoint the smallest is kept.
+  // Input:       int[] aCps, int[] aValues: the pairs, in [0, n); not kept
+  //              int n: number of pairs
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  CodepointIndex(int[] aCps, int[] aValues, int n)
+  {
+    long[] a = new long[n];
+    for(int i=0; i<n; i++) a[i] = ((long)aCps[i] << 32) | (aValues[i] & 0xffffffffL);
+    Arrays.sort(a);
+
+    this.aCps = new int[n];
+    this.aValues = new int[n];
+    int k = 0;
+    for(int i=0; i<n; i++)
+    {
+      int cp = (int)(a[i] >>> 32);
+      if(k > 0 && this.aCps[k-1] == cp) continue;
+      this.aCps[k] = cp;
+      this.aValues[k] = (int)a[i];
+      k++;
+    }
+    this.n = k;
+    this.nDuplicates = n - k;
+
+  } // CodepointIndex()
+
+  //=================================================================================
+  // Function:    of(FontLines lines)
+  // Description: Index of the records of an open font by line number
+  // Input:       FontLines lines: the file contents
+  // Output:      None
+  // Returns:     CodepointIndex: codepoint -> line
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static CodepointIndex of(FontLines lines)
+  {
+    int nLines = lines.size();
+    int[] aCps = new int[nLines];
+    int[] aLines = new int[nLines];
+    int k = 0;
+    for(int i=0; i<nLines; i++)
+    {
+      if((lines.flags(i) & FontLines.F_CHAR) == 0) continue;
+      int cp = Codepoints.fromComment(lines.comment(i));
+      if(cp < 0) continue;
+      aCps[k] = cp;
+      aLines[k++] = i;
+    }
+    return new CodepointIndex(aCps, aLines, k);
+
+  } // of()
+
+  int size() { return n; }
+  int duplicates() { return nDuplicates; }      // pairs dropped as repeats
+  int codepoint(int i) { return aCps[i]; }      // i-th smallest codepoint
+  int value(int i) { return aValues[i]; }
+
+  //=================================================================================
+  // Function:    find(int cp)
+  // Description: Binary search for a codepoint
+  // Input:       int cp: the codepoint
+  // Output:      None
+  // Returns:     int: its value, or -1 if no record names it
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int find(int cp)
+  {
+    int i = Arrays.binarySearch(aCps, 0, n, cp);
+    return (i >= 0) ? aValues[i] : -1;
+
+  } // find()
+
+  //=================================================================================
+  // Function:    ranges(int iMaxLength)
+  // Description: Splits the table into runs: codepoints start..start+length-1
+  //              have values base..base+length-1
+  // Input:       int iMaxLength: longest run to make; longer ones are split
+  // Output:      None
+  // Returns:     int[][]: { starts, lengths, bases }, one entry per run
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int[][] ranges(int iMaxLength)
+  {
+    int[] aStart = new int[n];
+    int[] aLength = new int[n];
+    int[] aBase = new int[n];
+    int r = -1;
+    for(int i=0; i<n; i++)
+    {
+      if(r >= 0 && aCps[i] == aStart[r] + aLength[r] && aValues[i] == aBase[r] + aLength[r]
+         && aLength[r] < iMaxLength)
+      {
+        aLength[r]++;
+        continue;
+      }
+      r++;
+      aStart[r] = aCps[i];
+      aLength[r] = 1;
+      aBase[r] = aValues[i];
+    }
+    r++;
+    return new int[][] { Arrays.copyOf(aStart, r), Arrays.copyOf(aLength, r), Arrays.copyOf(aBase, r) };
+
+  } // ranges()
+
+} // class CodepointIndex
@@ -0,0 +1,181 @@
+//==================================================================================
+// File: Codepoints.java
+//
+// Description: Which character a record draws, and sets of characters. Records
+//              say what they are in their line end comment, in the forms this
+//              project's fonts use: "U+0041" (4 to 6 hex digits) or the character
+//              itself in single quotes, "'A'" ('\'' and '\\' for the quote and
+//              backslash). Sets are plain bitmaps over all of Unicode (136 KB).
+//
+//              scanUtf8() decodes a UTF-8 stream straight from bytes into a set,
+//              so a corpus of any size is read once with one fixed buffer.
+//              Malformed bytes are skipped.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 fromText() -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+  //=================================================================================
+  // Class: Codepoints
+  // Description: Static helpers for record codepoints and codepoint sets
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class Codepoints
+{
+  static final int LIMIT = 0x110000;        // one past the last codepoint
+  static final int BUFSIZE = 1 << 20;
+
+  private Codepoints()
+  {
+  }
+
+  static long[] newSet() { return new long[LIMIT >>> 6]; }
+  static void add(long[] set, int cp) { set[cp >>> 6] |= 1L << cp; }
+  static boolean contains(long[] set, int cp) { return (set[cp >>> 6] & (1L << cp)) != 0; }
+
+  static int count(long[] set)
+  {
+    int n = 0;
+    for(long l : set) n += Long.bitCount(l);
+    return n;
+  }
+
+  //=================================================================================
+  // Function:    fromComment(String sComment)
+  // Description: The codepoint a record's line end comment names
+  // Input:       String sComment: the comment, with or without its "//"
+  // Output:      None
+  // Returns:     int: the codepoint, or -1 if the comment doesn't name one
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int fromComment(String sComment)
+  {
+    int len = sComment.length();
+
+    // U+XXXX first: it is unambiguous, and a quoted character may be a symbol
+    for(int p=sComment.indexOf("U+"); p >= 0; p=sComment.indexOf("U+", p+2))
+    {
+      int cp = 0;
+      int n = 0;
+      for(int j=p+2; j<len && n<6; j++, n++)
+      {
+        int d = Character.digit(sComment.charAt(j), 16);
+        if(d < 0) break;
+        cp = (cp << 4) | d;
+      }
+      if(n >= 4 && cp < LIMIT) return cp;
+    }
+
+    int q = sComment.indexOf('\'');
+    if(q >= 0 && q+2 < len)
+    {
+      char c = sComment.charAt(q+1);
+      if(c == '\\' && q+3 < len && sComment.charAt(q+3) == '\'')
+      {
+        return sComment.charAt(q+2);
+      }
+      int cp = sComment.codePointAt(q+1);
+      int e = q+1+Character.charCount(cp);
+      if(e < len && sComment.charAt(e) == '\'') return cp;
+    }
+    return -1;
+
+  } // fromComment()
+
+  //=================================================================================
+  // Function:    fromText(String s)
+  // Description: A character as someone types it: "U+0041", "'A'", "0x41" or
+  //              just "A"
+  // Input:       String s: the text, trimmed
+  // Output:      None
+  // Returns:     int: the codepoint, or -1 if s isn't one of those
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int fromText(String s)
+  {
+    if(s.isEmpty()) return -1;
+    if(s.codePointCount(0, s.length()) == 1) return s.codePointAt(0);
+    if(s.startsWith("0x") || s.startsWith("0X"))
+    {
+      try
+      {
+        int cp = Integer.parseInt(s.substring(2), 16);
+        return (cp < LIMIT) ? cp : -1;
+      }
+      catch(NumberFormatException ex)
+      {
+        return -1;
+      }
+    }
+    return fromComment(s);
+
+  } // fromText()
+
+  //=================================================================================
+  // Function:    scanUtf8(InputStream in, long[] set)
+  // Description: Adds every character of a UTF-8 stream to set. Sequences may span
+  //              buffer reads; overlong, surrogate and truncated sequences are
+  //              dropped, as is a byte order mark.
+  // Input:       InputStream in: the text; long[] set: from newSet()
+  // Output:      set
+  // Returns:     long: number of characters read
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static long scanUtf8(InputStream in, long[] set) throws IOException
+  {
+    byte[] a = new byte[BUFSIZE];
+    long lChars = 0;
+    int cp = 0;          // sequence being built
+    int iNeed = 0;       // continuation bytes still to come
+    int iMin = 0;        // smallest codepoint the sequence may encode
+    int n;
+    while((n = in.read(a)) > 0)
+    {
+      for(int i=0; i<n; i++)
+      {
+        int b = a[i];
+        if(b >= 0)
+        {
+          // ASCII; ends any unfinished sequence
+          iNeed = 0;
+          set[b >>> 6] |= 1L << b;
+          lChars++;
+          continue;
+        }
+        if((b & 0xc0) == 0x80)
+        {
+          if(iNeed == 0) continue;
+          cp = (cp << 6) | (b & 0x3f);
+          if(--iNeed == 0)
+          {
+            if(cp >= iMin && cp < LIMIT && (cp < 0xd800 || cp > 0xdfff) && cp != 0xfeff)
+            {
+              set[cp >>> 6] |= 1L << cp;
+              lChars++;
+            }
+          }
+          continue;
+        }
+        if((b & 0xe0) == 0xc0)      { cp = b & 0x1f; iNeed = 1; iMin = 0x80; }
+        else if((b & 0xf0) == 0xe0) { cp = b & 0x0f; iNeed = 2; iMin = 0x800; }
+        else if((b & 0xf8) == 0xf0) { cp = b & 0x07; iNeed = 3; iMin = 0x10000; }
+        else iNeed = 0;
+      }
+    }
+    return lChars;
+
+  } // scanUtf8()
+
+} // class Codepoints
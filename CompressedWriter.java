@@ -0,0 +1,227 @@
+//==================================================================================
+// File: CompressedWriter.java
+//
+// Description: Writes a font as GlyphCodec compressed glyphs in C: a PROGMEM
+//              byte array of the glyphs back to back and a table of where each
+//              starts. Every glyph is decoded again as soon as it is encoded and
+//              compared with the words it came from, so a font that is written
+//              has round tripped record for record.
+//
+//              Glyphs stream out as they come; only the start table (4 bytes a
+//              glyph) is held until finish().
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 A GlyphEncoder, fed by FontConv's read loop or GlyphEncoder.encode();
+//           write() removed -- RL
+// 2026Oct17 Up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: CompressedWriter
+  // Description: Streams glyphs out compressed, checks each round trip and reports
+  //              sizes and decode cost
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class CompressedWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final byte[] aEnc;
+  private final int[] aDec;
+  private final char[] a;
+  private int[] aStarts = new int[1024];
+  private int nGlyphs;
+  private long lBytes;
+  private long lOps;
+  private int iMinBytes = Integer.MAX_VALUE;
+  private int iMaxBytes;
+  private long lDecodeNanos;
+
+  //=================================================================================
+  // Function:    CompressedWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes, a description of the format and the opening
+  //              of the data array
+  // Input:       Writer w: output
+  //              String sName: C identifier; the arrays are sName_data, sName_start
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: glyph width, 1 to 255
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException for sizes the codec can't take
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  CompressedWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS || nCols < 1 || nCols > 255)
+    {
+      throw new IllegalArgumentException("compressed output needs 1-"+Geometry.MAXROWS
+                                         +" rows and 1-255 columns, not "+iRows+"x"+nCols);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.aEnc = new byte[GlyphCodec.maxBytes(nCols, iRows)];
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.aDec = new int[nCols*iWpc];
+    this.a = new char[aEnc.length*5];
+
+    String sNl = System.lineSeparator();
+    w.write("// "+sName+": compressed by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows x "+nCols+" columns. Glyph g is "+sName+"_data["+sName+"_start[g]] on:"+sNl);
+    w.write("//   first column, column count W (0: blank glyph, nothing follows),"+sNl);
+    w.write("//   W*"+GlyphCodec.pages(iRows)+" bits (LSB first) saying which 8 row pages of those columns are stored,"+sNl);
+    w.write("//   then the stored page bytes, column by column, bit 0 the top row."+sNl);
+    w.write("// GlyphCodec.decode() is the reference decoder."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("const uint8_t "+sName+"_data[] PROGMEM = {"+sNl);
+
+  } // CompressedWriter()
+
+  int glyphs() { return nGlyphs; }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Encodes one glyph, checks it decodes to the same words (rows past
+  //              the glyph height aside) and writes its bytes
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None; throws IllegalStateException if the round trip fails
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int n = GlyphCodec.encode(aWords, off, nCols, iRows, aEnc, 0);
+
+    long t0 = System.nanoTime();
+    int iEnd = GlyphCodec.decode(aEnc, 0, nCols, iRows, aDec, 0);
+    lDecodeNanos += System.nanoTime() - t0;
+    long m = Geometry.mask(iRows);
+    for(int col=0; col<nCols; col++)
+    {
+      if(Geometry.column(aDec, col*iWpc, iWpc) != (Geometry.column(aWords, off+col*iWpc, iWpc) & m)
+         || iEnd != n)
+      {
+        throw new IllegalStateException("glyph "+nGlyphs+" does not round trip at column "+col);
+      }
+    }
+
+    if(nGlyphs == aStarts.length) aStarts = Arrays.copyOf(aStarts, 2*nGlyphs);
+    aStarts[nGlyphs++] = (int)lBytes;
+    lBytes += n;
+    lOps += GlyphCodec.decodeOps(aEnc, 0, n, iRows);
+    iMinBytes = Math.min(iMinBytes, n);
+    iMaxBytes = Math.max(iMaxBytes, n);
+
+    int k = 0;
+    for(int j=0; j<n; j++)
+    {
+      a[k++] = '0';
+      a[k++] = 'x';
+      a[k++] = FontFormat.HEX[(aEnc[j] >>> 4) & 0xf];
+      a[k++] = FontFormat.HEX[aEnc[j] & 0xf];
+      a[k++] = ',';
+    }
+    w.write(a, 0, k);
+    w.write(" // "+(nGlyphs-1));
+    if(sComment.length() > 0)
+    {
+      // Already a // comment; keep the text after the slashes
+      w.write(' ');
+      w.write(sComment.startsWith("//") ? sComment.substring(2).trim() : sComment);
+    }
+    w.write(System.lineSeparator());
+
+  } // glyph()
+
+  // A whole line comment from the font, kept in place
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    if((iFlags & FontLines.F_COMMENT) == 0) return;
+    w.write(sComment);
+    w.write(System.lineSeparator());
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the data array, writes the start table (one more entry than
+  //              there are glyphs, so a glyph's size is start[g+1]-start[g]) and
+  //              makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the size and decode report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    boolean bShort = lBytes <= 0xffff;
+    String sType = bShort ? "uint16_t" : "uint32_t";
+    int iIndexBytes = bShort ? 2 : 4;
+
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("const "+sType+" "+sName+"_start[] PROGMEM __attribute__((aligned("+iIndexBytes+"))) = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    for(int g=0; g<=nGlyphs; g++)
+    {
+      sb.append((g < nGlyphs) ? aStarts[g] : lBytes).append(',');
+      if(g % 16 == 15 || g == nGlyphs)
+      {
+        sb.append(sNl);
+        w.write(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("#define "+sUpper+"_GLYPHS "+nGlyphs+sNl);
+    w.write("#define "+sUpper+"_ROWS "+iRows+sNl);
+    w.write("#define "+sUpper+"_COLS "+nCols+sNl);
+
+    long lRaw = (long)nGlyphs*nCols*GlyphCodec.pages(iRows);
+    long lTotal = lBytes + (long)(nGlyphs+1)*iIndexBytes;
+    double dGlyphs = Math.max(1, nGlyphs);
+    sb.setLength(0);
+    sb.append("Compressed layout of ").append(sName).append(sNl);
+    sb.append(String.format("  glyphs:            %d (%dx%d), all round tripped%n", nGlyphs, iRows, nCols));
+    sb.append(String.format("  uncompressed:      %d bytes (%d a glyph)%n", lRaw, nCols*GlyphCodec.pages(iRows)));
+    sb.append(String.format("  glyph data:        %d bytes (%.1f a glyph, %d to %d)%n",
+                            lBytes, lBytes/dGlyphs, (nGlyphs == 0) ? 0 : iMinBytes, iMaxBytes));
+    sb.append(String.format("  start table:       %d bytes (%s)%n", (long)(nGlyphs+1)*iIndexBytes, sType));
+    double dSaved = (lRaw == 0) ? 0.0 : 100.0*(lRaw - lTotal)/lRaw;
+    sb.append(String.format("  total:             %d bytes, %.1f%% %s%n",
+                            lTotal, Math.abs(dSaved), (dSaved < 0) ? "larger" : "smaller"));
+    sb.append(String.format("  decode operations: %.1f a glyph (byte reads + mask bit tests; uncompressed %d reads)%n",
+                            lOps/dGlyphs, nCols*GlyphCodec.pages(iRows)));
+    sb.append(String.format("  Java decode:       %.0f ns a glyph (reference decoder, indicative only)%n",
+                            lDecodeNanos/dGlyphs));
+    return sb.toString();
+
+  } // finish()
+
+} // class CompressedWriter
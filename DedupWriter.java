@@ -0,0 +1,195 @@
+//==================================================================================
+// File: DedupWriter.java
+//
+// Description: Writes a font with every distinct glyph bitmap stored once: a 4
+//              byte aligned uint32_t PROGMEM array of the distinct bitmaps (one
+//              word per column, bit r is row r; 8 byte aligned uint64_t past 32
+//              rows), in the order first used, and an
+//              index giving each record's bitmap. Fonts grown by copying records
+//              - placeholder boxes for unassigned codes, say - shrink to one copy
+//              of each.
+//
+//              Bitmaps are written as they are first seen; the index (4 bytes a
+//              record) is held until finish(). GlyphDedup does the matching.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 A GlyphEncoder, fed by FontConv's read loop or GlyphEncoder.encode();
+//           write() removed -- RL
+// 2026Oct17 Up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: DedupWriter
+  // Description: Streams a font out with duplicate glyphs shared, and reports the
+  //              dedup ratio
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class DedupWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final GlyphDedup set;
+  private final char[] a;
+  private int[] aIndex = new int[1024];
+  private int nRecords;
+
+  //=================================================================================
+  // Function:    DedupWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes, a description of the layout and the opening
+  //              of the bitmap array
+  // Input:       Writer w: output
+  //              String sName: C identifier; the arrays are sName_bitmap and
+  //              sName_index
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: glyph width
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException if a column doesn't fit a
+  //              uint64_t
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  DedupWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS)
+    {
+      throw new IllegalArgumentException("deduplicated output needs rows of 1 to "+Geometry.MAXROWS
+                                         +", not "+iRows);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.set = new GlyphDedup(nCols, iRows);
+    this.a = new char[nCols*(3 + 8*iWpc) + 2];
+
+    String sNl = System.lineSeparator();
+    w.write("// "+sName+": deduplicated by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows x "+nCols+" columns. Record r draws "+sName+"_bitmap["+sName+"_index[r]];"+sNl);
+    w.write("// one "+ProgmemWriter.columnType(iRows)+" per column, bit r is row r. Each distinct bitmap is stored once."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("const "+ProgmemWriter.columnType(iRows)+" "+sName+"_bitmap[]["+nCols+"] PROGMEM __attribute__((aligned("
+            +ProgmemWriter.columnBytes(iRows)+"))) = {"+sNl);
+
+  } // DedupWriter()
+
+  int records() { return nRecords; }
+  int bitmaps() { return set.size(); }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Looks the glyph up and, the first time its bitmap is seen, writes
+  //              it with the record's comment
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int id = set.add(aWords, off);
+    if(nRecords == aIndex.length) aIndex = Arrays.copyOf(aIndex, 2*nRecords);
+    aIndex[nRecords++] = id;
+    if(!set.added()) return;
+
+    int[] aSet = set.words();
+    int b = id*set.lineWords();
+    int k = 0;
+    a[k++] = '{';
+    for(int col=0; col<nCols; col++)
+    {
+      k = ProgmemWriter.putColumn(a, k, Geometry.column(aSet, b+col*iWpc, iWpc), iWpc);
+    }
+    a[k-1] = '}';
+    a[k++] = ',';
+    w.write(a, 0, k);
+    w.write(" // "+id+": record "+(nRecords-1));
+    if(sComment.length() > 0)
+    {
+      w.write(' ');
+      w.write(sComment.startsWith("//") ? sComment.substring(2).trim() : sComment);
+    }
+    w.write(System.lineSeparator());
+
+  } // glyph()
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the bitmap array, writes the index and makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the dedup report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    int nBitmaps = set.size();
+    boolean bByte = nBitmaps <= 0x100;
+    boolean bShort = nBitmaps <= 0x10000;
+    String sType = bByte ? "uint8_t" : bShort ? "uint16_t" : "uint32_t";
+    int iIndexBytes = bByte ? 1 : bShort ? 2 : 4;
+
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("const "+sType+" "+sName+"_index[] PROGMEM = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    for(int r=0; r<nRecords; r++)
+    {
+      sb.append(aIndex[r]).append(',');
+      if(r % 16 == 15 || r == nRecords-1)
+      {
+        sb.append(sNl);
+        w.write(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("#define "+sUpper+"_RECORDS "+nRecords+sNl);
+    w.write("#define "+sUpper+"_BITMAPS "+nBitmaps+sNl);
+    w.write("#define "+sUpper+"_ROWS "+iRows+sNl);
+    w.write("#define "+sUpper+"_COLS "+nCols+sNl);
+
+    int iColBytes = ProgmemWriter.columnBytes(iRows);
+    long lFull = (long)nRecords*nCols*iColBytes;
+    long lDedup = (long)nBitmaps*nCols*iColBytes + (long)nRecords*iIndexBytes;
+    sb.setLength(0);
+    sb.append("Deduplicated layout of ").append(sName).append(sNl);
+    sb.append(String.format("  records:          %d (%dx%d)%n", nRecords, iRows, nCols));
+    sb.append(String.format("  distinct bitmaps: %d; dedup ratio %.2f:1, %d duplicate(s)%n",
+                            nBitmaps, (nBitmaps == 0) ? 1.0 : (double)nRecords/nBitmaps, nRecords - nBitmaps));
+    sb.append(String.format("  hash collisions:  %d (each settled by comparing every word)%n", set.collisions()));
+    sb.append(String.format("  bitmaps + index:  %d + %d bytes (%s index)%n",
+                            (long)nBitmaps*nCols*iColBytes, (long)nRecords*iIndexBytes, sType));
+    double dSaved = (lFull == 0) ? 0.0 : 100.0*(lFull - lDedup)/lFull;
+    sb.append(String.format("  total:            %d bytes, against %d undeduplicated: %.1f%% %s%n",
+                            lDedup, lFull, Math.abs(dSaved), (dSaved < 0) ? "larger" : "smaller"));
+    return sb.toString();
+
+  } // finish()
+
+} // class DedupWriter
@@ -0,0 +1,362 @@
+//==================================================================================
+// File: ExportCheck.java
+//
+// Description: Reference check of the 8 bit outputs. Reads a font file and an 8
+//              bit output made from it and, record by record, renders both to
+//              pixels - the font from its column words (bit r of column c is
+//              row r), the output from where its byte order says each pixel
+//              lives - and reports any pixel that differs. The byte addressing
+//              here is written out from the layout descriptions, independently
+//              of FontFormat.putBytes(), so the two check each other.
+//
+//              With -blob the output is a binary font (FontBlob): every glyph is
+//              compared with its record, word for word, and every character a
+//              record names is looked up through the blob's range table; the
+//              geometry comes from the blob's header.
+//
+//              Usage: java cbarray.ExportCheck [-rows n] [-cols n]
+//                       [-split|-pages|-pagesmsb|-blob] <font.h> <output>
+//              Default order is -pages; the glyph size is read from <font.h>
+//              unless -rows or -cols is given, as FontConv does. Exit status 0
+//              if every record renders the same, 1 if not, 2 on bad arguments.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Binary fonts (-blob) -- RL
+// 2026Oct17 Up to 64 rows; glyph size detected as FontConv does -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: ExportCheck
+  // Description: Command line check that an 8 bit output draws the same glyphs as
+  //              the font it was made from
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class ExportCheck
+{
+  static final int MAXREPORT = 20;
+
+  private ExportCheck()
+  {
+  }
+
+  //=================================================================================
+  // Function:    pixel(int[] aBytes, int iOrder, int nCols, int iRows, int row, int col)
+  // Description: Pixel (row, col) of a glyph held as 8 bit output bytes
+  // Input:       int[] aBytes: the record's bytes, in output order
+  //              int iOrder: FontFormat.SPLIT, PAGES or PAGES_MSB_TOP
+  //              int nCols, int iRows: glyph size
+  //              int row, int col: the pixel
+  // Output:      None
+  // Returns:     boolean: true if the pixel is set
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static boolean pixel(int[] aBytes, int iOrder, int nCols, int iRows, int row, int col)
+  {
+    int iPage = row / 8;
+    int iBit = row % 8;
+    int b;
+    switch(iOrder)
+    {
+      case FontFormat.SPLIT:
+        // iRows/8 bytes per column, the bottom page first
+        b = aBytes[col*(iRows/8) + (iRows/8 - 1 - iPage)];
+        break;
+      case FontFormat.PAGES:
+        b = aBytes[iPage*nCols + col];
+        break;
+      default:
+        b = aBytes[iPage*nCols + col];
+        iBit = 7 - iBit;
+        break;
+    }
+    return ((b >>> iBit) & 1) != 0;
+
+  } // pixel()
+
+  //=================================================================================
+  // Function:    bytes(String sLine, int[] aBytes)
+  // Description: Reads the hex bytes between the braces of an output line. The 8
+  //              bit outputs end each byte with ',' ("0x12,}"), which the font
+  //              scanner does not take, so they are read here.
+  // Input:       String sLine: the output line; int[] aBytes: where to put them
+  // Output:      aBytes
+  // Returns:     int: number of bytes, or -1 if the line is not a record of
+  //              0x.. bytes or has more than aBytes holds
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int bytes(String sLine, int[] aBytes)
+  {
+    int p = sLine.indexOf('{');
+    int q = sLine.indexOf('}');
+    if(p < 0 || q < p) return -1;
+    int n = 0;
+    for(String s : sLine.substring(p+1, q).split(","))
+    {
+      s = s.trim();
+      if(s.isEmpty()) continue;
+      if(n == aBytes.length || !(s.startsWith("0x") || s.startsWith("0X"))) return -1;
+      try
+      {
+        int b = Integer.parseInt(s.substring(2), 16);
+        if(b > 0xff) return -1;
+        aBytes[n++] = b;
+      }
+      catch(NumberFormatException ex)
+      {
+        return -1;
+      }
+    }
+    return n;
+
+  } // bytes()
+
+  //=================================================================================
+  // Function:    check(File fFont, File fOut, int iRows, int nCols, int iOrder)
+  // Description: Compares every record of fFont with the same line of fOut
+  // Input:       File fFont: the font; File fOut: 8 bit output made from it
+  //              int iRows, int nCols: glyph size
+  //              int iOrder: byte order fOut was written in
+  // Output:      a message on System.out for each line that differs (up to
+  //              MAXREPORT) and a summary
+  // Returns:     int: number of lines that differ
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int check(File fFont, File fOut, int iRows, int nCols, int iOrder) throws IOException
+  {
+    int nBytes = nCols*iRows/8;
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    GlyphScanner sc = new GlyphScanner(iRows);
+    int[] aWords = new int[nCols*iWpc];
+    int[] aBytes = new int[nBytes];
+    int iBad = 0;
+    int iRecords = 0;
+
+    try(BufferedReader inF = new BufferedReader(new InputStreamReader(
+          new FileInputStream(fFont), StandardCharsets.UTF_8), FontConv.BUFSIZE);
+        BufferedReader inO = new BufferedReader(new InputStreamReader(
+          new FileInputStream(fOut), StandardCharsets.UTF_8), FontConv.BUFSIZE))
+    {
+      int iLine = 0;
+      String sF;
+      while((sF = inF.readLine()) != null)
+      {
+        iLine++;
+        String sO = inO.readLine();
+        if(sO == null)
+        {
+          System.out.println(fOut+": ends at line "+iLine);
+          return iBad + 1;
+        }
+        char[] aF = sF.toCharArray();
+        int iTypeF = sc.scan(aF, 0, aF.length, aWords);
+        if(iTypeF != GlyphScanner.RECORD) continue;
+        iRecords++;
+
+        String sWhy = null;
+        int n = bytes(sO, aBytes);
+        if(n != nBytes)
+        {
+          sWhy = (n < 0) ? "not a record of at most "+nBytes+" bytes" : n+" bytes, expected "+nBytes;
+        }
+        else
+        {
+          for(int col=0; col<nCols && sWhy == null; col++)
+          {
+            for(int row=0; row<iRows; row++)
+            {
+              // Rows 32 on are in the column's second word
+              boolean bFont = ((aWords[col*iWpc + row/32] >>> (row%32)) & 1) != 0;
+              if(bFont != pixel(aBytes, iOrder, nCols, iRows, row, col))
+              {
+                sWhy = "pixel row "+row+" col "+col+" is "+(bFont ? "on" : "off")+" in the font";
+                break;
+              }
+            }
+          }
+        }
+        if(sWhy != null)
+        {
+          if(iBad < MAXREPORT) System.out.println(fOut+":"+iLine+": "+sWhy);
+          iBad++;
+        }
+      }
+    }
+    System.out.println(iRecords+" record(s) checked, "+iBad+" differ");
+    return iBad;
+
+  } // check()
+
+  //=================================================================================
+  // Function:    checkBlob(File fFont, File fBlob)
+  // Description: Compares every record of fFont that has a character with the
+  //              glyph of the same number in the binary font fBlob, and looks up
+  //              the character each one names
+  // Input:       File fFont: the font; File fBlob: binary font made from it
+  // Output:      a message on System.out for each glyph that differs (up to
+  //              MAXREPORT) and a summary
+  // Returns:     int: number of glyphs that differ, plus one if the blob can't
+  //              be read or has a different number of glyphs
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int checkBlob(File fFont, File fBlob) throws IOException
+  {
+    FontBlob blob;
+    try
+    {
+      blob = FontBlob.open(fBlob);
+    }
+    catch(IOException ex)
+    {
+      System.out.println(ex.getMessage());
+      return 1;
+    }
+    int nCols = blob.cols();
+    int iWpc = Geometry.wordsPerColumn(blob.rows());
+    long lMask = Geometry.mask(blob.rows());
+    GlyphParser parser = new GlyphParser(blob.rows(), nCols);
+    long[] seen = Codepoints.newSet();
+    int[] aWords = new int[nCols*iWpc];
+    int[] aBlob = new int[nCols*iWpc];
+    int iBad = 0;
+    int iGlyph = 0;
+    int iNamed = 0;
+
+    try(BufferedReader in = new BufferedReader(new InputStreamReader(
+          new FileInputStream(fFont), StandardCharsets.UTF_8), FontConv.BUFSIZE))
+    {
+      int iLine = 0;
+      String sLine;
+      while((sLine = in.readLine()) != null)
+      {
+        iLine++;
+        Glyph g = parser.parse(sLine);
+        if(g == null || !g.characterPresent()) continue;
+
+        String sWhy = null;
+        if(iGlyph >= blob.glyphs())
+        {
+          sWhy = "glyph "+iGlyph+" is past the end of the blob";
+        }
+        else
+        {
+          g.copyWords(aWords);
+          blob.glyph(iGlyph, aBlob);
+          for(int col=0; col<nCols && sWhy == null; col++)
+          {
+            long lFont = Geometry.column(aWords, col*iWpc, iWpc) & lMask;
+            long lBlob = Geometry.column(aBlob, col*iWpc, iWpc);
+            if(lFont != lBlob)
+            {
+              sWhy = String.format("glyph %d column %d is 0x%08x, the font has 0x%08x",
+                                   iGlyph, col, lBlob, lFont);
+            }
+          }
+          // The first record naming a character is the one it maps to
+          int cp = Codepoints.fromComment(g.comment());
+          if(sWhy == null && cp >= 0 && !Codepoints.contains(seen, cp))
+          {
+            Codepoints.add(seen, cp);
+            iNamed++;
+            int iFound = blob.find(cp);
+            if(iFound != iGlyph)
+            {
+              sWhy = String.format("U+%04X maps to glyph %d, not %d", cp, iFound, iGlyph);
+            }
+          }
+        }
+        if(sWhy != null)
+        {
+          if(iBad < MAXREPORT) System.out.println(fFont+":"+iLine+": "+sWhy);
+          iBad++;
+        }
+        iGlyph++;
+      }
+    }
+    if(iGlyph != blob.glyphs())
+    {
+      System.out.println(fBlob+": "+blob.glyphs()+" glyphs, the font has "+iGlyph);
+      iBad++;
+    }
+    System.out.println(iGlyph+" glyph(s) and "+iNamed+" character(s) checked, "+iBad+" differ");
+    return iBad;
+
+  } // checkBlob()
+
+  static void usage()
+  {
+    System.err.println("Usage: java cbarray.ExportCheck [-rows n] [-cols n] [-split|-pages|-pagesmsb|-blob]");
+    System.err.println("         <font.h> <output>");
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    String sFont = null;
+    String sOut = null;
+    int iOrder = FontFormat.PAGES;
+    boolean bBlob = false;
+    boolean bSize = false;
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-rows") && i+1 < args.length)
+      {
+        CharSize.rows = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-cols") && i+1 < args.length)
+      {
+        CharSize.cols = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-split")) iOrder = FontFormat.SPLIT;
+      else if(args[i].equals("-pages")) iOrder = FontFormat.PAGES;
+      else if(args[i].equals("-pagesmsb")) iOrder = FontFormat.PAGES_MSB_TOP;
+      else if(args[i].equals("-blob")) bBlob = true;
+      else if(sFont == null) sFont = args[i];
+      else if(sOut == null) sOut = args[i];
+      else
+      {
+        usage();
+        System.exit(2);
+      }
+    }
+    if(sFont == null || sOut == null)
+    {
+      usage();
+      System.exit(2);
+    }
+    if(bBlob)
+    {
+      if(checkBlob(new File(sFont), new File(sOut)) > 0) System.exit(1);
+      return;
+    }
+    Geometry size = new Geometry(CharSize.rows, CharSize.cols);
+    if(!bSize) size = Geometry.detect(new File(sFont), size);
+    FontFormat.check8BitRows(size.rows());
+
+    if(check(new File(sFont), new File(sOut), size.rows(), size.cols(), iOrder) > 0)
+    {
+      System.exit(1);
+    }
+
+  } // main()
+
+} // class ExportCheck
@@ -0,0 +1,183 @@
+//==================================================================================
+// File: FontBlob.java
+//
+// Description: Binary font for a device file system (LittleFS, SPIFFS, an SD
+//              card): copied to the device in place of a font compiled into the
+//              firmware, and read or memory-mapped from there. Every glyph is
+//              the same size, so glyph n is one seek to data + n*size and one
+//              read; the range table maps characters to glyph numbers.
+//
+//              Layout (little-endian, as the MCUs are; sections 4 byte aligned):
+//                0  u32   MAGIC: the bytes 'C' 'B' 'F' 'N'
+//                4  u16   VERSION
+//                6  u16   HEADER: size of this header
+//                8  u16   rows
+//               10  u16   cols
+//               12  u16   bytes per column, (rows+7)/8
+//               14  u16   (unused, 0)
+//               16  u32   glyph count
+//               20  u32   glyph size: cols * bytes per column
+//               24  u32   offset of the glyph data (HEADER)
+//               28  u32   range count
+//               32  u32   offset of the range table
+//               36  u32   CRC32 of everything after the header
+//               40  glyph data: glyph n at data + n*size; column c at c*bytes
+//                   per column, as a little-endian word with bit r row r (so
+//                   byte j of a column is SSD1306 page j, bit 0 the top row)
+//                   range table: per range u32 first codepoint, u32 count,
+//                   u32 glyph of the first codepoint; ascending
+//              The glyphs are the font's records with a character, in file
+//              order - numbered as in the C exports - and the character of
+//              each is the one its line end comment names (see CmapWriter).
+//
+//              This class is the Java reader; BlobWriter writes them, and
+//              ExportCheck -blob checks one against its font.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Up to 64 rows; glyph() fills Geometry.wordsPerColumn() words a
+//           column -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+  //=================================================================================
+  // Class: FontBlob
+  // Description: Memory-mapped reader of a binary font
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class FontBlob
+{
+  static final int MAGIC = 0x4e464243;     // 'C' 'B' 'F' 'N' read little-endian
+  static final int VERSION = 1;
+  static final int HEADER = 40;
+  static final int RANGE = 12;             // bytes per range table entry
+
+  private final ByteBuffer b;
+  private final int iRows;
+  private final int nCols;
+  private final int iColBytes;
+  private final int nGlyphs;
+  private final int iGlyphBytes;
+  private final int iDataOff;
+  private final int nRanges;
+  private final int iRangesOff;
+
+  private FontBlob(ByteBuffer b)
+  {
+    this.b = b;
+    this.iRows = b.getShort(8) & 0xffff;
+    this.nCols = b.getShort(10) & 0xffff;
+    this.iColBytes = b.getShort(12) & 0xffff;
+    this.nGlyphs = b.getInt(16);
+    this.iGlyphBytes = b.getInt(20);
+    this.iDataOff = b.getInt(24);
+    this.nRanges = b.getInt(28);
+    this.iRangesOff = b.getInt(32);
+  }
+
+  static int columnBytes(int iRows) { return (iRows+7)/8; }
+
+  //=================================================================================
+  // Function:    open(File f)
+  // Description: Maps a binary font and checks its header, sections and CRC
+  // Input:       File f: the blob
+  // Output:      None
+  // Returns:     FontBlob: the font; throws IOException saying what is wrong if it
+  //              isn't a valid one
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static FontBlob open(File f) throws IOException
+  {
+    try(FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ))
+    {
+      long lSize = ch.size();
+      if(lSize < HEADER || lSize > Integer.MAX_VALUE) throw new IOException(f+": not a font blob (size)");
+      ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, lSize).order(ByteOrder.LITTLE_ENDIAN);
+      if(b.getInt(0) != MAGIC) throw new IOException(f+": not a font blob (magic)");
+      if((b.getShort(4) & 0xffff) != VERSION) throw new IOException(f+": blob version "+b.getShort(4));
+      FontBlob fb = new FontBlob(b);
+      if(fb.iRows < 1 || fb.iRows > Geometry.MAXROWS || fb.iColBytes != columnBytes(fb.iRows) || fb.iGlyphBytes != fb.nCols*fb.iColBytes
+         || fb.iDataOff != (b.getShort(6) & 0xffff)
+         || fb.nGlyphs < 0 || (long)fb.iDataOff + (long)fb.nGlyphs*fb.iGlyphBytes > fb.iRangesOff
+         || fb.nRanges < 0 || (long)fb.iRangesOff + (long)fb.nRanges*RANGE != lSize)
+      {
+        throw new IOException(f+": font blob header doesn't match its size");
+      }
+      CRC32 crc = new CRC32();
+      crc.update(b.duplicate().position(HEADER));
+      if((int)crc.getValue() != b.getInt(36)) throw new IOException(f+": font blob CRC doesn't match");
+      return fb;
+    }
+
+  } // open()
+
+  int rows() { return iRows; }
+  int cols() { return nCols; }
+  int glyphs() { return nGlyphs; }
+  int glyphBytes() { return iGlyphBytes; }
+  int ranges() { return nRanges; }
+
+  //=================================================================================
+  // Function:    glyph(int n, int[] aWords)
+  // Description: The column words of glyph n, straight from its offset
+  // Input:       int n: glyph number, 0 to glyphs()-1
+  //              int[] aWords: cols()*Geometry.wordsPerColumn(rows()) words or more
+  // Output:      aWords
+  // Returns:     int[]: aWords
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int[] glyph(int n, int[] aWords)
+  {
+    int p = iDataOff + n*iGlyphBytes;
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    for(int col=0; col<nCols; col++)
+    {
+      long v = 0;
+      for(int j=0; j<iColBytes; j++) v |= (b.get(p++) & 0xffL) << (8*j);
+      Geometry.setColumn(aWords, col*iWpc, iWpc, v);
+    }
+    return aWords;
+
+  } // glyph()
+
+  //=================================================================================
+  // Function:    find(int cp)
+  // Description: Glyph of a character: binary search of the range table
+  // Input:       int cp: the codepoint
+  // Output:      None
+  // Returns:     int: glyph number, or -1 if the font has no glyph for cp
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int find(int cp)
+  {
+    int lo = 0;
+    int hi = nRanges;
+    while(lo < hi)
+    {
+      int mid = (lo + hi) >>> 1;
+      if(cp < b.getInt(iRangesOff + mid*RANGE)) hi = mid;
+      else lo = mid + 1;
+    }
+    if(lo == 0) return -1;
+    int p = iRangesOff + (lo-1)*RANGE;
+    int off = cp - b.getInt(p);
+    return (off < b.getInt(p+4)) ? b.getInt(p+8) + off : -1;
+
+  } // find()
+
+} // class FontBlob
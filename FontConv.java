@@ -0,0 +1,279 @@
+//==================================================================================
+// File: FontConv.java
+//
+// Description: Headless font converter. Reads a font file in the form CBArray
+//              edits and writes the same 32 bit and 8 bit ('byte split') outputs
+//              that CBArray's Save File produces, without constructing any
+//              AWT/Swing classes, so it can run in a firmware build.
+//
+//              Lines are streamed one at a time through a GlyphScanner with a
+//              single line of look-ahead (needed to spot the last record), and
+//              every output is a GlyphEncoder fed from the same pass, so memory
+//              use does not depend on the size of the font.
+//
+//              Usage: java cbarray.FontConv [-rows n] [-cols n] [-pages|-pagesmsb]
+//                       [-progmem] [-z] [-trim] [-dedup] [-cmap] [-phash] [-blob]
+//                       [-gfx] [-xbm] [-name id] <input.h> <output.h>
+//              Writes <output.h> and <output.h>8bit, and with -pages or -pagesmsb
+//              <output.h>pages as well: the bytes of each glyph in SSD1306 page
+//              order, bit 0 (-pages) or bit 7 (-pagesmsb) the top row of each page
+//              (see FontFormat.putBytes(); ExportCheck verifies the result).
+//              -progmem adds <output.h>progmem, a word aligned uint32_t PROGMEM
+//              array (see ProgmemWriter) named id (default from <input.h>), and
+//              its size and alignment report in <output.h>progmem.txt. -z adds
+//              <output.h>z, the glyphs compressed (see GlyphCodec), each one
+//              checked by decoding it again, and a size and decode report in
+//              <output.h>z.txt. -trim adds <output.h>trim, each glyph cut to its
+//              inked columns with offset, left and width tables (see TrimWriter),
+//              and its report in <output.h>trim.txt. -dedup adds <output.h>dedup,
+//              each distinct bitmap once with an index from records to bitmaps
+//              (see DedupWriter), and its report in <output.h>dedup.txt. -cmap
+//              adds <output.h>cmap, the codepoint to glyph range table (see
+//              CmapWriter), and -phash a perfect hash in it too; the report goes
+//              to <output.h>cmap.txt. -blob adds <output.h>bin, the binary font
+//              for a device file system (see FontBlob), and its report in
+//              <output.h>bin.txt. -gfx adds <output.h>gfx, an Adafruit GFX font
+//              (see GfxWriter), and -xbm <output.h>xbm, row-major XBM bitmaps
+//              for u8g2's drawXBMP() (see XbmWriter), with their reports in
+//              <output.h>gfx.txt and <output.h>xbm.txt. Lines that do not parse
+//              are copied through unchanged, reported, and give an exit status
+//              of 1.
+//
+//              The glyph size is read from the first records of <input.h>
+//              (Geometry.detect(): the rows from the literal width, CharSize's
+//              where it fits); -rows and -cols set it instead. Glyphs may be up
+//              to 64 rows tall.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Parse through GlyphParser -- RL
+// 2026Oct17 8 bit lines built in a reused char[] by FontFormat.put8Bit() -- RL
+// 2026Oct17 SSD1306 page order output (-pages, -pagesmsb) -- RL
+// 2026Oct17 Aligned uint32_t PROGMEM output (-progmem) -- RL
+// 2026Oct17 Compressed output (-z) -- RL
+// 2026Oct17 Trimmed proportional output (-trim) -- RL
+// 2026Oct17 Deduplicated output (-dedup) -- RL
+// 2026Oct17 Character map output (-cmap, -phash) -- RL
+// 2026Oct17 Binary font output (-blob) -- RL
+// 2026Oct17 Outputs are GlyphEncoders in one Outputs; Adafruit GFX (-gfx) and
+//           XBM (-xbm) output -- RL
+// 2026Oct17 Glyph size detected from the input unless given; up to 64 rows -- RL
+// 2026Oct17 Size detection reads the whole input and may find fewer rows than
+//           CharSize's -- RL
+// 2026Oct17 Size detection reads the first records only, and takes the rows
+//           from the literal width rather than the pixels -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: FontConv
+  // Description: Command line entry point for converting fonts without the GUI
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class FontConv
+{
+  static final int BUFSIZE = 1 << 16;
+
+  private FontConv()
+  {
+  }
+
+  //=================================================================================
+  // Function:    convert(File fIn, Geometry size, Outputs out)
+  // Description: Streams fIn through a GlyphScanner, feeding each line to every
+  //              output's encoder, then finishes them, moving the files into place,
+  //              and shows the reports on System.out. A line is scanned in one
+  //              reused char[] into one reused word array; the encoders take it
+  //              from there.
+  // Input:       File fIn: font file to read
+  //              Geometry size: its glyph size
+  //              Outputs out: the outputs, made for that size
+  // Output:      The outputs; a message on System.err for each line not parsed
+  // Returns:     int: number of lines that could not be parsed
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Optional page ordered output -- RL
+  // 2026Oct17 Optional PROGMEM output -- RL
+  // 2026Oct17 Optional compressed output -- RL
+  // 2026Oct17 Optional trimmed output -- RL
+  // 2026Oct17 Optional deduplicated output -- RL
+  // 2026Oct17 Optional character map -- RL
+  // 2026Oct17 Optional binary font -- RL
+  // 2026Oct17 Outputs are GlyphEncoders, set up by the caller; scans with a
+  //           GlyphScanner rather than a Glyph per line -- RL
+  // 2026Oct17 Glyph size passed in -- RL
+  //=================================================================================
+  static int convert(File fIn, Geometry size, Outputs out) throws IOException
+  {
+    GlyphEncoder[] aEnc = out.encoders();
+    GlyphScanner sc = new GlyphScanner(size.rows());
+    int[] aWords = new int[size.lineWords()];
+    char[] a = new char[1024];
+    int iBad = 0;
+
+    try(BufferedReader in = new BufferedReader(new InputStreamReader(
+          new FileInputStream(fIn), StandardCharsets.UTF_8), BUFSIZE))
+    {
+      int iLine = 0;
+      String sLine = in.readLine();
+      while(sLine != null)
+      {
+        String sNext = in.readLine();
+        boolean bLast = (sNext == null);
+        iLine++;
+
+        String s32 = FontFormat.fixLineEnd(sLine, bLast);
+        int len = sLine.length();
+        if(a.length < len) a = new char[Math.max(len, 2*a.length)];
+        sLine.getChars(0, len, a, 0);
+        int iType = sc.scan(a, 0, len, aWords);
+        if(iType == GlyphScanner.RECORD)
+        {
+          String sComment = sc.comment();
+          for(GlyphEncoder e : aEnc) e.glyph(aWords, 0, sComment, s32, bLast);
+        }
+        else if(iType == GlyphScanner.FAIL)
+        {
+          System.err.println(fIn+":"+iLine+": couldn't parse; copied unchanged");
+          iBad++;
+          for(GlyphEncoder e : aEnc) e.line(FontLines.F_RAW, sLine, s32, bLast);
+        }
+        else
+        {
+          // Comment or empty line - nothing to split
+          int f = (iType == GlyphScanner.COMMENT) ? FontLines.F_COMMENT : 0;
+          String sComment = sc.comment();
+          for(GlyphEncoder e : aEnc) e.line(f, sComment, s32, bLast);
+        }
+        sLine = sNext;
+      }
+    }
+    System.out.print(out.finish());
+    return iBad;
+
+  } // convert()
+
+  static void usage()
+  {
+    System.err.println("Usage: java cbarray.FontConv [-rows n] [-cols n] [-pages|-pagesmsb]");
+    System.err.println("         [-progmem] [-z] [-trim] [-dedup] [-cmap] [-phash] [-blob]");
+    System.err.println("         [-gfx] [-xbm] [-name id] <input.h> <output.h>");
+    System.err.println("       writes <output.h>, <output.h>8bit and with -pages/-pagesmsb <output.h>pages,");
+    System.err.println("       with -progmem <output.h>progmem and <output.h>progmem.txt,");
+    System.err.println("       with -z <output.h>z and <output.h>z.txt,");
+    System.err.println("       with -trim <output.h>trim and <output.h>trim.txt,");
+    System.err.println("       with -dedup <output.h>dedup and <output.h>dedup.txt,");
+    System.err.println("       with -cmap <output.h>cmap and <output.h>cmap.txt (-phash adds a perfect hash),");
+    System.err.println("       with -blob <output.h>bin and <output.h>bin.txt,");
+    System.err.println("       with -gfx <output.h>gfx and <output.h>gfx.txt,");
+    System.err.println("       with -xbm <output.h>xbm and <output.h>xbm.txt;");
+    System.err.println("       the glyph size is read from <input.h> unless -rows or -cols is given");
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    String sIn = null;
+    String sOut = null;
+    int iPageOrder = -1;
+    boolean bProgmem = false;
+    boolean bZ = false;
+    boolean bTrim = false;
+    boolean bDedup = false;
+    boolean bCmap = false;
+    boolean bHash = false;
+    boolean bBlob = false;
+    boolean bGfx = false;
+    boolean bXbm = false;
+    boolean bSize = false;
+    String sName = null;
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-rows") && i+1 < args.length)
+      {
+        CharSize.rows = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-cols") && i+1 < args.length)
+      {
+        CharSize.cols = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-pages")) iPageOrder = FontFormat.PAGES;
+      else if(args[i].equals("-pagesmsb")) iPageOrder = FontFormat.PAGES_MSB_TOP;
+      else if(args[i].equals("-progmem")) bProgmem = true;
+      else if(args[i].equals("-z")) bZ = true;
+      else if(args[i].equals("-trim")) bTrim = true;
+      else if(args[i].equals("-dedup")) bDedup = true;
+      else if(args[i].equals("-cmap")) bCmap = true;
+      else if(args[i].equals("-phash")) bCmap = bHash = true;
+      else if(args[i].equals("-blob")) bBlob = true;
+      else if(args[i].equals("-gfx")) bGfx = true;
+      else if(args[i].equals("-xbm")) bXbm = true;
+      else if(args[i].equals("-name") && i+1 < args.length) sName = args[++i];
+      else if(sIn == null) sIn = args[i];
+      else if(sOut == null) sOut = args[i];
+      else
+      {
+        usage();
+        System.exit(2);
+      }
+    }
+    if(sIn == null || sOut == null)
+    {
+      usage();
+      System.exit(2);
+    }
+
+    if(sName == null) sName = ProgmemWriter.identifier(sIn);
+    File fIn = new File(sIn);
+    String sFrom = fIn.getName();
+    String sId = sName;
+    Geometry size = new Geometry(CharSize.rows, CharSize.cols);
+    if(!bSize)
+    {
+      Geometry dflt = size;
+      size = Geometry.detect(fIn, dflt);
+      if(size != dflt) System.out.println(sFrom+": "+size+" glyphs (rows x cols)");
+    }
+    int iRows = size.rows();
+    int nCols = size.cols();
+    int iOrder = iPageOrder;
+    boolean bPerfect = bHash;
+    int iBad;
+    try(Outputs out = new Outputs(true))
+    {
+      out.text(new File(sOut), (w) -> new FontWriter(w, iRows, nCols));
+      out.text(new File(sOut+"8bit"), (w) -> new SplitWriter(w, iRows, nCols, FontFormat.SPLIT));
+      if(iOrder >= 0) out.text(new File(sOut+"pages"), (w) -> new SplitWriter(w, iRows, nCols, iOrder));
+      if(bProgmem) out.text(new File(sOut+"progmem"), (w) -> new ProgmemWriter(w, sId, sFrom, iRows, nCols));
+      if(bZ) out.text(new File(sOut+"z"), (w) -> new CompressedWriter(w, sId, sFrom, iRows, nCols));
+      if(bTrim) out.text(new File(sOut+"trim"), (w) -> new TrimWriter(w, sId, sFrom, iRows, nCols));
+      if(bDedup) out.text(new File(sOut+"dedup"), (w) -> new DedupWriter(w, sId, sFrom, iRows, nCols));
+      if(bCmap) out.text(new File(sOut+"cmap"), (w) -> new CmapWriter(w, sId, sFrom, bPerfect));
+      if(bBlob) out.binary(new File(sOut+"bin"), (ch) -> new BlobWriter(ch, iRows, nCols));
+      if(bGfx) out.text(new File(sOut+"gfx"), (w) -> new GfxWriter(w, sId, sFrom, iRows, nCols));
+      if(bXbm) out.text(new File(sOut+"xbm"), (w) -> new XbmWriter(w, sId, sFrom, iRows, nCols));
+      iBad = convert(fIn, size, out);
+    }
+    if(iBad > 0)
+    {
+      System.err.println(iBad+" line(s) could not be parsed");
+      System.exit(1);
+    }
+
+  } // main()
+
+} // class FontConv
@@ -0,0 +1,388 @@
+//==================================================================================
+// File: FontFormat.java
+//
+// Description: Text formatting of font file lines shared by CBArray and the
+//              headless FontConv. Nothing in here may touch AWT/Swing.
+//
+// History:
+// 2026Oct17 Created; line end fix-ups moved out of CBArray.saveFile() -- RL
+// 2026Oct17 write() and write8Bit(), the file loops of saveFile() and
+//           saveFileAs8Bit(), so they can be run without the GUI -- RL
+// 2026Oct17 put8Bit() replaces append8Bit(); write8Bit() streams -- RL
+// 2026Oct17 SSD1306 page order for the 8 bit output -- RL
+// 2026Oct17 write() and write8Bit() run FontWriter and SplitWriter (GlyphEncoder);
+//           putRecord() and putText() for writers building lines in a char[] -- RL
+// 2026Oct17 Glyphs of 33 to 64 rows: two word columns, written as 16 digit
+//           literals and split into up to 8 bytes -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+  //=================================================================================
+  // Class: FontFormat
+  // Description: Static helpers for writing records in the 32 bit and 8 bit forms
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class FontFormat
+{
+  static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  // Byte orders of the 8 bit outputs
+  static final int SPLIT = 0;          // per column, most significant byte first
+  static final int PAGES = 1;          // SSD1306 GDDRAM: page 0 across all the
+                                       // columns, then page 1...; bit 0 is the
+                                       // top row of the page, as the panel takes it
+  static final int PAGES_MSB_TOP = 2;  // as PAGES, but bit 7 is the top row
+
+  private FontFormat()
+  {
+  }
+
+  //=================================================================================
+  // Function:    fixLineEnd(String sLine, boolean bLast)
+  // Description: Every record but the last must end in "}," so the file is a valid
+  //              C initializer list. The last line is written as-is, as saveFile()
+  //              always has.
+  // Input:       String sLine: line as held in memory
+  //              boolean bLast: true if this is the last line of the file
+  // Output:      None
+  // Returns:     String: the line to write
+  // History:
+  // 2026Oct17 Created (moved out of CBArray.saveFile()) -- RL
+  //=================================================================================
+  static String fixLineEnd(String sLine, boolean bLast)
+  {
+    if(!bLast && sLine.contains("}") && !sLine.contains("},"))
+    {
+      return sLine.replaceAll("}","},");
+    }
+    return sLine;
+
+  } // fixLineEnd()
+
+  //=================================================================================
+  // Function:    appendRecord(StringBuilder sb, int[] aWords, int off, int nCols,
+  //                           int iRows, boolean bLast, String sComment)
+  // Description: Appends a record in the form buildRec() has always written:
+  //              {0x........,...} then ',' unless it is the last line, then the
+  //              comment after a space. Columns of more than 32 rows are written
+  //              with 16 digits.
+  // Input:       StringBuilder sb: output buffer
+  //              int[] aWords, int off, int nCols: the column words
+  //              int iRows: glyph height, for the words per column
+  //              boolean bLast: true if this is the last line of the file
+  //              String sComment: line end comment, "" for none
+  // Output:      sb
+  // Returns:     StringBuilder: sb
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Two word columns -- RL
+  //=================================================================================
+  static StringBuilder appendRecord(StringBuilder sb, int[] aWords, int off, int nCols,
+                                    int iRows, boolean bLast, String sComment)
+  {
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    sb.append('{');
+    for(int col=0; col<nCols; col++)
+    {
+      if(col > 0) sb.append(',');
+      appendHexColumn(sb, aWords, off+col*iWpc, iWpc);
+    }
+    sb.append(bLast ? "}" : "},");
+    if(sComment.length() > 0) sb.append(' ').append(sComment);
+    return sb;
+
+  } // appendRecord()
+
+  //=================================================================================
+  // Function:    putRecord(char[] a, int k, int[] aWords, int off, int nCols,
+  //                        int iRows, boolean bLast, String sComment)
+  // Description: appendRecord() into a char[]
+  // Input:       char[] a, int k: output and where to start; a must hold
+  //              recordLength() more chars
+  //              int[] aWords, int off, int nCols: the column words
+  //              int iRows: glyph height, for the words per column
+  //              boolean bLast: true if this is the last line of the file
+  //              String sComment: line end comment, "" for none
+  // Output:      a[k..returned index)
+  // Returns:     int: index after the last char written
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int putRecord(char[] a, int k, int[] aWords, int off, int nCols, int iRows,
+                       boolean bLast, String sComment)
+  {
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    a[k++] = '{';
+    for(int col=0; col<nCols; col++)
+    {
+      if(col > 0) a[k++] = ',';
+      a[k++] = '0';
+      a[k++] = 'x';
+      // Most significant word first
+      for(int j=off+(col+1)*iWpc-1; j>=off+col*iWpc; j--)
+      {
+        int w = aWords[j];
+        for(int sh=28; sh>=0; sh-=4) a[k++] = HEX[(w >>> sh) & 0xf];
+      }
+    }
+    a[k++] = '}';
+    if(!bLast) a[k++] = ',';
+    int len = sComment.length();
+    if(len > 0)
+    {
+      a[k++] = ' ';
+      sComment.getChars(0, len, a, k);
+      k += len;
+    }
+    return k;
+
+  } // putRecord()
+
+  // Chars putRecord() may write
+  static int recordLength(int nCols, int iRows, String sComment)
+  {
+    return (3 + 8*Geometry.wordsPerColumn(iRows))*nCols + 4 + sComment.length();
+  }
+
+  // Copies s into a at k; returns the index after it
+  static int putText(char[] a, int k, CharSequence s)
+  {
+    int len = s.length();
+    if(s instanceof String) ((String)s).getChars(0, len, a, k);
+    else if(s instanceof StringBuilder) ((StringBuilder)s).getChars(0, len, a, k);
+    else for(int j=0; j<len; j++) a[k+j] = s.charAt(j);
+    return k + len;
+  }
+
+  //=================================================================================
+  // Function:    appendHexWord(StringBuilder sb, int w)
+  // Description: Appends w as 0x followed by 8 hex digits, as the code labels show it
+  // Input:       StringBuilder sb: output buffer; int w: the word
+  // Output:      sb
+  // Returns:     StringBuilder: sb
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static StringBuilder appendHexWord(StringBuilder sb, int w)
+  {
+    sb.append('0').append('x');
+    for(int sh=28; sh>=0; sh-=4) sb.append(HEX[(w >>> sh) & 0xf]);
+    return sb;
+
+  } // appendHexWord()
+
+  //=================================================================================
+  // Function:    appendHexColumn(StringBuilder sb, int[] aWords, int off, int iWpc)
+  // Description: Appends one column as 0x followed by 8 hex digits a word, most
+  //              significant word first
+  // Input:       StringBuilder sb: output buffer
+  //              int[] aWords, int off, int iWpc: the column's words
+  // Output:      sb
+  // Returns:     StringBuilder: sb
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static StringBuilder appendHexColumn(StringBuilder sb, int[] aWords, int off, int iWpc)
+  {
+    appendHexWord(sb, aWords[off+iWpc-1]);
+    for(int j=off+iWpc-2; j>=off; j--)
+    {
+      int w = aWords[j];
+      for(int sh=28; sh>=0; sh-=4) sb.append(HEX[(w >>> sh) & 0xf]);
+    }
+    return sb;
+
+  } // appendHexColumn()
+
+  static int put8Bit(char[] a, CharSequence sLine, int[] aWords, int off,
+                     int nCols, int iRows, boolean bLast)
+  {
+    return put8Bit(a, sLine, aWords, off, nCols, iRows, SPLIT, bLast);
+  }
+
+  //=================================================================================
+  // Function:    put8Bit(char[] a, CharSequence sLine, int[] aWords, int off,
+  //                      int nCols, int iRows, int iOrder, boolean bLast)
+  // Description: Writes the 8 bit form of a record into a: the columns become
+  //              cols*iRows/8 bytes, taken with shifts and masks; nothing is
+  //              re-read from the text but what comes before the '{' and after
+  //              the record's "},"
+  // Input:       char[] a: output; must hold put8BitLength() chars
+  //              CharSequence sLine: the record line, as written by appendRecord()
+  //              or fixLineEnd()
+  //              int[] aWords, int off, int nCols: parsed column words
+  //              int iRows: bits per column, a multiple of 8
+  //              int iOrder: SPLIT, PAGES or PAGES_MSB_TOP
+  //              boolean bLast: true if this is the last line of the file
+  // Output:      a[0..returned length)
+  // Returns:     int: number of chars written
+  // History:
+  // 2026Oct17 Created (as append8Bit()) -- RL
+  // 2026Oct17 Into a caller's char[] rather than a StringBuilder -- RL
+  // 2026Oct17 Byte order selectable -- RL
+  //=================================================================================
+  static int put8Bit(char[] a, CharSequence sLine, int[] aWords, int off,
+                     int nCols, int iRows, int iOrder, boolean bLast)
+  {
+    int len = sLine.length();
+    int p = 0;
+    while(p < len && sLine.charAt(p) != '{') p++;
+    int k = 0;
+    for(int j=0; j<p; j++) a[k++] = sLine.charAt(j);
+    k = putBytes(a, k, aWords, off, nCols, iRows, iOrder, bLast);
+    // Carry over a line end comment, if present
+    int q = p;
+    while(q < len && sLine.charAt(q) != '}') q++;
+    for(int j=q+2; j<len; j++) a[k++] = sLine.charAt(j);
+    return k;
+
+  } // put8Bit()
+
+  //=================================================================================
+  // Function:    putBytes(char[] a, int k, int[] aWords, int off, int nCols,
+  //                       int iRows, int iOrder, boolean bLast)
+  // Description: The braces and bytes of an 8 bit record: {0x..,0x..,} then ','
+  //              unless it is the last line. SPLIT goes column by column, most
+  //              significant byte first; PAGES goes page by page (rows 0-7 of
+  //              every column, then rows 8-15...), so a glyph can be sent to an
+  //              SSD1306 in one burst with the panel in horizontal or page
+  //              addressing mode and a column window the glyph's width.
+  // Input:       char[] a, int k: output and where to start
+  //              int[] aWords, int off, int nCols: the column words
+  //              int iRows: bits per column, a multiple of 8
+  //              int iOrder: SPLIT, PAGES or PAGES_MSB_TOP
+  //              boolean bLast: true if this is the last line of the file
+  // Output:      a[k..returned index)
+  // Returns:     int: index after the last char written
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Page orders -- RL
+  // 2026Oct17 Two word columns -- RL
+  //=================================================================================
+  static int putBytes(char[] a, int k, int[] aWords, int off, int nCols,
+                      int iRows, int iOrder, boolean bLast)
+  {
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    a[k++] = '{';
+    if(iOrder == SPLIT)
+    {
+      for(int col=0; col<nCols; col++)
+      {
+        long w = Geometry.column(aWords, off+col*iWpc, iWpc);
+        for(int sh=iRows-8; sh>=0; sh-=8) k = putByte(a, k, (int)(w >>> sh));
+      }
+    }
+    else
+    {
+      for(int sh=0; sh<iRows; sh+=8)
+      {
+        for(int col=0; col<nCols; col++)
+        {
+          int b = (int)(Geometry.column(aWords, off+col*iWpc, iWpc) >>> sh);
+          if(iOrder == PAGES_MSB_TOP) b = Integer.reverse(b) >>> 24;
+          k = putByte(a, k, b);
+        }
+      }
+    }
+    a[k++] = '}';
+    if(!bLast) a[k++] = ',';
+    return k;
+
+  } // putBytes()
+
+  // Low 8 bits of b as 0x.., followed by ','
+  private static int putByte(char[] a, int k, int b)
+  {
+    a[k++] = '0';
+    a[k++] = 'x';
+    a[k++] = HEX[(b >>> 4) & 0xf];
+    a[k++] = HEX[b & 0xf];
+    a[k++] = ',';
+    return k;
+  }
+
+  // Chars put8Bit() may write for sLine
+  static int put8BitLength(CharSequence sLine, int nCols, int iRows)
+  {
+    return sLine.length() + nCols*(iRows/8)*5 + 2;
+  }
+
+  //=================================================================================
+  // Function:    check8BitRows(int iRows)
+  // Description: The byte split needs whole bytes, and a column is at most 64 bits
+  // Input:       int iRows: bits per column
+  // Output:      None
+  // Returns:     None; throws IllegalArgumentException if iRows can't be split
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Up to 64 rows -- RL
+  //=================================================================================
+  static void check8BitRows(int iRows)
+  {
+    if(iRows <= 0 || iRows > Geometry.MAXROWS || iRows % 8 != 0)
+    {
+      throw new IllegalArgumentException("8 bit output needs rows to be a multiple of 8 up to "
+                                         +Geometry.MAXROWS+", not "+iRows);
+    }
+
+  } // check8BitRows()
+
+  //=================================================================================
+  // Function:    write(PrintWriter w, FontLines lines)
+  // Description: Writes every line in the 32 bit form, as Save File does
+  // Input:       PrintWriter w: output; FontLines lines: the file contents
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created (moved out of CBArray.saveFile()) -- RL
+  // 2026Oct17 Through FontWriter -- RL
+  //=================================================================================
+  static void write(PrintWriter w, FontLines lines)
+  {
+    try
+    {
+      GlyphEncoder.encode(lines, new FontWriter(w, lines.rows(), lines.cols()));
+    }
+    catch(IOException ex)
+    {
+      // A PrintWriter doesn't throw; it keeps the error for checkError()
+      throw new IllegalStateException(ex);
+    }
+
+  } // write()
+
+  static void write8Bit(Writer w, FontLines lines, int iRows) throws IOException
+  {
+    write8Bit(w, lines, iRows, SPLIT);
+  }
+
+  //=================================================================================
+  // Function:    write8Bit(Writer w, FontLines lines, int iRows, int iOrder)
+  // Description: Writes every line in an 8 bit form
+  // Input:       Writer w: output; FontLines lines: the file contents
+  //              int iRows: bits per column, a multiple of 8
+  //              int iOrder: SPLIT ('byte split', as Save File writes), PAGES or
+  //              PAGES_MSB_TOP
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created (moved out of CBArray.saveFileAs8Bit()) -- RL
+  // 2026Oct17 Streams through a reused char[]; no String per line -- RL
+  // 2026Oct17 Byte order selectable -- RL
+  // 2026Oct17 Through SplitWriter -- RL
+  //=================================================================================
+  static void write8Bit(Writer w, FontLines lines, int iRows, int iOrder) throws IOException
+  {
+    GlyphEncoder.encode(lines, new SplitWriter(w, iRows, lines.cols(), iOrder));
+
+  } // write8Bit()
+
+} // class FontFormat
@@ -0,0 +1,93 @@
+//==================================================================================
+// File: FontLines.java
+//
+// Description: The lines of an open font file, as CBArray edits them. Implemented
+//              by GlyphStore (everything parsed and held in memory) and
+//              MappedFont (file memory-mapped, lines parsed on demand).
+//
+// History:
+// 2026Oct17 Created; line flags moved here from GlyphStore -- RL
+// 2026Oct17 comment() -- RL
+// 2026Oct17 rows() and lineWords(): a column may take more than one word -- RL
+// 2026Oct17 source(), sourceLine() and setSource(), for IncrementalSave -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Interface: FontLines
+  // Description: Indexed, editable font file lines
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+interface FontLines
+{
+  // Line flags; a line with no flags is an empty line
+  static final int F_COMMENT = 1;   // whole line is a comment (text in comment())
+  static final int F_CHAR = 2;      // {...} record, comment() is its line end comment
+  static final int F_RAW = 4;       // line that did not parse (text in comment())
+
+  int size();
+  int rows();
+  int cols();
+
+  // Words a line's columns take (Geometry.wordsPerColumn() each)
+  default int lineWords()
+  {
+    return cols()*Geometry.wordsPerColumn(rows());
+  }
+
+  int flags(int i);
+  boolean characterPresent(int i);
+
+  // Comment of line i, "" for none; the line's text if it did not parse
+  String comment(int i);
+
+  // Copies the column words of line i into aDest[0..lineWords())
+  int[] copyWords(int i, int[] aDest);
+
+  // Copies line i into cb for display
+  void read(int i, CharBuf cb);
+
+  // Makes line i a record holding aSrc[0..lineWords()) and sComment ("" for none)
+  void set(int i, int[] aSrc, String sComment);
+
+  // Replaces line i with sLine, parsed; returns false if it did not parse
+  boolean setLine(int i, String sLine);
+
+  // Inserts a line before line i (i == size() appends), a copy of line iCopyOf
+  // (index before the insert) or, if iCopyOf is -1, an empty line
+  void insert(int i, int iCopyOf);
+
+  void remove(int i);
+
+  // Appends line i as it is written to the 32 bit file
+  StringBuilder appendLine(StringBuilder sb, int i, boolean bLast);
+
+  // File the lines were read from or last saved to; null if not known
+  default FontSource source()
+  {
+    return null;
+  }
+
+  // Line of source() that line i still is, byte for byte; -1 once it has been
+  // edited, or if it was inserted
+  default int sourceLine(int i)
+  {
+    return -1;
+  }
+
+  // Every line i is now line i of src (the file was just read or saved); a src
+  // with another number of lines, or null, leaves no source
+  default void setSource(FontSource src)
+  {
+  }
+
+  // Releases anything held open for the file
+  default void close()
+  {
+  }
+
+} // interface FontLines
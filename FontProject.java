@@ -0,0 +1,273 @@
+//==================================================================================
+// File: FontProject.java
+//
+// Description: Binary sidecar ("project") file written next to a font file by Save
+//              File, so the font can be reopened without parsing its text. The
+//              sidecar is only used while the length, modification time and
+//              CRC32 it records still match the font file; otherwise the font is
+//              parsed as usual. The CRC is only computed once the length and
+//              time match, so a stale sidecar costs no read of the font.
+//
+//              Layout (big-endian, as ByteBuffer writes it):
+//                0  int   MAGIC ('CBP1')
+//                4  int   VERSION
+//                8  int   rows
+//               12  int   cols
+//               16  int   count: number of lines
+//               20  int   (unused, 0)
+//               24  long  length of the font file
+//               32  long  CRC32 of the font file
+//               40  long  offset of the string index
+//               48  long  offset of the column words
+//               56  long  offset of the string table
+//               64  long  modification time of the font file (ms)
+//               72  byte  line flags (FontLines.F_*), count of them, padded to 4
+//                   int   string index: offset of each line's comment in the
+//                         string table, -1 for none
+//                   int   column words, cols*Geometry.wordsPerColumn(rows) per
+//                         line (W); line i starts at words + 4*W*i, so any
+//                         record is reached directly
+//                   string table: per string, int length then UTF-8 bytes
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Rows come from the FontLines; two words a column past 32 rows -- RL
+// 2026Oct17 size(), the glyph size from the header alone -- RL
+// 2026Oct17 VERSION 2: records the font's modification time, checked with its
+//           length before the CRC is computed -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+  //=================================================================================
+  // Class: FontProject
+  // Description: Reads and writes the binary sidecar of a font file
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class FontProject
+{
+  static final String EXT = ".cbp";
+  static final int MAGIC = 0x43425031;   // 'CBP1'
+  static final int VERSION = 2;
+  static final int HEADER = 72;
+
+  private FontProject()
+  {
+  }
+
+  // Sidecar of the font file f
+  static File sidecar(File f)
+  {
+    return new File(f.getPath()+EXT);
+  }
+
+  //=================================================================================
+  // Function:    crc(File f)
+  // Description: CRC32 of the whole of f, read through a mapping
+  // Input:       File f: file to check
+  // Output:      None
+  // Returns:     long: the CRC
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static long crc(File f) throws IOException
+  {
+    CRC32 crc = new CRC32();
+    try(FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ))
+    {
+      long lLength = ch.size();
+      for(long p=0; p<lLength; p+=MappedFont.SEG_SIZE)
+      {
+        crc.update(ch.map(FileChannel.MapMode.READ_ONLY, p, Math.min(MappedFont.SEG_SIZE, lLength-p)));
+      }
+    }
+    return crc.getValue();
+
+  } // crc()
+
+  //=================================================================================
+  // Function:    write(File fFont, FontLines lines)
+  // Description: Writes the sidecar for fFont, which must already hold lines as
+  //              saved. Written to a temporary file and renamed into place.
+  // Input:       File fFont: the font file just saved
+  //              FontLines lines: its contents
+  // Output:      The sidecar file
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void write(File fFont, FontLines lines) throws IOException
+  {
+    int n = lines.size();
+    int iRows = lines.rows();
+    int iCols = lines.cols();
+    int iLineWords = lines.lineWords();
+
+    // String table first, so the index can be written before it
+    byte[][] aStrings = new byte[n][];
+    int[] aIndex = new int[n];
+    long lTable = 0;
+    for(int i=0; i<n; i++)
+    {
+      String s = lines.comment(i);
+      if(lines.flags(i) == 0 || s.length() == 0)
+      {
+        aIndex[i] = -1;
+        continue;
+      }
+      aStrings[i] = s.getBytes(StandardCharsets.UTF_8);
+      aIndex[i] = (int)lTable;
+      lTable += 4 + aStrings[i].length;
+    }
+    long lIndexOff = HEADER + ((n+3) & ~3);
+    long lWordsOff = lIndexOff + 4L*n;
+    long lStringsOff = lWordsOff + 4L*n*iLineWords;
+
+    if(lStringsOff + lTable > Integer.MAX_VALUE) throw new IOException("FontProject: font too large");
+
+    ByteBuffer out = ByteBuffer.allocate((int)(lStringsOff + lTable));
+    out.putInt(MAGIC).putInt(VERSION).putInt(iRows).putInt(iCols).putInt(n).putInt(0);
+    out.putLong(fFont.length()).putLong(crc(fFont));
+    out.putLong(lIndexOff).putLong(lWordsOff).putLong(lStringsOff);
+    out.putLong(fFont.lastModified());
+    for(int i=0; i<n; i++) out.put((byte)lines.flags(i));
+    out.position((int)lIndexOff);
+    out.asIntBuffer().put(aIndex);
+    IntBuffer ib = out.position((int)lWordsOff).asIntBuffer();
+    int[] aWords = new int[iLineWords];
+    for(int i=0; i<n; i++) ib.put(lines.copyWords(i, aWords));
+    out.position((int)lStringsOff);
+    for(int i=0; i<n; i++)
+    {
+      if(aStrings[i] == null) continue;
+      out.putInt(aStrings[i].length).put(aStrings[i]);
+    }
+    out.flip();
+
+    File fSide = sidecar(fFont);
+    File fTmp = new File(fSide.getPath()+".tmp");
+    try(FileChannel ch = FileChannel.open(fTmp.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+    {
+      while(out.hasRemaining()) ch.write(out);
+    }
+    Files.move(fTmp.toPath(), fSide.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+  } // write()
+
+  //=================================================================================
+  // Function:    size(File fFont)
+  // Description: The glyph size the sidecar of fFont was written for, read from
+  //              its header alone, so Open File need not scan the font for it
+  // Input:       File fFont: font file being opened
+  // Output:      None
+  // Returns:     Geometry: the size, or null if there is no sidecar or its
+  //              header doesn't fit fFont; load() still checks the CRC
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Checks the modification time too -- RL
+  //=================================================================================
+  static Geometry size(File fFont)
+  {
+    File fSide = sidecar(fFont);
+    if(!fSide.isFile()) return null;
+    try(FileChannel ch = FileChannel.open(fSide.toPath(), StandardOpenOption.READ))
+    {
+      ByteBuffer b = ByteBuffer.allocate(HEADER);
+      while(b.hasRemaining() && ch.read(b) > 0)
+      {
+      }
+      if(b.hasRemaining()) return null;
+      if(b.getInt(0) != MAGIC || b.getInt(4) != VERSION) return null;
+      if(!matches(b, fFont)) return null;
+      return new Geometry(b.getInt(8), b.getInt(12));
+    }
+    catch(IOException | RuntimeException ex)
+    {
+      System.out.println("FontProject.size(): "+fSide+": "+ex);
+      return null;
+    }
+
+  } // size()
+
+  // The header b records fFont's length and modification time; the CRC is not
+  // checked
+  private static boolean matches(ByteBuffer b, File fFont)
+  {
+    return b.getLong(24) == fFont.length() && b.getLong(64) == fFont.lastModified();
+  }
+
+  //=================================================================================
+  // Function:    load(File fFont, int iRows, int iCols)
+  // Description: Maps the sidecar of fFont and reads it into a GlyphStore, if it
+  //              exists, is for this geometry and still matches fFont
+  // Input:       File fFont: font file being opened
+  //              int iRows, int iCols: geometry in use
+  // Output:      None
+  // Returns:     GlyphStore: the contents of fFont, or null to parse it instead
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Length and modification time checked first; the CRC, a read of
+  //           the whole font, only when they match -- RL
+  // 2026Oct17 Words read straight into the store's chunks -- RL
+  //=================================================================================
+  static GlyphStore load(File fFont, int iRows, int iCols)
+  {
+    File fSide = sidecar(fFont);
+    if(!fSide.isFile()) return null;
+    try(FileChannel ch = FileChannel.open(fSide.toPath(), StandardOpenOption.READ))
+    {
+      if(ch.size() < HEADER || ch.size() > Integer.MAX_VALUE) return null;
+      MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if(b.getInt(0) != MAGIC || b.getInt(4) != VERSION) return null;
+      if(b.getInt(8) != iRows || b.getInt(12) != iCols) return null;
+      int n = b.getInt(16);
+      if(!matches(b, fFont) || b.getLong(32) != crc(fFont)) return null;
+      int iIndexOff = (int)b.getLong(40);
+      int iWordsOff = (int)b.getLong(48);
+      int iStringsOff = (int)b.getLong(56);
+
+      byte[] aLineFlags = new byte[n];
+      b.get(HEADER, aLineFlags);
+      int[] aIndex = new int[n];
+      b.duplicate().position(iIndexOff).asIntBuffer().get(aIndex);
+
+      String[] asComments = new String[Math.max(n, 1)];
+      byte[] aBytes = new byte[256];
+      for(int i=0; i<n; i++)
+      {
+        if(aIndex[i] < 0) continue;
+        int p = iStringsOff + aIndex[i];
+        int len = b.getInt(p);
+        if(aBytes.length < len) aBytes = new byte[len];
+        b.get(p+4, aBytes, 0, len);
+        asComments[i] = new String(aBytes, 0, len, StandardCharsets.UTF_8);
+      }
+      IntBuffer words = b.duplicate().position(iWordsOff).asIntBuffer();
+      return new GlyphStore(iRows, iCols, n, words, aLineFlags, asComments);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+      // A damaged sidecar is no worse than a missing one
+      System.out.println("FontProject.load(): "+fSide+": "+ex);
+      return null;
+    }
+
+  } // load()
+
+} // class FontProject
@@ -0,0 +1,184 @@
+//==================================================================================
+// File: FontSource.java
+//
+// Description: Where the lines of a font file are in the file: the byte offset
+//              each line starts at, and the line terminator the file uses. A
+//              FontLines keeps the FontSource it was read from (or last saved
+//              to) and, for each line, which line of it the line still is byte
+//              for byte, so IncrementalSave can copy unedited lines straight
+//              from the file instead of writing them out again.
+//
+//              Lines end at "\n", "\r\n" or "\r", as with Scanner.nextLine() and
+//              MappedFont. Line k runs from start(k) to end(k), its terminator
+//              included; only the last line may have none.
+//
+//              The file is taken to be unchanged while its length and modified
+//              time are (current()); nothing holds it open.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 index() of a file already in a byte[] dropped; ParallelLoader no
+//           longer reads the file into one -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: FontSource
+  // Description: Line start offsets of a font file, as it was when read
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class FontSource
+{
+  private final File f;
+  private final long lLength;
+  private final long lModified;
+  private final long[] aStarts;
+  private final int n;
+  private final String sNewline;
+  private final boolean bTerminated;
+
+  //=================================================================================
+  // Function:    FontSource(File f, long lLength, long lModified, long[] aStarts,
+  //                         int n, String sNewline, boolean bTerminated)
+  // Description: A file whose lines are already known; aStarts is taken over, not
+  //              copied
+  // Input:       File f: the file; long lLength, lModified: its length and
+  //              modified time when the lines were read
+  //              long[] aStarts, int n: start offsets of its n lines
+  //              String sNewline: its line terminator
+  //              boolean bTerminated: true if the last line has a terminator
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  FontSource(File f, long lLength, long lModified, long[] aStarts, int n, String sNewline,
+             boolean bTerminated)
+  {
+    this.f = f;
+    this.lLength = lLength;
+    this.lModified = lModified;
+    this.aStarts = aStarts;
+    this.n = n;
+    this.sNewline = sNewline;
+    this.bTerminated = bTerminated;
+  }
+
+  //=================================================================================
+  // Class: Indexer
+  // Description: Finds line starts in a file fed through it in order
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static final class Indexer
+  {
+    long[] aStarts = new long[1024];
+    int n;
+    String sNewline;
+    boolean bCR;          // last byte fed was '\r'
+    byte bLast;
+
+    void feed(byte[] a, int off, int len, long lBase)
+    {
+      for(int j=off; j<off+len; j++)
+      {
+        byte b = a[j];
+        if(b == '\n')
+        {
+          // "\r\n" is one terminator; the line starts after the '\n'
+          if(bCR) aStarts[n-1]++;
+          else add(lBase+j-off+1);
+          if(sNewline == null) sNewline = bCR ? "\r\n" : "\n";
+        }
+        else if(b == '\r')
+        {
+          if(bCR && sNewline == null) sNewline = "\r";
+          add(lBase+j-off+1);
+        }
+        else if(bCR && sNewline == null)
+        {
+          sNewline = "\r";
+        }
+        bCR = (b == '\r');
+      }
+      if(len > 0) bLast = a[off+len-1];
+    }
+
+    private void add(long lStart)
+    {
+      if(n == aStarts.length) aStarts = Arrays.copyOf(aStarts, n + (n >> 1));
+      aStarts[n++] = lStart;
+    }
+
+    FontSource source(File f, long lLength, long lModified)
+    {
+      // A terminator at the very end starts no line
+      if(n > 0 && aStarts[n-1] == lLength) n--;
+      if(bCR && sNewline == null) sNewline = "\r";
+      return new FontSource(f, lLength, lModified, aStarts, n, (sNewline == null) ? System.lineSeparator() : sNewline,
+                            bLast == '\n' || bLast == '\r');
+    }
+  } // class Indexer
+
+  //=================================================================================
+  // Function:    index(File f)
+  // Description: Reads f once, 64K at a time, for its line starts
+  // Input:       File f: font file
+  // Output:      None
+  // Returns:     FontSource: its lines
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static FontSource index(File f) throws IOException
+  {
+    long lModified = f.lastModified();
+    Indexer ix = new Indexer();
+    long lLength = 0;
+    try(FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ))
+    {
+      ByteBuffer b = ByteBuffer.allocate(1 << 16);
+      if(ch.size() > 0) ix.add(0);
+      int len;
+      while((len = ch.read(b)) >= 0)
+      {
+        ix.feed(b.array(), 0, len, lLength);
+        lLength += len;
+        b.clear();
+      }
+    }
+    return ix.source(f, lLength, lModified);
+
+  } // index()
+
+  File file() { return f; }
+  long length() { return lLength; }
+  int lines() { return n; }
+  String newline() { return sNewline; }
+
+  // Offset line k starts at
+  long start(int k) { return aStarts[k]; }
+
+  // Offset just past line k's terminator
+  long end(int k) { return (k+1 < n) ? aStarts[k+1] : lLength; }
+
+  // Whether line k ends in a terminator (only the last line may not)
+  boolean terminated(int k) { return k+1 < n || bTerminated; }
+
+  // True while the file is as it was read: same length and modified time
+  boolean current()
+  {
+    return f.length() == lLength && f.lastModified() == lModified;
+  }
+
+} // class FontSource
@@ -0,0 +1,87 @@
+//==================================================================================
+// File: FontWriter.java
+//
+// Description: The 32 bit font file, as Save File has always written it: each
+//              line in the form CBArray edits, every record but the last ending
+//              in "},". A line with text of its own (MappedFont, FontConv) is
+//              written as it is; a GlyphStore record is built from its words in
+//              a reused char[] (FontFormat.putRecord()).
+//
+// History:
+// 2026Oct17 Created (the line loop of FontFormat.write()) -- RL
+// 2026Oct17 Glyph rows, for two word columns -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+
+  //=================================================================================
+  // Class: FontWriter
+  // Description: GlyphEncoder for the 32 bit form
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class FontWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final int iRows;
+  private final int nCols;
+  private final char[] aNl = System.lineSeparator().toCharArray();
+  private char[] a = new char[1024];
+
+  // iRows, nCols: glyph size
+  FontWriter(Writer w, int iRows, int nCols)
+  {
+    this.w = w;
+    this.iRows = iRows;
+    this.nCols = nCols;
+  }
+
+  // Makes room for n chars and the line separator
+  private void need(int n)
+  {
+    n += aNl.length;
+    if(a.length < n) a = new char[Math.max(n, 2*a.length)];
+  }
+
+  // Writes a[0..k) and the line separator in one call
+  private void writeLine(int k) throws IOException
+  {
+    System.arraycopy(aNl, 0, a, k, aNl.length);
+    w.write(a, 0, k + aNl.length);
+  }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: One record: its text if it has one, else the record made from
+  //              the words and comment
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    if(sText != null)
+    {
+      line(FontLines.F_CHAR, sComment, sText, bLast);
+      return;
+    }
+    need(FontFormat.recordLength(nCols, iRows, sComment));
+    writeLine(FontFormat.putRecord(a, 0, aWords, off, nCols, iRows, bLast, sComment));
+
+  } // glyph()
+
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    need(sText.length());
+    writeLine(FontFormat.putText(a, 0, sText));
+  }
+
+} // class FontWriter
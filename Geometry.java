@@ -0,0 +1,294 @@
+//==================================================================================
+// File: Geometry.java
+//
+// Description: Glyph size of a font, and how its columns are held in memory.
+//              A column is bit r = row r, row 0 the top. Up to 32 rows it is one
+//              int, as it has always been; a taller column takes two ints, the
+//              first holding rows 0-31 and the second rows 32-63, so a glyph is
+//              cols*wordsPerColumn() ints, one column after another. Rows stop
+//              at 64 because the font file holds a column as one C literal,
+//              which a uint64_t must be able to take.
+//
+//              detect() reads the size of a font from its first records, so
+//              fonts of different sizes can be opened one after the other
+//              without rebuilding with a new CharSize. The rows come from how
+//              wide the literals are written, never from which pixels are set,
+//              so a font that leaves its bottom rows blank keeps its full cell.
+//
+//              Columns are held in whole ints: 4 bytes for up to 32 rows, 8 for
+//              33 to 64, not rows/8 rounded up. That is ceil(rows/8) bytes only
+//              at 25-32 and 57-64 rows; an 8 row glyph takes four times that.
+//              Whole ints because the int[] column words are what everything
+//              else trades in: GlyphScanner builds literals straight into them,
+//              FontLines.copyWords() and set() and every GlyphEncoder take
+//              them, the sidecar maps them as an IntBuffer, and a pixel is one
+//              bit of one word. A 32 row column, the CharSize default, is 4
+//              bytes either way.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 detect() reads the whole file, and takes the rows from the pixels
+//           alone, so they may come out fewer than the default's -- RL
+// 2026Oct17 detect() reads only the first DETECTRECORDS records, and takes the
+//           rows from the literal width and the default, not the pixels -- RL
+// 2026Oct17 Why columns are whole ints -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: Geometry
+  // Description: Rows and columns of a glyph, and the column word helpers
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class Geometry
+{
+  static final int MAXROWS = 64;            // a column is at most a uint64_t
+  static final int MAXCOLS = 1024;          // widest record detect() looks for
+  static final int DETECTRECORDS = 64;      // records detect() reads
+
+  private final int iRows;
+  private final int iCols;
+
+  //=================================================================================
+  // Function:    Geometry(int iRows, int iCols)
+  // Description: A glyph size
+  // Input:       int iRows: 1 to MAXROWS; int iCols: 1 or more
+  // Output:      None
+  // Returns:     None; throws IllegalArgumentException for a size that can't be
+  //              held
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  Geometry(int iRows, int iCols)
+  {
+    if(iRows < 1 || iRows > MAXROWS || iCols < 1)
+    {
+      throw new IllegalArgumentException("glyphs need 1-"+MAXROWS+" rows and at least 1 column, not "
+                                         +iRows+"x"+iCols);
+    }
+    this.iRows = iRows;
+    this.iCols = iCols;
+  }
+
+  int rows() { return iRows; }
+  int cols() { return iCols; }
+  int wordsPerColumn() { return wordsPerColumn(iRows); }
+  int lineWords() { return iCols*wordsPerColumn(iRows); }
+
+  // ints a column of iRows rows takes
+  static int wordsPerColumn(int iRows)
+  {
+    return (iRows <= 32) ? 1 : 2;
+  }
+
+  // Column with the rows past iRows cleared
+  static long mask(int iRows)
+  {
+    return (iRows >= 64) ? -1L : (1L << iRows) - 1;
+  }
+
+  //=================================================================================
+  // Function:    column(int[] aWords, int off, int iWpc)
+  // Description: One column, from its words
+  // Input:       int[] aWords, int off: where the column's words start
+  //              int iWpc: words per column, 1 or 2
+  // Output:      None
+  // Returns:     long: the column, rows 0-63 in bits 0-63 (a one word column is
+  //              not sign extended)
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static long column(int[] aWords, int off, int iWpc)
+  {
+    long v = aWords[off] & 0xffffffffL;
+    if(iWpc > 1) v |= (long)aWords[off+1] << 32;
+    return v;
+
+  } // column()
+
+  // Stores column v at aWords[off..off+iWpc)
+  static void setColumn(int[] aWords, int off, int iWpc, long v)
+  {
+    aWords[off] = (int)v;
+    if(iWpc > 1) aWords[off+1] = (int)(v >>> 32);
+  }
+
+  //=================================================================================
+  // Class: Detector
+  // Description: Columns and literal widths of the records of a file fed
+  //              through it a line at a time
+  // History:
+  // 2026Oct17 Created (from detect()) -- RL
+  // 2026Oct17 Hex digits of the literals rather than the pixels -- RL
+  //=================================================================================
+  private static final class Detector
+  {
+    final GlyphScanner sc = new GlyphScanner(MAXROWS);
+    final int iWpc = wordsPerColumn(MAXROWS);
+    final int[] aWords = new int[MAXCOLS*iWpc];
+    char[] aChars = new char[256];
+    int nRecords;         // records seen
+    int nCols;            // most literals in a record
+    int nMinDigits = Integer.MAX_VALUE;   // fewest hex digits in a hex literal
+    int nMaxDigits;       // most hex digits in a hex literal
+    boolean bDecimal;     // a decimal literal was seen
+    long lDecimal;        // every decimal literal, or'd together
+
+    // Line a[off..end), without its terminator
+    void line(byte[] a, int off, int end)
+    {
+      int len = end-off;
+      if(aChars.length < len) aChars = new char[Math.max(len, 2*aChars.length)];
+      char[] c = aChars;
+      if(GlyphScanner.widen(a, off, len, c) < 0)
+      {
+        c = new String(a, off, len, StandardCharsets.UTF_8).toCharArray();
+        len = c.length;
+      }
+      // Scanned for as many columns as have been seen first, as scan() clears
+      // every column it is given; a wider record fails and is scanned again
+      int iType = sc.scan(c, 0, len, aWords, 0, Math.max(nCols, 1));
+      if(iType == GlyphScanner.FAIL) iType = sc.scan(c, 0, len, aWords, 0, MAXCOLS);
+      if(iType != GlyphScanner.RECORD) return;
+      nRecords++;
+      nCols = Math.max(nCols, sc.words());
+
+      // The literals again, for their widths: hex digits after the 'x' (the
+      // scanner skips whitespace inside a literal, and so does this)
+      int col = 0;
+      int nDigits = 0;
+      boolean bHex = false;
+      for(int j=0; j<len && col<sc.words(); j++)
+      {
+        char ch = c[j];
+        if(ch == '{') continue;
+        if(ch == ',' || ch == '}')
+        {
+          if(bHex)
+          {
+            nMinDigits = Math.min(nMinDigits, nDigits);
+            nMaxDigits = Math.max(nMaxDigits, nDigits);
+          }
+          else
+          {
+            bDecimal = true;
+            lDecimal |= column(aWords, col*iWpc, iWpc);
+          }
+          col++;
+          nDigits = 0;
+          bHex = false;
+          if(ch == '}') break;
+        }
+        else if(ch == 'x' || ch == 'X')
+        {
+          bHex = true;
+          nDigits = 0;
+        }
+        else if(Character.digit(ch, 16) >= 0)
+        {
+          nDigits++;
+        }
+      }
+    }
+  } // class Detector
+
+  //=================================================================================
+  // Function:    detect(File f, Geometry dflt)
+  // Description: The glyph size of font file f, from its first DETECTRECORDS
+  //              records: the columns are the most literals any of them has.
+  //              The rows come from the literals' width, never from their
+  //              pixels, so a 32 row font that leaves its bottom rows blank is
+  //              still 32 rows:
+  //              - 8 digit literals, as Save File writes one word columns, and
+  //                unpadded ones of up to 8: the default's rows, or 32 if the
+  //                default is taller
+  //              - wider ones, up to 16 digits: the default's rows if it has
+  //                two words a column, otherwise 64
+  //              - every literal padded to the same even width under 8 digits,
+  //                as 0x%02x or 0x%04x: 4 rows a digit
+  //              Decimal literals count as 8 digits, or 16 past 32 bits. A
+  //              later record with more columns or wider literals fails to
+  //              parse and is kept as text. Lines are split as FontSource
+  //              splits them.
+  // Input:       File f: font file
+  //              Geometry dflt: size to use for what the file doesn't show (a
+  //              font with no records); -rows/-cols or CharSize
+  // Output:      None
+  // Returns:     Geometry: the size; dflt itself if the file agrees with it
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Reads the whole file, a byte buffer at a time; rows from the
+  //           pixels alone -- RL
+  // 2026Oct17 Reads the first DETECTRECORDS records only; rows from the literal
+  //           width, keeping the default's where it fits -- RL
+  //=================================================================================
+  static Geometry detect(File f, Geometry dflt) throws IOException
+  {
+    Detector d = new Detector();
+    byte[] a = new byte[1 << 16];
+    int iFill = 0;                // a[0..iFill): start of a line not yet ended
+    try(FileInputStream in = new FileInputStream(f))
+    {
+      int len;
+      while(d.nRecords < DETECTRECORDS && (len = in.read(a, iFill, a.length-iFill)) > 0)
+      {
+        int end = iFill+len;
+        int p = 0;
+        for(int j=iFill; j<end && d.nRecords<DETECTRECORDS; j++)
+        {
+          if(a[j] != '\n' && a[j] != '\r') continue;
+          d.line(a, p, j);
+          p = j+1;
+        }
+        iFill = end-p;
+        System.arraycopy(a, p, a, 0, iFill);
+        if(iFill == a.length) a = Arrays.copyOf(a, 2*a.length);
+      }
+    }
+    if(d.nRecords < DETECTRECORDS) d.line(a, 0, iFill);
+
+    int nMax = d.nMaxDigits;
+    if(d.bDecimal) nMax = Math.max(nMax, ((d.lDecimal >>> 32) != 0) ? 16 : 8);
+    boolean bPadded = !d.bDecimal && d.nMinDigits == nMax && nMax >= 2 && (nMax & 1) == 0;
+    int iRows;
+    if(d.nRecords == 0) iRows = dflt.rows();
+    else if(bPadded && nMax < 8) iRows = 4*nMax;
+    else if(nMax <= 8) iRows = Math.min(dflt.rows(), 32);
+    else iRows = (dflt.rows() > 32) ? dflt.rows() : MAXROWS;
+    int nCols = (d.nCols == 0) ? dflt.cols() : d.nCols;
+    if(iRows == dflt.rows() && nCols == dflt.cols()) return dflt;
+    return new Geometry(iRows, nCols);
+
+  } // detect()
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if(!(o instanceof Geometry)) return false;
+    Geometry g = (Geometry)o;
+    return iRows == g.iRows && iCols == g.iCols;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return 31*iRows + iCols;
+  }
+
+  @Override
+  public String toString()
+  {
+    return iRows+"x"+iCols;
+  }
+
+} // class Geometry
@@ -0,0 +1,278 @@
+//==================================================================================
+// File: GfxWriter.java
+//
+// Description: Writes a font as an Adafruit GFX font (gfxfont.h): each glyph
+//              cut to the bounding box of its set pixels and packed row by row,
+//              most significant bit first, with no padding between rows and the
+//              last byte of each glyph padded; a GFXglyph table of where each
+//              bitmap starts, its size and its offset from the cursor; and the
+//              GFXfont tying them together, for setFont().
+//
+//              GFX finds a character's glyph as c - first, so the glyphs must be
+//              consecutive characters. first is the character the first record's
+//              comment names (0x20 if it names none); records whose comment
+//              names a different character than their place gives them are
+//              counted in the report. The cursor is at the bottom of the cell,
+//              as GFX puts it on the baseline: yOffset is the top of the box
+//              less the glyph height, and yAdvance the glyph height.
+//
+//              Bitmaps stream out as they come; the glyph table (8 bytes a
+//              glyph) is held until finish().
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: GfxWriter
+  // Description: Streams glyphs out as an Adafruit GFX font, with a size report
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class GfxWriter implements GlyphEncoder
+{
+  static final int MAXBITMAP = 0xffff;     // bitmapOffset is a uint16_t
+
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final long lMask;
+  private final char[] a;
+  private int[] aOffsets = new int[1024];
+  private byte[] aBox = new byte[4*1024];   // width, height, xOffset, yOffset
+  private int nGlyphs;
+  private int iFirst = -1;
+  private int nMisplaced;
+  private long lBytes;
+
+  //=================================================================================
+  // Function:    GfxWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes, a description of the layout and the opening
+  //              of the bitmap array
+  // Input:       Writer w: output
+  //              String sName: C identifier; the arrays are sNameBitmaps and
+  //              sNameGlyphs and the font sName, as fontconvert names them
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: cell width, 1 to 128 (xOffset is an int8_t)
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException for sizes GFXglyph can't
+  //              hold
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  GfxWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS || nCols < 1 || nCols > 128)
+    {
+      throw new IllegalArgumentException("Adafruit GFX output needs 1-"+Geometry.MAXROWS
+                                         +" rows and 1-128 columns, not "+iRows+"x"+nCols);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.lMask = Geometry.mask(iRows);
+    this.a = new char[(nCols*iRows+7)/8*5];
+
+    String sNl = System.lineSeparator();
+    w.write("// "+sName+": Adafruit GFX font by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows x "+nCols+" columns; display.setFont(&"+sName+")."+sNl);
+    w.write("// Bitmaps are cut to their set pixels, rows packed most significant bit first."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("#include <gfxfont.h>"+sNl);
+    w.write(sNl);
+    w.write("const uint8_t "+sName+"Bitmaps[] PROGMEM = {"+sNl);
+
+  } // GfxWriter()
+
+  int glyphs() { return nGlyphs; }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Finds the bounding box of the set pixels and writes the rows
+  //              inside it
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException once the bitmaps pass
+  //              64K, past what bitmapOffset can reach
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int cp = Codepoints.fromComment(sComment);
+    if(nGlyphs == 0) iFirst = (cp < 0) ? 0x20 : cp;
+    else if(cp >= 0 && cp != iFirst + nGlyphs) nMisplaced++;
+
+    int x0 = 0;
+    while(x0 < nCols && column(aWords, off, x0) == 0) x0++;
+    int x1 = nCols;
+    while(x1 > x0 && column(aWords, off, x1-1) == 0) x1--;
+    long lInk = 0;
+    for(int col=x0; col<x1; col++) lInk |= column(aWords, off, col);
+    int y0 = 0;
+    int y1 = 0;
+    if(lInk != 0)
+    {
+      y0 = Long.numberOfTrailingZeros(lInk);
+      y1 = 64 - Long.numberOfLeadingZeros(lInk);
+    }
+
+    if(lBytes > MAXBITMAP)
+    {
+      throw new IllegalArgumentException("Adafruit GFX bitmaps pass 64K at glyph "+nGlyphs);
+    }
+    if(nGlyphs == aOffsets.length)
+    {
+      aOffsets = Arrays.copyOf(aOffsets, 2*nGlyphs);
+      aBox = Arrays.copyOf(aBox, 8*nGlyphs);
+    }
+    aOffsets[nGlyphs] = (int)lBytes;
+    int b = 4*nGlyphs;
+    aBox[b] = (byte)(x1 - x0);
+    aBox[b+1] = (byte)(y1 - y0);
+    aBox[b+2] = (byte)((lInk == 0) ? 0 : x0);
+    aBox[b+3] = (byte)((lInk == 0) ? 0 : y0 - iRows);
+    nGlyphs++;
+
+    // Rows top to bottom, each left to right, as one run of bits
+    int k = 0;
+    int v = 0;
+    int nBits = 0;
+    for(int y=y0; y<y1; y++)
+    {
+      for(int col=x0; col<x1; col++)
+      {
+        v = (v << 1) | (int)((column(aWords, off, col) >>> y) & 1);
+        if(++nBits == 8)
+        {
+          k = putByte(k, v);
+          v = nBits = 0;
+        }
+      }
+    }
+    if(nBits > 0) k = putByte(k, v << (8 - nBits));
+    lBytes += k/5;
+
+    w.write(a, 0, k);
+    w.write((k == 0) ? "// " : " // ");
+    w.write(Integer.toString(nGlyphs-1));
+    if(sComment.length() > 0)
+    {
+      w.write(' ');
+      w.write(sComment.startsWith("//") ? sComment.substring(2).trim() : sComment);
+    }
+    w.write(System.lineSeparator());
+
+  } // glyph()
+
+  // Column col of the glyph at off, masked to the glyph height
+  private long column(int[] aWords, int off, int col)
+  {
+    return Geometry.column(aWords, off+col*iWpc, iWpc) & lMask;
+  }
+
+  // b as 0x.., followed by ','
+  private int putByte(int k, int b)
+  {
+    a[k++] = '0';
+    a[k++] = 'x';
+    a[k++] = FontFormat.HEX[(b >>> 4) & 0xf];
+    a[k++] = FontFormat.HEX[b & 0xf];
+    a[k++] = ',';
+    return k;
+  }
+
+  // A whole line comment from the font, kept in place
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    if((iFlags & FontLines.F_COMMENT) == 0) return;
+    w.write(sComment);
+    w.write(System.lineSeparator());
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the bitmap array, writes the glyph table and the font, and
+  //              makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the size report; throws IllegalArgumentException if the
+  //              characters run past 0xffff (first and last are uint16_t)
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    if(iFirst < 0) iFirst = 0x20;
+    int iLast = iFirst + Math.max(nGlyphs, 1) - 1;
+    if(iLast > 0xffff)
+    {
+      throw new IllegalArgumentException("Adafruit GFX characters run to U+"+Integer.toHexString(iLast)
+                                         +", past 0xffff");
+    }
+
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("const GFXglyph "+sName+"Glyphs[] PROGMEM = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    for(int g=0; g<nGlyphs; g++)
+    {
+      int b = 4*g;
+      sb.setLength(0);
+      sb.append("  { ").append(aOffsets[g]).append(", ").append(aBox[b] & 0xff).append(", ")
+        .append(aBox[b+1] & 0xff).append(", ").append(nCols).append(", ").append(aBox[b+2])
+        .append(", ").append(aBox[b+3]).append(" },   // 0x").append(Integer.toHexString(iFirst+g))
+        .append(sNl);
+      w.write(sb.toString());
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("const GFXfont "+sName+" PROGMEM = {"+sNl);
+    w.write("  (uint8_t *)"+sName+"Bitmaps,"+sNl);
+    w.write("  (GFXglyph *)"+sName+"Glyphs,"+sNl);
+    w.write("  0x"+Integer.toHexString(iFirst)+", 0x"+Integer.toHexString(iLast)+", "+iRows+" };"+sNl);
+
+    long lFull = (long)nGlyphs*((nCols*iRows+7)/8);
+    long lTotal = lBytes + 8L*nGlyphs + 10;
+    double dGlyphs = Math.max(1, nGlyphs);
+    sb.setLength(0);
+    sb.append("Adafruit GFX font ").append(sName).append(sNl);
+    sb.append(String.format("  glyphs:           %d (%dx%d), characters 0x%x to 0x%x%n",
+                            nGlyphs, iRows, nCols, iFirst, iLast));
+    sb.append(String.format("  bitmaps:          %d bytes (%.1f a glyph; %d uncut)%n",
+                            lBytes, lBytes/dGlyphs, lFull));
+    sb.append(String.format("  glyph table:      %d bytes (GFXglyph, 8 each)%n", 8L*nGlyphs));
+    sb.append(String.format("  total:            %d bytes%n", lTotal));
+    if(nMisplaced > 0)
+    {
+      sb.append(String.format("  misplaced:        %d glyph(s) whose comment names another character than%n",
+                              nMisplaced));
+      sb.append("                    the one GFX draws them for, first + position").append(sNl);
+    }
+    return sb.toString();
+
+  } // finish()
+
+} // class GfxWriter
@@ -0,0 +1,75 @@
+//==================================================================================
+// File: Glyph.java
+//
+// Description: One parsed line of a font file - the column words of a character
+//              cell plus its comment. Instances are immutable and so may be shared
+//              freely between threads.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 cols() is words(): a column may take more than one word -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Class: Glyph
+  // Description: Immutable result of parsing one line with GlyphParser
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class Glyph
+{
+  private final String sComment;
+  private final int[] aWords;
+  private final boolean bCommentPresent;
+  private final boolean bCharacterPresent;
+
+  // aWords is taken over, not copied - callers must not keep a reference to it
+  Glyph(String sComment, int[] aWords, boolean bCommentPresent, boolean bCharacterPresent)
+  {
+    this.sComment = (sComment == null) ? "" : sComment;
+    this.aWords = aWords;
+    this.bCommentPresent = bCommentPresent;
+    this.bCharacterPresent = bCharacterPresent;
+  }
+
+  String comment() { return sComment; }
+  int words() { return aWords.length; }
+  int word(int i) { return aWords[i]; }
+  boolean commentPresent() { return bCommentPresent; }
+  boolean characterPresent() { return bCharacterPresent; }
+
+  //=================================================================================
+  // Function:    copyWords(int[] aDest)
+  // Description: Copies the column words into aDest
+  // Input:       int[] aDest: destination, at least words() long
+  // Output:      aDest
+  // Returns:     int[]: aDest
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int[] copyWords(int[] aDest)
+  {
+    System.arraycopy(aWords, 0, aDest, 0, aWords.length);
+    return aDest;
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if(!(o instanceof Glyph)) return false;
+    Glyph g = (Glyph)o;
+    return bCommentPresent == g.bCommentPresent && bCharacterPresent == g.bCharacterPresent
+        && sComment.equals(g.sComment) && java.util.Arrays.equals(aWords, g.aWords);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return 31*sComment.hashCode() + java.util.Arrays.hashCode(aWords);
+  }
+
+} // class Glyph
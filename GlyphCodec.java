@@ -0,0 +1,148 @@
+//==================================================================================
+// File: GlyphCodec.java
+//
+// Description: Compressed glyph encoding and its reference decoder. Most of a
+//              text glyph is blank: columns at either side, and whole 8 row
+//              pages above and below the strokes. The encoding drops both.
+//
+//              One glyph, P = (rows+7)/8 pages:
+//                byte 0      first column that has a pixel set (0 if none)
+//                byte 1      W, columns from there to the last with a pixel
+//                            set (0 for a blank glyph, which ends here)
+//                mask        W*P bits, (W*P+7)/8 bytes: bit j (byte j/8, bit
+//                            j%8) is set if page j%P of column first+j/P is
+//                            stored
+//                pages       the stored page bytes, column by column, page 0
+//                            first; bit 0 is the top row of the page, as the
+//                            SSD1306 takes it
+//              Columns outside the range and pages not stored are 0.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Up to 64 rows (8 pages), columns of Geometry.wordsPerColumn()
+//           words; mask() moved to Geometry -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Class: GlyphCodec
+  // Description: Static encoder and reference decoder for compressed glyphs
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class GlyphCodec
+{
+  private GlyphCodec()
+  {
+  }
+
+  static int pages(int iRows) { return (iRows+7)/8; }
+
+  // Worst case size of one glyph: every page of every column stored
+  static int maxBytes(int nCols, int iRows)
+  {
+    int p = pages(iRows);
+    return 2 + (nCols*p + 7)/8 + nCols*p;
+  }
+
+  //=================================================================================
+  // Function:    encode(int[] aWords, int off, int nCols, int iRows, byte[] a, int k)
+  // Description: Encodes one glyph
+  // Input:       int[] aWords, int off, int nCols: the column words
+  //              int iRows: glyph height, 1 to 64
+  //              byte[] a, int k: output and where to start; must have maxBytes()
+  //              room
+  // Output:      a[k..returned index)
+  // Returns:     int: index after the last byte written
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int encode(int[] aWords, int off, int nCols, int iRows, byte[] a, int k)
+  {
+    if(nCols > 255)
+    {
+      throw new IllegalArgumentException("compressed output needs 255 columns or fewer, not "+nCols);
+    }
+    long m = Geometry.mask(iRows);
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    int x0 = 0;
+    while(x0 < nCols && (Geometry.column(aWords, off+x0*iWpc, iWpc) & m) == 0) x0++;
+    int x1 = nCols;
+    while(x1 > x0 && (Geometry.column(aWords, off+(x1-1)*iWpc, iWpc) & m) == 0) x1--;
+    int w = x1 - x0;
+    a[k++] = (byte)((w == 0) ? 0 : x0);
+    a[k++] = (byte)w;
+    if(w == 0) return k;
+
+    int p = pages(iRows);
+    int iMask = k;
+    int nMask = (w*p + 7)/8;
+    for(int j=0; j<nMask; j++) a[k+j] = 0;
+    k += nMask;
+    int j = 0;
+    for(int col=x0; col<x1; col++)
+    {
+      long v = Geometry.column(aWords, off+col*iWpc, iWpc) & m;
+      for(int pg=0; pg<p; pg++, j++)
+      {
+        int b = (int)(v >>> (8*pg)) & 0xff;
+        if(b != 0)
+        {
+          a[iMask + (j >>> 3)] |= (byte)(1 << (j & 7));
+          a[k++] = (byte)b;
+        }
+      }
+    }
+    return k;
+
+  } // encode()
+
+  //=================================================================================
+  // Function:    decode(byte[] a, int k, int nCols, int iRows, int[] aWords, int off)
+  // Description: Reference decoder: rebuilds the column words of one glyph. Written
+  //              as a small MCU would run it - one pass, a byte read and a bit
+  //              test at a time - so its operation count is the firmware's.
+  // Input:       byte[] a, int k: encoded glyph and where it starts
+  //              int nCols, int iRows: glyph size
+  //              int[] aWords, int off: where the column words go
+  // Output:      aWords[off..off+nCols*Geometry.wordsPerColumn(iRows))
+  // Returns:     int: index after the glyph
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int decode(byte[] a, int k, int nCols, int iRows, int[] aWords, int off)
+  {
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    for(int j=0; j<nCols*iWpc; j++) aWords[off+j] = 0;
+    int x0 = a[k++] & 0xff;
+    int w = a[k++] & 0xff;
+    if(w == 0) return k;
+
+    int p = pages(iRows);
+    int iMask = k;
+    k += (w*p + 7)/8;
+    int j = 0;
+    for(int col=x0; col<x0+w; col++)
+    {
+      long v = 0;
+      for(int pg=0; pg<p; pg++, j++)
+      {
+        if((a[iMask + (j >>> 3)] & (1 << (j & 7))) != 0) v |= (a[k++] & 0xffL) << (8*pg);
+      }
+      Geometry.setColumn(aWords, off+col*iWpc, iWpc, v);
+    }
+    return k;
+
+  } // decode()
+
+  // Decoder operations for a glyph of iBytes encoded bytes and W columns: each
+  // byte read once, one mask bit test per (column, page)
+  static int decodeOps(byte[] a, int k, int iBytes, int iRows)
+  {
+    return iBytes + (a[k+1] & 0xff)*pages(iRows);
+  }
+
+} // class GlyphCodec
@@ -0,0 +1,175 @@
+//==================================================================================
+// File: GlyphDedup.java
+//
+// Description: Set of distinct glyph bitmaps. Each glyph's column words are
+//              hashed and looked up in an open addressed (linear probing) table;
+//              a hash match is only taken as the same glyph after comparing every
+//              word, so a collision can never merge two different glyphs. The
+//              distinct bitmaps are kept packed in one int[], numbered in the
+//              order first seen.
+//
+//              Expected O(cols) per glyph, so O(n) for a font; the table is kept
+//              under half full and doubles as needed.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Columns of two words, past 32 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: GlyphDedup
+  // Description: Hash set of glyph bitmaps giving each distinct one an id
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class GlyphDedup
+{
+  private final int nCols;
+  private final int nWords;     // words a glyph: nCols of Geometry.wordsPerColumn()
+  private final int[] aMask;    // mask of each word of a column
+  private int[] aWords;         // distinct bitmaps, nWords words each
+  private int[] aHashes;        // hash of each distinct bitmap
+  private int[] aSlots;         // id+1, or 0 for an empty slot
+  private int nBitmaps;
+  private boolean bAdded;
+  private long lCollisions;
+
+  //=================================================================================
+  // Function:    GlyphDedup(int nCols, int iRows)
+  // Description: Empty set
+  // Input:       int nCols: columns per glyph
+  //              int iRows: glyph height; rows past it are ignored
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  GlyphDedup(int nCols, int iRows)
+  {
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    long lMask = Geometry.mask(iRows);
+    this.nCols = nCols;
+    this.nWords = nCols*iWpc;
+    this.aMask = new int[iWpc];
+    for(int j=0; j<iWpc; j++) aMask[j] = (int)(lMask >>> (32*j));
+    this.aWords = new int[256*nWords];
+    this.aHashes = new int[256];
+    this.aSlots = new int[512];
+  }
+
+  int size() { return nBitmaps; }
+  int cols() { return nCols; }
+  int[] words() { return aWords; }              // bitmap id is at id*lineWords()
+  int lineWords() { return nWords; }
+  boolean added() { return bAdded; }            // did the last add() make a new id
+  long collisions() { return lCollisions; }     // hash matches that weren't the glyph
+
+  //=================================================================================
+  // Function:    hash(int[] a, int off)
+  // Description: Hash of one glyph's (masked) column words: each word mixed in
+  //              with a multiply and rotate, then the murmur3 finalizer so that
+  //              glyphs differing in one pixel land far apart in the table
+  // Input:       int[] a, int off: the column words
+  // Output:      None
+  // Returns:     int: the hash
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int hash(int[] a, int off)
+  {
+    int h = nCols;
+    int iWpc = aMask.length;
+    for(int j=0; j<nWords; j+=iWpc)
+    {
+      for(int w=0; w<iWpc; w++)
+      {
+        int k = (a[off+j+w] & aMask[w]) * 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15) * 0x1b873593;
+        h = Integer.rotateLeft(h ^ k, 13) * 5 + 0xe6546b64;
+      }
+    }
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+
+  } // hash()
+
+  // True if bitmap id is a[off..off+lineWords())
+  private boolean same(int id, int[] a, int off)
+  {
+    int b = id*nWords;
+    int iWpc = aMask.length;
+    for(int j=0; j<nWords; j++)
+    {
+      if(aWords[b+j] != (a[off+j] & aMask[j % iWpc])) return false;
+    }
+    return true;
+  }
+
+  //=================================================================================
+  // Function:    add(int[] a, int off)
+  // Description: Finds a glyph's bitmap, adding it if it is new
+  // Input:       int[] a, int off: the column words
+  // Output:      None
+  // Returns:     int: the bitmap's id; added() says whether it was new
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int add(int[] a, int off)
+  {
+    int h = hash(a, off);
+    int m = aSlots.length - 1;
+    int s = h & m;
+    for(int id; (id = aSlots[s] - 1) >= 0; s = (s+1) & m)
+    {
+      if(aHashes[id] == h)
+      {
+        if(same(id, a, off))
+        {
+          bAdded = false;
+          return id;
+        }
+        lCollisions++;
+      }
+    }
+
+    int id = nBitmaps++;
+    if(id == aHashes.length)
+    {
+      aHashes = Arrays.copyOf(aHashes, 2*id);
+      aWords = Arrays.copyOf(aWords, 2*id*nWords);
+    }
+    aHashes[id] = h;
+    int b = id*nWords;
+    int iWpc = aMask.length;
+    for(int j=0; j<nWords; j++) aWords[b+j] = a[off+j] & aMask[j % iWpc];
+    aSlots[s] = id+1;
+    if(2*nBitmaps > aSlots.length) grow();
+    bAdded = true;
+    return id;
+
+  } // add()
+
+  // Doubles the table, placing every bitmap again from its kept hash
+  private void grow()
+  {
+    aSlots = new int[2*aSlots.length];
+    int m = aSlots.length - 1;
+    for(int id=0; id<nBitmaps; id++)
+    {
+      int s = aHashes[id] & m;
+      while(aSlots[s] != 0) s = (s+1) & m;
+      aSlots[s] = id+1;
+    }
+  }
+
+} // class GlyphDedup
@@ -0,0 +1,118 @@
+//==================================================================================
+// File: GlyphEncoder.java
+//
+// Description: An output format. An encoder is handed a font one line at a time
+//              - the parsed column words of each glyph, everything else as text -
+//              and streams its own output from them as they come; finish() ends
+//              the output and may return a report. Every format FontConv and
+//              Save File write is one, so one pass over the font feeds all of
+//              them at once (encode() below, or FontConv's read loop).
+//
+//              Encoders write through their own reused buffers; the words passed
+//              in are only valid for the call. A glyph's columns are
+//              Geometry.wordsPerColumn() words each, for the rows the encoder was
+//              made for.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Columns of more than one word -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+
+  //=================================================================================
+  // Interface: GlyphEncoder
+  // Description: Streaming writer of one output format
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+interface GlyphEncoder
+{
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: A record with a character
+  // Input:       int[] aWords, int off: the column words, bit r row r (rows 32 on
+  //              in a column's second word - Geometry.column())
+  //              String sComment: line end comment, as the font has it, or ""
+  //              CharSequence sText: the line as the 32 bit file has it, or null
+  //              if it has no text of its own (it is FontFormat.appendRecord()
+  //              of the words and comment)
+  //              boolean bLast: true if this is the last line of the file
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast) throws IOException;
+
+  //=================================================================================
+  // Function:    line(int iFlags, String sComment, CharSequence sText, boolean bLast)
+  // Description: Any other line. Most binary and C formats only keep whole line
+  //              comments, if anything; the default ignores the line.
+  // Input:       int iFlags: FontLines.F_COMMENT, F_RAW (didn't parse) or 0 (empty)
+  //              String sComment: as FontLines.comment() - the comment, or the
+  //              text of a line that didn't parse
+  //              CharSequence sText: the line as the 32 bit file has it
+  //              boolean bLast: true if this is the last line of the file
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  default void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+  }
+
+  // Ends the output; returns its report, or null if the format has none
+  default String finish() throws IOException
+  {
+    return null;
+  }
+
+  //=================================================================================
+  // Function:    encode(FontLines lines, GlyphEncoder... aEnc)
+  // Description: Feeds every line of an open font to each encoder, in one pass.
+  //              Records in a GlyphStore go straight from its word arrays; other
+  //              fonts' lines are copied into one reused array and buffer.
+  // Input:       FontLines lines: the file contents
+  //              GlyphEncoder... aEnc: the outputs
+  // Output:      The encoders' outputs; finish() is left to the caller
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void encode(FontLines lines, GlyphEncoder... aEnc) throws IOException
+  {
+    GlyphStore store = (lines instanceof GlyphStore) ? (GlyphStore)lines : null;
+    int[] aWords = new int[lines.lineWords()];
+    StringBuilder sb = new StringBuilder(512);
+    int n = lines.size();
+    for(int i=0; i<n; i++)
+    {
+      boolean bLast = (i == n-1);
+      String sComment = lines.comment(i);
+      if(lines.characterPresent(i))
+      {
+        if(store != null)
+        {
+          for(GlyphEncoder e : aEnc) e.glyph(store.words(i), store.base(i), sComment, null, bLast);
+        }
+        else
+        {
+          sb.setLength(0);
+          lines.appendLine(sb, i, bLast);
+          lines.copyWords(i, aWords);
+          for(GlyphEncoder e : aEnc) e.glyph(aWords, 0, sComment, sb, bLast);
+        }
+        continue;
+      }
+      sb.setLength(0);
+      lines.appendLine(sb, i, bLast);
+      int f = lines.flags(i);
+      for(GlyphEncoder e : aEnc) e.line(f, sComment, sb, bLast);
+    }
+
+  } // encode()
+
+} // interface GlyphEncoder
@@ -0,0 +1,121 @@
+//==================================================================================
+// File: GlyphParser.java
+//
+// Description: Parses lines of a font file. All parse state is created for each
+//              call, so one GlyphParser may be used from any number of threads
+//              at once.
+//
+// History:
+// 2026Oct17 Created (replaces States.parse() and the static Buf/Input) -- RL
+// 2026Oct17 Parse with GlyphScanner; the States machine is kept as a reference -- RL
+// 2026Oct17 Glyph rows, for columns of more than one word -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Class: GlyphParser
+  // Description: Thread-safe line parser returning immutable Glyph records
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class GlyphParser
+{
+  private final int iRows;
+  private final int iCols;
+
+  GlyphParser(int iRows, int iCols)
+  {
+    this.iRows = iRows;
+    this.iCols = iCols;
+  }
+
+  int rows() { return iRows; }
+  int cols() { return iCols; }
+
+  //=================================================================================
+  // Function:    parse(String sLine)
+  // Description: Parses one line of the input file with a GlyphScanner
+  // Input:       String sLine: the line to parse
+  // Output:      None
+  // Returns:     Glyph: the parsed record, or null if the line could not be parsed
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Scan with GlyphScanner rather than the States machine -- RL
+  //=================================================================================
+  Glyph parse(String sLine)
+  {
+    GlyphScanner sc = new GlyphScanner(iRows);
+    int[] aWords = new int[iCols*Geometry.wordsPerColumn(iRows)];
+    char[] a = sLine.toCharArray();
+    return glyph(sc, sc.scan(a, 0, a.length, aWords), aWords);
+
+  } // parse()
+
+  //=================================================================================
+  // Function:    glyph(GlyphScanner sc, int iType, int[] aWords)
+  // Description: Makes a Glyph from the results of a scan
+  // Input:       GlyphScanner sc: the scanner, just after scan()
+  //              int iType: what scan() returned
+  //              int[] aWords: the words scan() filled in; taken over by the Glyph
+  // Output:      None
+  // Returns:     Glyph: the record, or null if the scan failed
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static Glyph glyph(GlyphScanner sc, int iType, int[] aWords)
+  {
+    switch(iType)
+    {
+      case GlyphScanner.EMPTY: return new Glyph("", aWords, false, false);
+      case GlyphScanner.COMMENT: return new Glyph(sc.comment(), aWords, true, false);
+      case GlyphScanner.RECORD: return new Glyph(sc.comment(), aWords, false, true);
+      default: return null;
+    }
+
+  } // glyph()
+
+  //=================================================================================
+  // Function:    parseStates(String sLine)
+  // Description: Runs the States machine over one line of the input file. This is
+  //              the reference GlyphScanner is checked and benchmarked against;
+  //              like States, it knows only one word columns. As with
+  //              GlyphScanner, a literal with bits past the rows fails the line.
+  // Input:       String sLine: the line to parse
+  // Output:      None
+  // Returns:     Glyph: the parsed record, or null if the line could not be parsed
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Literals past the rows fail -- RL
+  //=================================================================================
+  Glyph parseStates(String sLine)
+  {
+    State s;
+    Buf buf = new Buf(iCols);
+    Input in = new Input(sLine, buf);
+    try
+    {
+      for(s = States.Init; s != States.Fail && s != States.DONE && s != States.DONENULL; s = s.next(in))
+      {
+      }
+    }
+    catch(NumberFormatException | IndexOutOfBoundsException ex)
+    {
+      // Badly formed literal, or more values than there are columns
+      s = States.Fail;
+    }
+
+    if(s == States.Fail) return null;
+    long lMask = Geometry.mask(iRows);
+    for(int w : buf.iBuf)
+    {
+      if(((w & 0xffffffffL) & ~lMask) != 0) return null;
+    }
+    if(s == States.DONENULL) return new Glyph("", buf.iBuf, false, false);
+    return new Glyph(buf.comment, buf.iBuf, buf.bCommentPresent, buf.bCharacterPresent);
+
+  } // parseStates()
+
+} // class GlyphParser
@@ -0,0 +1,435 @@
+//==================================================================================
+// File: GlyphScanner.java
+//
+// Description: Table driven scanner for font file lines. Accepts and rejects
+//              exactly the lines the States machine does, but works straight off
+//              a char[] and builds each literal in place into a caller supplied
+//              int[], so nothing is allocated per literal or per line.
+//
+//              Quirks of States that are kept on purpose:
+//              - a line starting with NUL counts as empty
+//              - "/" alone is a comment line (Input.read() re-reads the last char)
+//              - whitespace inside a literal is skipped ("0x1 2" is 0x12)
+//              - any 'x' makes a literal hex, and its first two characters are
+//                then skipped whatever they are
+//              - a line end comment that is just "/" is reported as "//"
+//              - control characters may appear in a line end comment only as the
+//                last character of the line
+//
+//              A scanner for glyphs taller than 32 rows puts each literal into
+//              two words (Geometry.setColumn()) and takes literals of up to 64
+//              bits, 0x followed by 16 hex digits; for 32 rows or fewer the words
+//              and limits are as above.
+//
+//              A literal with a bit set past the scanner's rows fails the line
+//              rather than being cut down to fit, so a column that doesn't fit
+//              the glyph is never silently lost (the line is kept as text).
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Columns of two words, for glyphs of 33 to 64 rows -- RL
+// 2026Oct17 Literals with bits past the rows fail the line -- RL
+//==================================================================================
+package cbarray;
+
+import java.nio.CharBuffer;
+
+  //=================================================================================
+  // Class: GlyphScanner
+  // Description: Zero allocation line scanner. Results of the last scan are kept
+  //              in the scanner, so use one per thread.
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class GlyphScanner
+{
+  // Line types returned by scan()
+  static final int FAIL = -1;
+  static final int EMPTY = 0;
+  static final int COMMENT = 1;   // whole line is a // comment
+  static final int RECORD = 2;    // {...} record, perhaps with a line end comment
+
+  // Character classes
+  private static final byte K_OTHER = 0;
+  private static final byte K_SPACE = 1;   // ' '
+  private static final byte K_SLASH = 2;   // '/'
+  private static final byte K_OPEN  = 3;   // '{'
+  private static final byte K_CLOSE = 4;   // '}'
+  private static final byte K_COMMA = 5;   // ','
+  private static final byte K_DIGIT = 6;   // 0-9, A-F, a-f (VALUE tells which)
+  private static final byte K_X     = 7;   // X, x
+  private static final byte K_WS    = 8;   // other ASCII whitespace
+  private static final int NCLASS = 9;
+
+  // States; the first four are driven by NEXT, the rest are handled inline
+  private static final byte S_INIT  = 0;   // States.Init
+  private static final byte S_SPACE = 1;   // States.SPACELAST
+  private static final byte S_SLASH = 2;   // States.COMMENT2
+  private static final byte S_AFTER = 3;   // States.CODEDONE
+  private static final byte S_CODE  = 4;   // States.PARSECODE
+  private static final byte S_LEC   = 5;   // States.LINEENDCOMMENT
+  private static final byte S_CLINE = 6;   // States.COMMENTLINE
+  private static final byte S_FAIL  = 7;
+
+  // Long.parseLong() overflow limits
+  private static final long DEC_LIMIT = Long.MAX_VALUE/10;
+  private static final long DEC_LAST = Long.MAX_VALUE%10;
+  private static final long HEX_LIMIT = Long.MAX_VALUE>>>4;
+  private static final long WIDE_HEX_LIMIT = -1L>>>4;   // unsigned, for 64 bit columns
+
+  private static final byte[] CLASS = new byte[128];
+  private static final byte[] VALUE = new byte[128];
+  private static final byte[] HEXVAL = new byte[128];   // -1 if not a hex digit
+  private static final byte[][] NEXT = new byte[4][NCLASS];
+
+  static
+  {
+    for(char c='0'; c<='9'; c++) { CLASS[c] = K_DIGIT; VALUE[c] = (byte)(c-'0'); }
+    for(char c='A'; c<='F'; c++) { CLASS[c] = K_DIGIT; VALUE[c] = (byte)(c-'A'+10); }
+    for(char c='a'; c<='f'; c++) { CLASS[c] = K_DIGIT; VALUE[c] = (byte)(c-'a'+10); }
+    for(char c=0; c<128; c++) HEXVAL[c] = (CLASS[c] == K_DIGIT) ? VALUE[c] : -1;
+    CLASS['X'] = K_X;
+    CLASS['x'] = K_X;
+    CLASS[' '] = K_SPACE;
+    CLASS['/'] = K_SLASH;
+    CLASS['{'] = K_OPEN;
+    CLASS['}'] = K_CLOSE;
+    CLASS[','] = K_COMMA;
+    for(char c=0; c<128; c++)
+    {
+      if(c != ' ' && Character.isWhitespace(c)) CLASS[c] = K_WS;
+    }
+
+    for(int s=0; s<NEXT.length; s++) java.util.Arrays.fill(NEXT[s], S_FAIL);
+    NEXT[S_INIT][K_SPACE] = S_SPACE;
+    NEXT[S_INIT][K_SLASH] = S_SLASH;
+    NEXT[S_INIT][K_OPEN] = S_CODE;
+    NEXT[S_SPACE][K_SPACE] = S_SPACE;
+    NEXT[S_SPACE][K_SLASH] = S_SLASH;
+    NEXT[S_SPACE][K_OPEN] = S_CODE;
+    NEXT[S_SLASH][K_SLASH] = S_CLINE;
+    NEXT[S_AFTER][K_COMMA] = S_AFTER;
+    NEXT[S_AFTER][K_SPACE] = S_AFTER;
+    NEXT[S_AFTER][K_SLASH] = S_LEC;
+  }
+
+  private final int iWpc;               // words per column
+  private final long lMask;             // bits a column may have, Geometry.mask()
+  private final long lHexLimit;
+  private final int iFastDigits;        // most hex digits the fast path takes
+
+  // Results of the last scan
+  private char[] aSrc;
+  private int iWords;
+  private int iCommentStart;
+  private int iCommentEnd;
+  private boolean bLineEnd;             // comment is a line end comment
+  private int[] aWords;                 // where column words go
+  private int iWordOff;
+  private int nCols;
+  private char[] aCopy = new char[0];   // used for CharBuffers without an array
+
+  // Scanner for glyphs of up to 32 rows, one word per column
+  GlyphScanner()
+  {
+    this(32);
+  }
+
+  // Scanner for glyphs of iRows rows (Geometry.wordsPerColumn() words per column)
+  GlyphScanner(int iRows)
+  {
+    iWpc = Geometry.wordsPerColumn(iRows);
+    lMask = Geometry.mask(iRows);
+    lHexLimit = (iWpc == 1) ? HEX_LIMIT : WIDE_HEX_LIMIT;
+    iFastDigits = (iWpc == 1) ? 15 : 16;
+  }
+
+  // Literals in the last record (columns, not words)
+  int words() { return iWords; }
+  int commentStart() { return iCommentStart; }
+  int commentEnd() { return iCommentEnd; }
+
+  //=================================================================================
+  // Function:    scan(char[] a, int off, int end, int[] aWords)
+  // Description: Scans one line (without its line terminator)
+  // Input:       char[] a: source
+  //              int off, int end: the line is a[off..end)
+  //              int[] aWords: receives the column words; entries past the last
+  //                literal are zeroed. Its length is the number of columns times
+  //                the words per column.
+  // Output:      aWords; words(), commentStart(), commentEnd()
+  // Returns:     int: FAIL, EMPTY, COMMENT or RECORD
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int scan(char[] a, int off, int end, int[] aWords)
+  {
+    return scan(a, off, end, aWords, 0, aWords.length/iWpc);
+  }
+
+  //=================================================================================
+  // Function:    scan(char[] a, int off, int end, int[] aWords, int iWordOff,
+  //                   int nCols)
+  // Description: As above, but the nCols columns go to aWords from iWordOff on,
+  //              e.g. straight into a GlyphStore
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int scan(char[] a, int off, int end, int[] aWords, int iWordOff, int nCols)
+  {
+    aSrc = a;
+    this.aWords = aWords;
+    this.iWordOff = iWordOff;
+    this.nCols = nCols;
+    iWords = 0;
+    iCommentStart = iCommentEnd = -1;
+    bLineEnd = false;
+    if(off >= end || a[off] == 0) return clear(EMPTY);
+
+    int p = off;
+    int s = S_INIT;
+    while(s < S_CODE)
+    {
+      if(p >= end)
+      {
+        // Input.read() re-reads the last character at end of input
+        if(s == S_AFTER) return clear(RECORD);
+        if(s == S_SLASH) s = S_CLINE;
+        else return FAIL;
+        break;
+      }
+      char c = a[p++];
+      s = NEXT[s][c < 128 ? CLASS[c] : K_OTHER];
+      if(s == S_CODE)
+      {
+        p = scanCode(a, p, end);
+        if(p < 0) return FAIL;
+        s = S_AFTER;
+      }
+    }
+
+    if(s == S_CLINE)
+    {
+      iCommentStart = off;
+      iCommentEnd = end;
+      return clear(COMMENT);
+    }
+    if(s == S_LEC)
+    {
+      // Everything but the last character must be printable
+      iCommentStart = p-1;
+      for(; p < end-1; p++)
+      {
+        char c = a[p];
+        if(c < 0x20 || (c >= 0x7f && c <= 0x9f)) return FAIL;
+      }
+      iCommentEnd = end;
+      bLineEnd = true;
+      return clear(RECORD);
+    }
+    return FAIL;
+
+  } // scan()
+
+  //=================================================================================
+  // Function:    scan(CharBuffer cb, int[] aWords)
+  // Description: Scans the remaining characters of cb as one line. cb's position
+  //              is not changed.
+  // Input:       CharBuffer cb: the line
+  //              int[] aWords: receives the column words
+  // Output:      aWords; words(), commentStart(), commentEnd() - offsets are into
+  //              cb's backing array if it has one, else from cb's position
+  // Returns:     int: FAIL, EMPTY, COMMENT or RECORD
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int scan(CharBuffer cb, int[] aWords)
+  {
+    if(cb.hasArray())
+    {
+      int off = cb.arrayOffset()+cb.position();
+      return scan(cb.array(), off, off+cb.remaining(), aWords);
+    }
+    int n = cb.remaining();
+    if(aCopy.length < n) aCopy = new char[Math.max(n, 2*aCopy.length)];
+    cb.duplicate().get(aCopy, 0, n);
+    return scan(aCopy, 0, n, aWords);
+
+  } // scan()
+
+  //=================================================================================
+  // Function:    scanCode(char[] a, int p, int end)
+  // Description: Scans the literals of a record, up to and including the '}'
+  //              (States.PARSECODE). Each literal is built up both as decimal and
+  //              as hex-after-the-first-two-characters, since an 'x' anywhere in
+  //              it decides which one Long.parseLong() would have been given.
+  // Input:       char[] a: source; p: index just past the '{'; end: end of line
+  // Output:      aWords, iWords
+  // Returns:     int: index just past the '}', or -1 if the record is malformed
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Two word columns -- RL
+  // 2026Oct17 A literal with bits past the rows is malformed -- RL
+  //=================================================================================
+  private int scanCode(char[] a, int p, int end)
+  {
+    int[] aW = aWords;
+    int iOff = iWordOff;
+    int nC = nCols;
+    int iW = iWpc;
+    int n = 0;
+    int iLen = 0;
+    boolean bHex = false;
+    boolean bDecBad = false;
+    boolean bHexBad = false;
+    long lDec = 0;
+    long lHex = 0;
+
+    while(p < end)
+    {
+      // Fast path for the usual 0x1234abcd literal running straight into its
+      // ',' or '}'. Anything else (spaces, more than 15 digits - 16 for two
+      // word columns) takes the general path below from the start of the
+      // literal.
+      if(iLen == 0 && p+2 < end && a[p] == '0' && (a[p+1] | 0x20) == 'x')
+      {
+        int q = p+2;
+        int lim = Math.min(end, q+iFastDigits);
+        long lVal = 0;
+        while(q < lim)
+        {
+          char c = a[q];
+          int d = (c < 128) ? HEXVAL[c] : -1;
+          if(d < 0) break;
+          lVal = (lVal << 4) | d;
+          q++;
+        }
+        if(q > p+2 && q < end && (a[q] == ',' || a[q] == '}'))
+        {
+          if(n >= nC || (lVal & ~lMask) != 0) return -1;
+          if(iW == 1) aW[iOff + n] = (int)lVal;
+          else Geometry.setColumn(aW, iOff + n*iW, iW, lVal);
+          iWords = ++n;
+          p = q+1;
+          if(a[q] == '}') return p;
+          continue;
+        }
+      }
+
+      char c = a[p++];
+      int k;
+      int v;
+      if(c < 128)
+      {
+        k = CLASS[c];
+        v = VALUE[c];
+      }
+      else if(Character.isWhitespace(c))
+      {
+        continue;
+      }
+      else if(Character.isDigit(c))
+      {
+        k = K_DIGIT;
+        v = Character.digit(c, 10);
+      }
+      else
+      {
+        return -1;
+      }
+
+      if(k == K_DIGIT)
+      {
+        // Hex letters are digits too, with values above 9
+        bDecBad |= (v > 9);
+        if(!bDecBad)
+        {
+          if(lDec > DEC_LIMIT || (lDec == DEC_LIMIT && v > DEC_LAST)) bDecBad = true;
+          else lDec = lDec*10 + v;
+        }
+        if(iLen++ >= 2 && !bHexBad)
+        {
+          if(Long.compareUnsigned(lHex, lHexLimit) > 0) bHexBad = true;
+          else lHex = (lHex << 4) | v;
+        }
+      }
+      else if(k == K_X)
+      {
+        bHex = true;
+        bDecBad = true;
+        if(iLen++ >= 2) bHexBad = true;
+      }
+      else if(k == K_COMMA || k == K_CLOSE)
+      {
+        if(bHex ? (iLen < 3 || bHexBad) : (iLen == 0 || bDecBad)) return -1;
+        long lVal = bHex ? lHex : lDec;
+        if(n >= nC || (lVal & ~lMask) != 0) return -1;
+        if(iW == 1) aW[iOff + n] = (int)lVal;
+        else Geometry.setColumn(aW, iOff + n*iW, iW, lVal);
+        iWords = ++n;
+        if(k == K_CLOSE) return p;
+        iLen = 0;
+        bHex = bDecBad = bHexBad = false;
+        lDec = lHex = 0;
+      }
+      else if(k != K_SPACE && k != K_WS)
+      {
+        return -1;
+      }
+    }
+    // No closing '}'
+    return -1;
+
+  } // scanCode()
+
+  private int clear(int iType)
+  {
+    for(int i=iWords*iWpc; i<nCols*iWpc; i++) aWords[iWordOff+i] = 0;
+    return iType;
+  }
+
+  //=================================================================================
+  // Function:    comment()
+  // Description: The comment found by the last scan, as States would report it
+  // Input:       None
+  // Output:      None
+  // Returns:     String: the comment, or "" if there was none
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  String comment()
+  {
+    if(iCommentStart < 0) return "";
+    // A line end comment of a lone '/' comes out of States as "//"
+    if(bLineEnd && iCommentEnd-iCommentStart == 1) return "//";
+    return new String(aSrc, iCommentStart, iCommentEnd-iCommentStart);
+
+  } // comment()
+
+  //=================================================================================
+  // Function:    widen(byte[] src, int off, int len, char[] dst)
+  // Description: Copies ASCII bytes to chars, for scanning lines read as bytes
+  // Input:       byte[] src: source; off, len: the bytes to copy
+  //              char[] dst: destination, at least len long
+  // Output:      dst
+  // Returns:     int: len, or -1 if a non-ASCII byte was found (decode it as UTF-8
+  //              instead)
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int widen(byte[] src, int off, int len, char[] dst)
+  {
+    for(int i=0; i<len; i++)
+    {
+      byte b = src[off+i];
+      if(b < 0) return -1;
+      dst[i] = (char)b;
+    }
+    return len;
+
+  } // widen()
+
+} // class GlyphScanner
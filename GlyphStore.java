@@ -0,0 +1,696 @@
+//==================================================================================
+// File: GlyphStore.java
+//
+// Description: Packed in-memory form of a font file. Every line is parsed once,
+//              when it is added, and kept as
+//              - its column words, lineWords() per line, in an int[]
+//              - its flags, four bits per line, in a long[] bitset
+//              - its comment (or, for a line that would not parse, its text) in
+//                a side table that is null for most records
+//              Lines are turned back into text only when the file is saved.
+//              Once setSource() is given the file the lines came from, each
+//              line also keeps which line of it it still is, until it is edited,
+//              for IncrementalSave.
+//
+//              The lines are held in chunks of at most CHUNK consecutive lines,
+//              each packed as above, so Ins Rec and Del Rec only move the lines
+//              of one chunk and the start of every chunk after it, not the whole
+//              font. A full chunk is split in two when a line goes into it.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Implements FontLines, which now holds the line flags -- RL
+// 2026Oct17 Constructor taking the arrays read back from a FontProject -- RL
+// 2026Oct17 Glyph rows; lines are lineWords() apart, as tall columns take two
+//           words -- RL
+// 2026Oct17 Source line of each line (setSource(), sourceLine()); set() of the
+//           record a line already holds leaves it unedited -- RL
+// 2026Oct17 beginSource()/endSource(), for a file read in a batch at a time
+//           while the lines already in are being edited -- RL
+// 2026Oct17 Lines held in chunks of CHUNK, so insert() and remove() no longer
+//           shift the whole store; words(i) and base(i) are per chunk -- RL
+//==================================================================================
+package cbarray;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+
+  //=================================================================================
+  // Class: GlyphStore
+  // Description: Growable, packed list of parsed font file lines
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Chunked -- RL
+  //=================================================================================
+final class GlyphStore implements FontLines
+{
+  // F_RAW lines keep their text in comment()
+
+  static final int CHUNK = 1024;        // most lines a chunk holds
+
+  //=================================================================================
+  // Class: Chunk
+  // Description: A run of consecutive lines, packed as the whole store once was:
+  //              line j is words aWords[j*iStride..), flags nibble j of aFlags,
+  //              comment asComments[j] and source line aSource[j]
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static final class Chunk
+  {
+    int n;
+    int[] aWords;
+    long[] aFlags;
+    String[] asComments;
+    int[] aSource;                      // null while the store keeps none
+
+    Chunk(int iCapacity, int iStride, boolean bSource)
+    {
+      aWords = new int[iCapacity*iStride];
+      aFlags = new long[(iCapacity+15) >>> 4];
+      asComments = new String[iCapacity];
+      if(bSource) aSource = new int[iCapacity];
+    }
+
+    int capacity() { return asComments.length; }
+
+    int flags(int j) { return (int)(aFlags[j >>> 4] >>> ((j & 15) << 2)) & 0xf; }
+
+    void setFlags(int j, int f)
+    {
+      int sh = (j & 15) << 2;
+      aFlags[j >>> 4] = (aFlags[j >>> 4] & ~(0xfL << sh)) | ((long)f << sh);
+    }
+
+    void grow(int iCapacity, int iStride)
+    {
+      aWords = Arrays.copyOf(aWords, iCapacity*iStride);
+      aFlags = Arrays.copyOf(aFlags, (iCapacity+15) >>> 4);
+      asComments = Arrays.copyOf(asComments, iCapacity);
+      if(aSource != null) aSource = Arrays.copyOf(aSource, iCapacity);
+    }
+
+    // Lines [j, n) move to [j+d, n+d), d = 1 or -1; the capacity must allow it
+    void shift(int j, int d, int iStride)
+    {
+      System.arraycopy(aWords, j*iStride, aWords, (j+d)*iStride, (n-j)*iStride);
+      System.arraycopy(asComments, j, asComments, j+d, n-j);
+      if(aSource != null) System.arraycopy(aSource, j, aSource, j+d, n-j);
+      if(d > 0) for(int k=n-1; k>=j; k--) setFlags(k+1, flags(k));
+      else for(int k=j; k<n; k++) setFlags(k-1, flags(k));
+    }
+
+    // Appends lines [j, j+cnt) of c
+    void append(Chunk c, int j, int cnt, int iStride)
+    {
+      System.arraycopy(c.aWords, j*iStride, aWords, n*iStride, cnt*iStride);
+      System.arraycopy(c.asComments, j, asComments, n, cnt);
+      if(aSource != null && c.aSource != null) System.arraycopy(c.aSource, j, aSource, n, cnt);
+      for(int k=0; k<cnt; k++) setFlags(n+k, c.flags(j+k));
+      n += cnt;
+    }
+  } // class Chunk
+
+  private final int iRows;
+  private final int iCols;
+  private final int iStride;            // lineWords()
+  private int n;
+  private Chunk[] aChunks = new Chunk[4];
+  private int[] aStarts = new int[4];   // first line of each chunk
+  private int nChunks;                  // at least one, empty only if the store is
+  private Chunk cFound;                 // chunk at() last found: lines
+  private int iFoundLo;                 // [iFoundLo, iFoundHi), until an insert()
+  private int iFoundHi;                 // or remove() moves them
+  private FontSource source;            // file the lines were read from, or null
+  private boolean bSource;              // chunks keep aSource: while source is,
+                                        // but while streaming
+  private boolean bStreaming;           // between beginSource() and endSource()
+
+  // Scratch for add(String) and insert(); GlyphStores are not thread-safe
+  private final GlyphScanner sc;
+  private char[] aChars = new char[256];
+  private final int[] aCopy;
+
+  GlyphStore(int iRows, int iCols)
+  {
+    this(iRows, iCols, 16);
+  }
+
+  GlyphStore(int iRows, int iCols, int iCapacity)
+  {
+    this.iRows = iRows;
+    this.iCols = iCols;
+    this.iStride = iCols*Geometry.wordsPerColumn(iRows);
+    this.sc = new GlyphScanner(iRows);
+    this.aCopy = new int[iStride];
+    aChunks[0] = new Chunk(Math.min(Math.max(iCapacity, 1), CHUNK), iStride, false);
+    nChunks = 1;
+  }
+
+  //=================================================================================
+  // Function:    GlyphStore(int iRows, int iCols, int n, IntBuffer words,
+  //                         byte[] aLineFlags, String[] asComments)
+  // Description: Store holding n lines already parsed, read into its chunks
+  // Input:       int iRows, int iCols: glyph size; int n: number of lines
+  //              IntBuffer words: n*lineWords() column words, from its position
+  //              byte[] aLineFlags: flags of each line
+  //              String[] asComments: comment of each line, null for none
+  // Output:      words: position moved past the lines
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Words from an IntBuffer, a chunk at a time, rather than one array
+  //           taken over -- RL
+  //=================================================================================
+  GlyphStore(int iRows, int iCols, int n, IntBuffer words, byte[] aLineFlags, String[] asComments)
+  {
+    this(iRows, iCols, n);
+    for(int i=0; i<n; i+=CHUNK)
+    {
+      int cnt = Math.min(CHUNK, n-i);
+      Chunk c = aChunks[nChunks-1];
+      if(c.n > 0)
+      {
+        c = new Chunk(CHUNK, iStride, false);
+        addChunk(nChunks, c, i);
+      }
+      words.get(c.aWords, 0, cnt*iStride);
+      System.arraycopy(asComments, i, c.asComments, 0, cnt);
+      for(int j=0; j<cnt; j++) c.setFlags(j, aLineFlags[i+j]);
+      c.n = cnt;
+    }
+    this.n = n;
+  }
+
+  public int size() { return n; }
+  public int rows() { return iRows; }
+  public int cols() { return iCols; }
+  public int lineWords() { return iStride; }
+
+  //=================================================================================
+  // Function:    chunk(int i)
+  // Description: Index of the chunk holding line i, found by binary search; it is
+  //              also what at() finds next
+  // Input:       int i: line, 0 to size()-1
+  // Output:      cFound, iFoundLo, iFoundHi
+  // Returns:     int: the chunk
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private int chunk(int i)
+  {
+    int lo = 0;
+    int hi = nChunks-1;
+    while(lo < hi)
+    {
+      int mid = (lo+hi+1) >>> 1;
+      if(aStarts[mid] <= i) lo = mid;
+      else hi = mid-1;
+    }
+    cFound = aChunks[lo];
+    iFoundLo = aStarts[lo];
+    iFoundHi = iFoundLo + cFound.n;
+    return lo;
+
+  } // chunk()
+
+  // Chunk holding line i, which is its line i-iFoundLo. Lines are mostly read in
+  // order, so the last one found is tried first.
+  private Chunk at(int i)
+  {
+    if(i < iFoundLo || i >= iFoundHi) chunk(i);
+    return cFound;
+  }
+
+  // Lines have moved between chunks
+  private void moved()
+  {
+    cFound = null;
+    iFoundLo = 0;
+    iFoundHi = 0;
+  }
+
+  // Puts chunk c in as chunk k, holding lines from iStart on
+  private void addChunk(int k, Chunk c, int iStart)
+  {
+    if(nChunks == aChunks.length)
+    {
+      aChunks = Arrays.copyOf(aChunks, 2*nChunks);
+      aStarts = Arrays.copyOf(aStarts, 2*nChunks);
+    }
+    System.arraycopy(aChunks, k, aChunks, k+1, nChunks-k);
+    System.arraycopy(aStarts, k, aStarts, k+1, nChunks-k);
+    aChunks[k] = c;
+    aStarts[k] = iStart;
+    nChunks++;
+  }
+
+  // The last chunk, with room for one more line
+  private Chunk tail()
+  {
+    Chunk c = aChunks[nChunks-1];
+    if(c.n == CHUNK)
+    {
+      c = new Chunk(CHUNK, iStride, bSource);
+      addChunk(nChunks, c, n);
+    }
+    else if(c.n == c.capacity())
+    {
+      c.grow(Math.min(CHUNK, c.n + (c.n >> 1) + 1), iStride);
+    }
+    return c;
+  }
+
+  // Array holding line i's column words, from base(i) on
+  int[] words(int i) { return at(i).aWords; }
+  int base(int i) { at(i); return (i-iFoundLo)*iStride; }
+  int word(int i, int k) { return at(i).aWords[(i-iFoundLo)*iStride + k]; }
+
+  public int flags(int i) { return at(i).flags(i-iFoundLo); }
+  boolean commentPresent(int i) { return (flags(i) & F_COMMENT) != 0; }
+  public boolean characterPresent(int i) { return (flags(i) & F_CHAR) != 0; }
+
+  public String comment(int i)
+  {
+    String s = at(i).asComments[i-iFoundLo];
+    return s == null ? "" : s;
+  }
+
+  public int[] copyWords(int i, int[] aDest)
+  {
+    System.arraycopy(at(i).aWords, (i-iFoundLo)*iStride, aDest, 0, iStride);
+    return aDest;
+  }
+
+  public FontSource source() { return source; }
+
+  public int sourceLine(int i)
+  {
+    if(source == null) return -1;
+    return at(i).aSource[i-iFoundLo];
+  }
+
+  // Every chunk keeps source lines (all -1 but in setSource()), or none does
+  private void keepSource(boolean b)
+  {
+    bSource = b;
+    for(int k=0; k<nChunks; k++)
+    {
+      Chunk c = aChunks[k];
+      c.aSource = b ? new int[c.capacity()] : null;
+      if(b) Arrays.fill(c.aSource, -1);
+    }
+  }
+
+  //=================================================================================
+  // Function:    setSource(FontSource src)
+  // Description: Line i is now line i of src, byte for byte. Ignored (no source)
+  //              if src has a different number of lines.
+  // Input:       FontSource src: file the lines were read from or saved to, or
+  //              null for none
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  public void setSource(FontSource src)
+  {
+    if(src == null || src.lines() != n)
+    {
+      source = null;
+      keepSource(false);
+      return;
+    }
+    source = src;
+    keepSource(true);
+    for(int k=0; k<nChunks; k++)
+    {
+      Chunk c = aChunks[k];
+      for(int j=0; j<c.n; j++) c.aSource[j] = aStarts[k]+j;
+    }
+
+  } // setSource()
+
+  //=================================================================================
+  // Function:    beginSource()
+  // Description: This empty store is about to be read from a file a batch at a
+  //              time (addAll()), while the lines already in may be edited.
+  //              Until endSource(), added lines are counted as the file's lines,
+  //              in order, and edits mark them as usual; there must be no
+  //              insert() or remove() until then.
+  // Input:       None
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  void beginSource()
+  {
+    source = null;
+    keepSource(true);
+    bStreaming = true;
+
+  } // beginSource()
+
+  //=================================================================================
+  // Function:    endSource(FontSource src)
+  // Description: The file has been read: src is where its lines are. Ignored (no
+  //              source) if src is null or has a different number of lines.
+  // Input:       FontSource src: the file read, or null for none
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  void endSource(FontSource src)
+  {
+    bStreaming = false;
+    if(src == null || src.lines() != n)
+    {
+      source = null;
+      keepSource(false);
+      return;
+    }
+    source = src;
+
+  } // endSource()
+
+  // Line j of chunk c no longer matches its source line
+  private static void edited(Chunk c, int j)
+  {
+    if(c.aSource != null) c.aSource[j] = -1;
+  }
+
+  //=================================================================================
+  // Function:    add(char[] a, int off, int end)
+  // Description: Parses a[off..end) and appends it. The words are scanned straight
+  //              into the store.
+  // Input:       char[] a: source; off, end: the line, without its terminator
+  // Output:      None
+  // Returns:     boolean: true if the line parsed (false: it is kept as raw text)
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  boolean add(char[] a, int off, int end)
+  {
+    Chunk c = tail();
+    int j = c.n++;
+    n++;
+    edited(c, j);
+    return put(c, j, sc.scan(a, off, end, c.aWords, j*iStride, iCols), a, off, end);
+  }
+
+  boolean add(String sLine)
+  {
+    int len = sLine.length();
+    if(aChars.length < len) aChars = new char[Math.max(len, 2*aChars.length)];
+    sLine.getChars(0, len, aChars, 0);
+    return add(aChars, 0, len);
+  }
+
+  //=================================================================================
+  // Function:    setLine(int i, String sLine)
+  // Description: Replaces line i with sLine, parsed
+  // Input:       int i: line to replace; String sLine: new text
+  // Output:      None
+  // Returns:     boolean: true if the line parsed
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  public boolean setLine(int i, String sLine)
+  {
+    char[] a = sLine.toCharArray();
+    Chunk c = at(i);
+    int j = i-iFoundLo;
+    edited(c, j);
+    return put(c, j, sc.scan(a, 0, a.length, c.aWords, j*iStride, iCols), a, 0, a.length);
+  }
+
+  private boolean put(Chunk c, int j, int iType, char[] a, int off, int end)
+  {
+    switch(iType)
+    {
+      case GlyphScanner.EMPTY:
+        c.setFlags(j, 0);
+        c.asComments[j] = null;
+        return true;
+      case GlyphScanner.COMMENT:
+        c.setFlags(j, F_COMMENT);
+        c.asComments[j] = sc.comment();
+        return true;
+      case GlyphScanner.RECORD:
+        c.setFlags(j, F_CHAR);
+        c.asComments[j] = (sc.commentStart() < 0) ? null : sc.comment();
+        return true;
+      default:
+        Arrays.fill(c.aWords, j*iStride, (j+1)*iStride, 0);
+        c.setFlags(j, F_RAW);
+        c.asComments[j] = new String(a, off, end-off);
+        return false;
+    }
+  }
+
+  //=================================================================================
+  // Function:    set(int i, int[] aSrc, String sComment)
+  // Description: Makes line i a record holding aSrc[0..lineWords()) and sComment.
+  //              If it already is exactly that record it is left as it is, still
+  //              unedited.
+  // Input:       int i: line; int[] aSrc: column words; String sComment: line end
+  //              comment, "" for none
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 The same record again is not an edit -- RL
+  //=================================================================================
+  public void set(int i, int[] aSrc, String sComment)
+  {
+    if(sComment != null && sComment.length() == 0) sComment = null;
+    Chunk c = at(i);
+    int j = i-iFoundLo;
+    if(c.flags(j) == F_CHAR && Objects.equals(c.asComments[j], sComment)
+       && Arrays.equals(c.aWords, j*iStride, (j+1)*iStride, aSrc, 0, iStride))
+    {
+      return;
+    }
+    System.arraycopy(aSrc, 0, c.aWords, j*iStride, iStride);
+    c.setFlags(j, F_CHAR);
+    c.asComments[j] = sComment;
+    edited(c, j);
+  }
+
+  //=================================================================================
+  // Function:    read(int i, CharBuf cb)
+  // Description: Copies line i into cb for display
+  // Input:       int i: line; CharBuf cb: destination
+  // Output:      cb
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  public void read(int i, CharBuf cb)
+  {
+    Chunk c = at(i);
+    int j = i-iFoundLo;
+    System.arraycopy(c.aWords, j*iStride, cb.aEncoding, 0, iStride);
+    int f = c.flags(j);
+    cb.bCommentPresent = (f & F_COMMENT) != 0;
+    cb.bCharacterPresent = (f & F_CHAR) != 0;
+    cb.sComment = (c.asComments[j] == null) ? "" : c.asComments[j];
+  }
+
+  //=================================================================================
+  // Function:    insert(int i, int iCopyOf)
+  // Description: Inserts a line before line i (i == size() appends). Only the
+  //              chunk it goes into is shifted; a full one is split first.
+  // Input:       int i: where to insert
+  //              int iCopyOf: line to copy (index before the insert), or -1 for an
+  //              empty line
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Within one chunk -- RL
+  //=================================================================================
+  public void insert(int i, int iCopyOf)
+  {
+    // What is copied, before anything moves
+    int iFlags = 0;
+    String sComment = null;
+    int iSrc = -1;
+    if(iCopyOf >= 0)
+    {
+      Chunk c = at(iCopyOf);
+      int j = iCopyOf-iFoundLo;
+      System.arraycopy(c.aWords, j*iStride, aCopy, 0, iStride);
+      iFlags = c.flags(j);
+      sComment = c.asComments[j];
+      // A copy of an unedited line is, byte for byte, the same source line
+      if(c.aSource != null) iSrc = c.aSource[j];
+    }
+    else
+    {
+      Arrays.fill(aCopy, 0);
+    }
+
+    int k = (i == n) ? nChunks-1 : chunk(i);
+    Chunk c = aChunks[k];
+    int j = i-aStarts[k];
+    if(c.n == CHUNK)
+    {
+      // Split: the top half goes to a new chunk after it
+      Chunk c2 = new Chunk(CHUNK, iStride, bSource);
+      int h = CHUNK/2;
+      c2.append(c, h, c.n-h, iStride);
+      Arrays.fill(c.asComments, h, c.n, null);
+      c.n = h;
+      addChunk(k+1, c2, aStarts[k]+h);
+      if(j > h)
+      {
+        k++;
+        c = c2;
+        j -= h;
+      }
+    }
+    else if(c.n == c.capacity())
+    {
+      c.grow(Math.min(CHUNK, c.n + (c.n >> 1) + 1), iStride);
+    }
+    c.shift(j, 1, iStride);
+    c.n++;
+    n++;
+    for(int m=k+1; m<nChunks; m++) aStarts[m]++;
+
+    System.arraycopy(aCopy, 0, c.aWords, j*iStride, iStride);
+    c.setFlags(j, iFlags);
+    c.asComments[j] = sComment;
+    if(c.aSource != null) c.aSource[j] = iSrc;
+    moved();
+  }
+
+  //=================================================================================
+  // Function:    remove(int i)
+  // Description: Removes line i. Only its chunk is shifted; an emptied chunk is
+  //              dropped, unless it is the only one.
+  // Input:       int i: line to remove
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Within one chunk -- RL
+  //=================================================================================
+  public void remove(int i)
+  {
+    int k = chunk(i);
+    Chunk c = aChunks[k];
+    int j = i-aStarts[k];
+    c.shift(j+1, -1, iStride);
+    c.n--;
+    n--;
+    c.setFlags(c.n, 0);
+    c.asComments[c.n] = null;
+    for(int m=k+1; m<nChunks; m++) aStarts[m]--;
+    if(c.n == 0 && nChunks > 1)
+    {
+      System.arraycopy(aChunks, k+1, aChunks, k, nChunks-k-1);
+      System.arraycopy(aStarts, k+1, aStarts, k, nChunks-k-1);
+      aChunks[--nChunks] = null;
+    }
+    moved();
+  }
+
+  //=================================================================================
+  // Function:    addAll(GlyphStore g)
+  // Description: Appends every line of g; between beginSource() and endSource()
+  //              they are the source's next lines
+  // Input:       GlyphStore g: lines to append (same glyph size)
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Source lines while streaming -- RL
+  // 2026Oct17 A chunk at a time -- RL
+  //=================================================================================
+  void addAll(GlyphStore g)
+  {
+    for(int k=0; k<g.nChunks; k++)
+    {
+      Chunk gc = g.aChunks[k];
+      int j = 0;
+      while(j < gc.n)
+      {
+        Chunk c = tail();
+        int cnt = Math.min(gc.n-j, CHUNK-c.n);
+        if(c.n+cnt > c.capacity()) c.grow(c.n+cnt, iStride);
+        int iFirst = c.n;
+        c.append(gc, j, cnt, iStride);
+        if(c.aSource != null)
+        {
+          for(int m=0; m<cnt; m++) c.aSource[iFirst+m] = bStreaming ? n+m : -1;
+        }
+        n += cnt;
+        j += cnt;
+      }
+    }
+  }
+
+  //=================================================================================
+  // Function:    appendLine(StringBuilder sb, int i, boolean bLast)
+  // Description: Appends line i as it is written to the 32 bit file
+  // Input:       StringBuilder sb: output; int i: line
+  //              boolean bLast: true if this is the last line of the file
+  // Output:      sb
+  // Returns:     StringBuilder: sb
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  public StringBuilder appendLine(StringBuilder sb, int i, boolean bLast)
+  {
+    Chunk c = at(i);
+    int j = i-iFoundLo;
+    int f = c.flags(j);
+    if((f & F_CHAR) != 0)
+    {
+      String s = c.asComments[j];
+      return FontFormat.appendRecord(sb, c.aWords, j*iStride, iCols, iRows, bLast, (s == null) ? "" : s);
+    }
+    if(f != 0) return sb.append(FontFormat.fixLineEnd(c.asComments[j], bLast));
+    return sb;
+  }
+
+  //=================================================================================
+  // Function:    heapBytes()
+  // Description: Estimate of the heap used, assuming compressed oops and compact
+  //              (Latin-1) strings
+  // Input:       None
+  // Output:      None
+  // Returns:     long: bytes
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Summed over the chunks -- RL
+  //=================================================================================
+  long heapBytes()
+  {
+    long b = 16 + 16L+4L*aChunks.length + 16L+4L*aStarts.length;
+    for(int k=0; k<nChunks; k++)
+    {
+      Chunk c = aChunks[k];
+      b += 16 + 16L+4L*c.aWords.length + 16L+8L*c.aFlags.length + 16L+4L*c.asComments.length;
+      if(c.aSource != null) b += 16L+4L*c.aSource.length;
+      for(int j=0; j<c.n; j++)
+      {
+        if(c.asComments[j] != null) b += 24 + 16 + c.asComments[j].length();
+      }
+    }
+    return b;
+  }
+
+} // class GlyphStore
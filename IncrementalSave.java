@@ -0,0 +1,188 @@
+//==================================================================================
+// File: IncrementalSave.java
+//
+// Description: Save File for the 32 bit font file, writing only what was edited.
+//              Lines that are still, byte for byte, lines of the file they were
+//              read from (FontLines.sourceLine()) are copied from it with
+//              FileChannel.transferTo(), a run of consecutive lines at a time;
+//              only edited and inserted lines are turned back into text, with
+//              appendLine() and the file's own line terminator. Wherever
+//              nothing was edited the new file is the old one, byte for byte,
+//              and saving after a small edit to a large font costs about a file
+//              copy.
+//
+//              The last line is the exception: the last record goes without its
+//              trailing ',', so the old last line is only copied if it is still
+//              last, and the new last line only if it was. Others are written
+//              out as they would be in a full save.
+//
+//              With no source, or a source that has changed on disk since it
+//              was read, every line is written out, as FontFormat.write() does.
+//              The file is written as file+".tmp" and renamed over the target,
+//              so the source may be the target.
+//
+// History:
+// 2026Oct17 Created -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+  //=================================================================================
+  // Class: IncrementalSave
+  // Description: Writes a font file, copying unedited lines from its source
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class IncrementalSave
+{
+  static final int BUFSIZE = 1 << 16;
+
+  // What write() did
+  static final class Result
+  {
+    final FontSource source;   // the file as written
+    final long lCopied;        // bytes copied from the old file
+    final int nWritten;        // lines written out as text
+
+    Result(FontSource source, long lCopied, int nWritten)
+    {
+      this.source = source;
+      this.lCopied = lCopied;
+      this.nWritten = nWritten;
+    }
+  }
+
+  private IncrementalSave()
+  {
+  }
+
+  //=================================================================================
+  // Function:    write(FontLines lines, File fDest)
+  // Description: Writes lines to fDest, copying what it can from lines.source(),
+  //              then makes fDest the lines' source
+  // Input:       FontLines lines: the file contents
+  //              File fDest: where to save; may be the source
+  // Output:      fDest (through fDest+".tmp")
+  // Returns:     Result: the new source and how much was copied
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static Result write(FontLines lines, File fDest) throws IOException
+  {
+    FontSource src = lines.source();
+    if(src != null && !src.current()) src = null;
+    String sNl = (src != null) ? src.newline() : System.lineSeparator();
+    byte[] aNl = sNl.getBytes(StandardCharsets.UTF_8);
+
+    int n = lines.size();
+    long[] aStarts = new long[n];
+    long lPos = 0;
+    long lCopied = 0;
+    int nWritten = 0;
+    boolean bTerminated = true;
+    ByteBuffer buf = ByteBuffer.allocate(BUFSIZE);
+    StringBuilder sb = new StringBuilder(512);
+
+    File fTmp = new File(fDest.getPath()+".tmp");
+    try(FileChannel out = FileChannel.open(fTmp.toPath(), StandardOpenOption.CREATE,
+                                           StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        FileChannel in = (src == null) ? null : FileChannel.open(src.file().toPath(), StandardOpenOption.READ))
+    {
+      int i = 0;
+      while(i < n)
+      {
+        int k = (src == null) ? -1 : lines.sourceLine(i);
+        if(k >= 0 && copyable(src, i, k, n))
+        {
+          // The run of lines that follow one another in the source as well
+          int j = i;
+          while(j+1 < n && lines.sourceLine(j+1) == k+j+1-i && copyable(src, j+1, k+j+1-i, n)) j++;
+          long lFrom = src.start(k);
+          long len = src.end(k+j-i) - lFrom;
+          for(int m=i; m<=j; m++) aStarts[m] = lPos + src.start(k+m-i) - lFrom;
+          flush(out, buf);
+          transfer(in, lFrom, len, out);
+          lPos += len;
+          lCopied += len;
+          bTerminated = src.terminated(k+j-i);
+          i = j+1;
+          continue;
+        }
+
+        aStarts[i] = lPos;
+        sb.setLength(0);
+        lines.appendLine(sb, i, i == n-1);
+        byte[] a = sb.toString().getBytes(StandardCharsets.UTF_8);
+        put(out, buf, a);
+        put(out, buf, aNl);
+        lPos += a.length + aNl.length;
+        nWritten++;
+        bTerminated = true;
+        i++;
+      }
+      flush(out, buf);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+      fTmp.delete();
+      throw ex;
+    }
+    Files.move(fTmp.toPath(), fDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+    FontSource saved = new FontSource(fDest, lPos, fDest.lastModified(), aStarts, n, sNl, bTerminated);
+    lines.setSource(saved);
+    return new Result(saved, lCopied, nWritten);
+
+  } // write()
+
+  // Line i, source line k, may be copied: it is last in both or in neither, so
+  // its trailing ',' is still right
+  private static boolean copyable(FontSource src, int i, int k, int n)
+  {
+    return (i == n-1) == (k == src.lines()-1);
+  }
+
+  // Copies [lFrom, lFrom+len) of in to out
+  private static void transfer(FileChannel in, long lFrom, long len, FileChannel out) throws IOException
+  {
+    while(len > 0)
+    {
+      long t = in.transferTo(lFrom, len, out);
+      if(t <= 0) throw new IOException("source font ended at "+lFrom+" while saving");
+      lFrom += t;
+      len -= t;
+    }
+  }
+
+  // Adds a to the output buffer, writing it out first if a doesn't fit
+  private static void put(FileChannel out, ByteBuffer buf, byte[] a) throws IOException
+  {
+    if(a.length > buf.remaining()) flush(out, buf);
+    if(a.length > buf.capacity())
+    {
+      ByteBuffer b = ByteBuffer.wrap(a);
+      while(b.hasRemaining()) out.write(b);
+      return;
+    }
+    buf.put(a);
+  }
+
+  private static void flush(FileChannel out, ByteBuffer buf) throws IOException
+  {
+    buf.flip();
+    while(buf.hasRemaining()) out.write(buf);
+    buf.clear();
+  }
+
+} // class IncrementalSave
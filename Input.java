@@ -0,0 +1,47 @@
+//==================================================================================
+// File: Input.java
+//
+// Description: The line the States machine reads, a character at a time.
+//
+// History:
+// 2015Dec Created (in CBArray.java) -- RL
+// 2026Oct17 Out of CBArray.java; GlyphParser makes one per line -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // Class: Input
+  // Description: Input for state machine, and the Buf its results go to
+  // Input: 
+  // Output:
+  // Returns:
+  // History:
+  // 2015Dec Created -- RL
+  // 2026Oct17 Fields are per instance rather than static; carries its Buf -- RL
+  //=================================================================================
+class Input {
+    final String input;
+    final Buf buf;
+    private int current;
+    char read()
+    {
+      if(input.length() == 0)
+      {
+        return 0;
+      }
+      else
+      {
+        return input.charAt(current < input.length() ? current++ : current-1);
+      }
+
+    }
+    public char getcur() {return input.charAt(current); }
+    public boolean endofinput() {return current >= input.length(); }
+    public Input(String input, Buf buf)
+    {
+      this.input = input;
+      this.buf = buf;
+      current=0;
+//System.out.println("new Input()");
+    }
+} // class Input
@@ -0,0 +1,497 @@
+//==================================================================================
+// File: MappedFont.java
+//
+// Description: Font file opened without reading it into the heap. The file is
+//              memory-mapped and only a long[] of line start offsets is built
+//              (one pass looking for line terminators); lines are parsed when
+//              they are first asked for. Parsed lines are kept in a bounded LRU
+//              cache, and the lines around the last one read are parsed ahead
+//              on a background thread so stepping through records does not wait
+//              on the parser.
+//
+//              Edits never touch the mapping. A line that is changed, or
+//              inserted, moves to an overlay GlyphStore; the index entry for it
+//              then refers to the overlay instead of the file. Lines that are
+//              never edited are written back exactly as read (with the usual
+//              FontFormat.fixLineEnd()). The line index doubles as the file's
+//              FontSource, so IncrementalSave can copy those lines from the file.
+//
+//              The file must not be rewritten in place while it is open; Save
+//              File writes to a temporary file and renames it over the original.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Glyph rows, for columns of more than one word -- RL
+// 2026Oct17 FontSource and source line of each line -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+  //=================================================================================
+  // Class: MappedFont
+  // Description: Memory-mapped, line indexed, lazily parsed font file
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class MappedFont implements FontLines
+{
+  static final int SEG_SHIFT = 30;                 // map the file 1GB at a time
+  static final long SEG_SIZE = 1L << SEG_SHIFT;
+  static final int CACHE_LINES = 8192;             // parsed lines kept
+  static final int PREFETCH = 32;                  // lines parsed ahead either side
+
+  // Cache entry for a line that did not parse
+  private static final Glyph RAW = new Glyph("", new int[0], false, false);
+
+  private final int iRows;
+  private final int iCols;
+  private final long lLength;
+  private final MappedByteBuffer[] aSegs;
+
+  // Line i is at file offset aLines[i] if that is >= 0, else it is line
+  // -1-aLines[i] of overlay
+  private long[] aLines;
+  private int n;
+  private final GlyphStore overlay;
+
+  // Line i is line aSource[i] of source, -1 once edited
+  private FontSource source;
+  private int[] aSource;
+
+  // Parsed lines by file offset; guarded by itself
+  private final LinkedHashMap<Long, Glyph> cache;
+
+  private final ExecutorService prefetcher;
+  private volatile int iPrefetchGen;
+
+  // Scratch for the caller's thread; the prefetch thread has its own
+  private final LineReader reader = new LineReader();
+
+  //=================================================================================
+  // Class: LineReader
+  // Description: Per thread buffers for pulling a line out of the mapping and
+  //              scanning it
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private final class LineReader
+  {
+    final GlyphScanner sc = new GlyphScanner(iRows);
+    byte[] aBytes = new byte[512];
+    char[] aChars = new char[512];
+
+    //===============================================================================
+    // Function:    parse(long off)
+    // Description: Scans the line starting at file offset off
+    // Input:       long off: start of the line
+    // Output:      None
+    // Returns:     Glyph: the parsed line, RAW if it did not parse
+    // History:
+    // 2026Oct17 Created -- RL
+    //===============================================================================
+    Glyph parse(long off)
+    {
+      int len = bytes(off);
+      char[] aSrc = aChars;
+      if(GlyphScanner.widen(aBytes, 0, len, aChars) < 0)
+      {
+        aSrc = new String(aBytes, 0, len, StandardCharsets.UTF_8).toCharArray();
+        len = aSrc.length;
+      }
+      int[] aWords = new int[overlay.lineWords()];
+      Glyph g = GlyphParser.glyph(sc, sc.scan(aSrc, 0, len, aWords), aWords);
+      return (g == null) ? RAW : g;
+    }
+
+    // Copies the line at off, without its terminator, into aBytes
+    int bytes(long off)
+    {
+      int len = 0;
+      for(long p=off; p<lLength; p++)
+      {
+        byte b = byteAt(p);
+        if(b == '\n' || b == '\r') break;
+        if(len == aBytes.length)
+        {
+          aBytes = Arrays.copyOf(aBytes, 2*len);
+          aChars = new char[2*len];
+        }
+        aBytes[len++] = b;
+      }
+      return len;
+    }
+  } // class LineReader
+
+  private MappedFont(int iRows, int iCols, long lLength, MappedByteBuffer[] aSegs)
+  {
+    this.iRows = iRows;
+    this.iCols = iCols;
+    this.lLength = lLength;
+    this.aSegs = aSegs;
+    this.overlay = new GlyphStore(iRows, iCols);
+    this.cache = new LinkedHashMap<Long, Glyph>(2*CACHE_LINES, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Glyph> e)
+      {
+        return size() > CACHE_LINES;
+      }
+    };
+    this.prefetcher = Executors.newSingleThreadExecutor(r ->
+    {
+      Thread t = new Thread(r, "MappedFont prefetch");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  //=================================================================================
+  // Function:    open(File f, int iRows, int iCols)
+  // Description: Maps f and indexes its lines. Lines end at "\n", "\r\n" or "\r",
+  //              as with Scanner.nextLine().
+  // Input:       File f: font file; int iRows, int iCols: glyph size
+  // Output:      None
+  // Returns:     MappedFont: the open file
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static MappedFont open(File f, int iRows, int iCols) throws IOException
+  {
+    long lModified = f.lastModified();
+    MappedFont mf;
+    try(FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ))
+    {
+      long lLength = ch.size();
+      MappedByteBuffer[] aSegs = new MappedByteBuffer[(int)((lLength + SEG_SIZE-1) >>> SEG_SHIFT)];
+      for(int s=0; s<aSegs.length; s++)
+      {
+        long lPos = (long)s << SEG_SHIFT;
+        aSegs[s] = ch.map(FileChannel.MapMode.READ_ONLY, lPos, Math.min(SEG_SIZE, lLength-lPos));
+      }
+      mf = new MappedFont(iRows, iCols, lLength, aSegs);
+    }
+    mf.index();
+    mf.setSource(mf.source(f, lModified));
+    return mf;
+
+  } // open()
+
+  //=================================================================================
+  // Function:    index()
+  // Description: Builds aLines with one pass over the mapping
+  // Input:       None
+  // Output:      aLines, n
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void index()
+  {
+    long[] a = new long[(int)Math.min(Integer.MAX_VALUE-8, lLength/64 + 16)];
+    int k = 0;
+    if(lLength > 0) a[k++] = 0;
+
+    byte[] aBuf = new byte[1 << 16];
+    for(int s=0; s<aSegs.length; s++)
+    {
+      MappedByteBuffer seg = aSegs[s];
+      long lBase = (long)s << SEG_SHIFT;
+      int iLimit = seg.limit();
+      for(int p=0; p<iLimit; p+=aBuf.length)
+      {
+        int len = Math.min(aBuf.length, iLimit-p);
+        seg.get(p, aBuf, 0, len);
+        for(int j=0; j<len; j++)
+        {
+          byte b = aBuf[j];
+          if(b != '\n' && b != '\r') continue;
+          long lNext = lBase+p+j+1;
+          if(lNext >= lLength) continue;
+          // "\r\n" is one terminator; the line starts after the '\n'
+          if(b == '\r' && byteAt(lNext) == '\n') continue;
+          if(k == a.length) a = Arrays.copyOf(a, k + (k >> 1));
+          a[k++] = lNext;
+        }
+      }
+    }
+    aLines = a;
+    n = k;
+
+  } // index()
+
+  //=================================================================================
+  // Function:    source(File f, long lModified)
+  // Description: The FontSource of the mapped file, from the line index
+  // Input:       File f: the file; long lModified: its modified time when opened
+  // Output:      None
+  // Returns:     FontSource: its lines
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private FontSource source(File f, long lModified)
+  {
+    String sNl = System.lineSeparator();
+    if(n > 0)
+    {
+      long p = aLines[0] + reader.bytes(aLines[0]);
+      if(p < lLength)
+      {
+        boolean bCRLF = byteAt(p) == '\r' && p+1 < lLength && byteAt(p+1) == '\n';
+        sNl = bCRLF ? "\r\n" : (byteAt(p) == '\r') ? "\r" : "\n";
+      }
+    }
+    boolean bTerminated = lLength > 0 && (byteAt(lLength-1) == '\n' || byteAt(lLength-1) == '\r');
+    return new FontSource(f, lLength, lModified, Arrays.copyOf(aLines, n), n, sNl, bTerminated);
+
+  } // source()
+
+  private byte byteAt(long p)
+  {
+    return aSegs[(int)(p >>> SEG_SHIFT)].get((int)(p & (SEG_SIZE-1)));
+  }
+
+  //=================================================================================
+  // Function:    glyph(LineReader r, long off)
+  // Description: The parsed form of the file line at off, from the cache if it
+  //              is there
+  // Input:       LineReader r: scratch for this thread; long off: the line
+  // Output:      None
+  // Returns:     Glyph: the line, RAW if it did not parse
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private Glyph glyph(LineReader r, long off)
+  {
+    Long key = off;
+    Glyph g;
+    synchronized(cache)
+    {
+      g = cache.get(key);
+    }
+    if(g == null)
+    {
+      g = r.parse(off);
+      synchronized(cache)
+      {
+        cache.put(key, g);
+      }
+    }
+    return g;
+
+  } // glyph()
+
+  //=================================================================================
+  // Function:    prefetch(int i)
+  // Description: Parses the lines either side of line i, nearest first, on the
+  //              prefetch thread. A later call abandons what is left of an
+  //              earlier one.
+  // Input:       int i: the line just read
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void prefetch(int i)
+  {
+    // Take the offsets now; aLines is only touched on the caller's thread
+    long[] aOff = new long[2*PREFETCH];
+    int k = 0;
+    for(int d=1; d<=PREFETCH; d++)
+    {
+      if(i+d < n && aLines[i+d] >= 0) aOff[k++] = aLines[i+d];
+      if(i-d >= 0 && aLines[i-d] >= 0) aOff[k++] = aLines[i-d];
+    }
+    final int nOff = k;
+    final int iGen = ++iPrefetchGen;
+    prefetcher.execute(new Runnable()
+    {
+      private final LineReader r = new LineReader();
+
+      @Override
+      public void run()
+      {
+        for(int j=0; j<nOff && iGen == iPrefetchGen; j++) glyph(r, aOff[j]);
+      }
+    });
+
+  } // prefetch()
+
+  // The overlay line for line i, moving line i there first if it is in the file
+  private int overlayLine(int i)
+  {
+    if(aLines[i] < 0) return (int)(-1-aLines[i]);
+    int k = overlay.size();
+    overlay.insert(k, -1);
+    overlay.setLine(k, lineString(aLines[i]));
+    aLines[i] = -1-k;
+    return k;
+  }
+
+  private String lineString(long off)
+  {
+    int len = reader.bytes(off);
+    return new String(reader.aBytes, 0, len, StandardCharsets.UTF_8);
+  }
+
+  public int size() { return n; }
+  public int rows() { return iRows; }
+  public int cols() { return iCols; }
+
+  public FontSource source() { return source; }
+  public int sourceLine(int i) { return (aSource == null) ? -1 : aSource[i]; }
+
+  public void setSource(FontSource src)
+  {
+    if(src == null || src.lines() != n)
+    {
+      source = null;
+      aSource = null;
+      return;
+    }
+    source = src;
+    aSource = new int[aLines.length];
+    for(int i=0; i<n; i++) aSource[i] = i;
+  }
+
+  public int flags(int i)
+  {
+    if(aLines[i] < 0) return overlay.flags((int)(-1-aLines[i]));
+    Glyph g = glyph(reader, aLines[i]);
+    if(g == RAW) return F_RAW;
+    if(g.commentPresent()) return F_COMMENT;
+    if(g.characterPresent()) return F_CHAR;
+    return 0;
+  }
+
+  public boolean characterPresent(int i)
+  {
+    return (flags(i) & F_CHAR) != 0;
+  }
+
+  public String comment(int i)
+  {
+    if(aLines[i] < 0) return overlay.comment((int)(-1-aLines[i]));
+    Glyph g = glyph(reader, aLines[i]);
+    return (g == RAW) ? lineString(aLines[i]) : g.comment();
+  }
+
+  public int[] copyWords(int i, int[] aDest)
+  {
+    if(aLines[i] < 0) return overlay.copyWords((int)(-1-aLines[i]), aDest);
+    Glyph g = glyph(reader, aLines[i]);
+    if(g == RAW) Arrays.fill(aDest, 0, overlay.lineWords(), 0);
+    else g.copyWords(aDest);
+    return aDest;
+  }
+
+  public void read(int i, CharBuf cb)
+  {
+    if(aLines[i] < 0)
+    {
+      overlay.read((int)(-1-aLines[i]), cb);
+    }
+    else
+    {
+      Glyph g = glyph(reader, aLines[i]);
+      copyWords(i, cb.aEncoding);
+      cb.bCommentPresent = g.commentPresent();
+      cb.bCharacterPresent = g.characterPresent();
+      cb.sComment = g.comment();
+    }
+    prefetch(i);
+  }
+
+  // Setting an unedited line to the record it already holds leaves it unedited
+  public void set(int i, int[] aSrc, String sComment)
+  {
+    if(aLines[i] >= 0 && holds(glyph(reader, aLines[i]), aSrc, sComment)) return;
+    overlay.set(overlayLine(i), aSrc, sComment);
+    if(aSource != null) aSource[i] = -1;
+  }
+
+  private boolean holds(Glyph g, int[] aSrc, String sComment)
+  {
+    if(g == RAW || !g.characterPresent() || !g.comment().equals(sComment == null ? "" : sComment)) return false;
+    for(int k=0; k<g.words(); k++) if(g.word(k) != aSrc[k]) return false;
+    return true;
+  }
+
+  public boolean setLine(int i, String sLine)
+  {
+    if(aSource != null) aSource[i] = -1;
+    return overlay.setLine(overlayLine(i), sLine);
+  }
+
+  //=================================================================================
+  // Function:    insert(int i, int iCopyOf)
+  // Description: Inserts a line before line i. A copy of an unedited line shares
+  //              its file offset; anything else gets a new overlay line.
+  // Input:       int i: where to insert
+  //              int iCopyOf: line to copy (index before the insert), or -1
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  public void insert(int i, int iCopyOf)
+  {
+    long v;
+    if(iCopyOf >= 0 && aLines[iCopyOf] >= 0)
+    {
+      v = aLines[iCopyOf];
+    }
+    else
+    {
+      int k = overlay.size();
+      overlay.insert(k, iCopyOf >= 0 ? (int)(-1-aLines[iCopyOf]) : -1);
+      v = -1-k;
+    }
+    if(n == aLines.length) aLines = Arrays.copyOf(aLines, n + (n >> 1) + 16);
+    System.arraycopy(aLines, i, aLines, i+1, n-i);
+    aLines[i] = v;
+    if(aSource != null)
+    {
+      // A copy is the same source line as what it copies, even from the overlay
+      int iSrc = (iCopyOf >= 0) ? aSource[iCopyOf] : -1;
+      if(aSource.length < aLines.length) aSource = Arrays.copyOf(aSource, aLines.length);
+      System.arraycopy(aSource, i, aSource, i+1, n-i);
+      aSource[i] = iSrc;
+    }
+    n++;
+
+  } // insert()
+
+  // The overlay line of a removed line is left unused until the file is closed
+  public void remove(int i)
+  {
+    System.arraycopy(aLines, i+1, aLines, i, n-i-1);
+    if(aSource != null) System.arraycopy(aSource, i+1, aSource, i, n-i-1);
+    n--;
+  }
+
+  public StringBuilder appendLine(StringBuilder sb, int i, boolean bLast)
+  {
+    if(aLines[i] < 0) return overlay.appendLine(sb, (int)(-1-aLines[i]), bLast);
+    return sb.append(FontFormat.fixLineEnd(lineString(aLines[i]), bLast));
+  }
+
+  public void close()
+  {
+    prefetcher.shutdownNow();
+  }
+
+} // class MappedFont
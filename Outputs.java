@@ -0,0 +1,201 @@
+//==================================================================================
+// File: Outputs.java
+//
+// Description: The files one pass over a font writes. Each output is a file and
+//              the GlyphEncoder writing it; the encoders are fed together
+//              (encoders()), and finish() ends them and puts the files in place.
+//              Every file is written as file+".tmp" and renamed over the target
+//              only when the whole pass has gone through, so the font being read
+//              may be one of the outputs and a failed pass leaves nothing half
+//              written: close() deletes whatever wasn't moved.
+//
+// History:
+// 2026Oct17 Created (from the temporary file handling of FontConv.convert() and
+//           CBArray.saveFileExport()) -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+  //=================================================================================
+  // Class: Outputs
+  // Description: Encoders and their temporary files, moved into place together
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class Outputs implements Closeable
+{
+  // A format written as text (UTF-8), e.g. (w) -> new TrimWriter(w, ...)
+  interface TextFormat
+  {
+    GlyphEncoder open(Writer w) throws IOException;
+  }
+
+  // A format written as bytes, e.g. (ch) -> new BlobWriter(ch, ...)
+  interface BinaryFormat
+  {
+    GlyphEncoder open(FileChannel ch) throws IOException;
+  }
+
+  private final boolean bReportFiles;
+  private final List<File> aFiles = new ArrayList<>();
+  private final List<File> aTmps = new ArrayList<>();
+  private final List<Closeable> aStreams = new ArrayList<>();
+  private final List<GlyphEncoder> aEncoders = new ArrayList<>();
+  private int nMoved;
+
+  // bReportFiles: finish() also writes each report to file+".txt"
+  Outputs(boolean bReportFiles)
+  {
+    this.bReportFiles = bReportFiles;
+  }
+
+  //=================================================================================
+  // Function:    text(File f, TextFormat fmt)
+  // Description: Adds a text output
+  // Input:       File f: where it goes
+  //              TextFormat fmt: makes its encoder, given the writer
+  // Output:      f+".tmp" created
+  // Returns:     GlyphEncoder: the encoder; if making it throws (a size the format
+  //              can't take), the temporary file is removed and nothing is added
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  GlyphEncoder text(File f, TextFormat fmt) throws IOException
+  {
+    File fTmp = new File(f.getPath()+".tmp");
+    Writer w = new BufferedWriter(new OutputStreamWriter(
+      new FileOutputStream(fTmp), StandardCharsets.UTF_8), FontConv.BUFSIZE);
+    GlyphEncoder e;
+    try
+    {
+      e = fmt.open(w);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+      w.close();
+      fTmp.delete();
+      throw ex;
+    }
+    return add(f, fTmp, w, e);
+
+  } // text()
+
+  //=================================================================================
+  // Function:    binary(File f, BinaryFormat fmt)
+  // Description: Adds a binary output
+  // Input:       File f: where it goes
+  //              BinaryFormat fmt: makes its encoder, given the channel
+  // Output:      f+".tmp" created
+  // Returns:     GlyphEncoder: the encoder; as text() if making it throws
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  GlyphEncoder binary(File f, BinaryFormat fmt) throws IOException
+  {
+    File fTmp = new File(f.getPath()+".tmp");
+    FileChannel ch = FileChannel.open(fTmp.toPath(), StandardOpenOption.CREATE,
+                                      StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    GlyphEncoder e;
+    try
+    {
+      e = fmt.open(ch);
+    }
+    catch(IOException | RuntimeException ex)
+    {
+      ch.close();
+      fTmp.delete();
+      throw ex;
+    }
+    return add(f, fTmp, ch, e);
+
+  } // binary()
+
+  private GlyphEncoder add(File f, File fTmp, Closeable c, GlyphEncoder e)
+  {
+    aFiles.add(f);
+    aTmps.add(fTmp);
+    aStreams.add(c);
+    aEncoders.add(e);
+    return e;
+  }
+
+  // The encoders, in the order added, to feed every line to
+  GlyphEncoder[] encoders()
+  {
+    return aEncoders.toArray(new GlyphEncoder[0]);
+  }
+
+  int size() { return aEncoders.size(); }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Ends every encoder, closes the files and moves them into place,
+  //              then writes the reports
+  // Input:       None
+  // Output:      The output files, and their reports with bReportFiles
+  // Returns:     String: the reports, in the order the outputs were added
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  String finish() throws IOException
+  {
+    int n = aEncoders.size();
+    String[] aReports = new String[n];
+    for(int i=0; i<n; i++) aReports[i] = aEncoders.get(i).finish();
+    for(Closeable c : aStreams) c.close();
+    for(; nMoved<n; nMoved++)
+    {
+      Files.move(aTmps.get(nMoved).toPath(), aFiles.get(nMoved).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    StringBuilder sb = new StringBuilder(1024);
+    for(int i=0; i<n; i++)
+    {
+      if(aReports[i] == null) continue;
+      if(bReportFiles)
+      {
+        Files.write(new File(aFiles.get(i).getPath()+".txt").toPath(),
+                    aReports[i].getBytes(StandardCharsets.UTF_8));
+      }
+      sb.append(aReports[i]);
+    }
+    return sb.toString();
+
+  } // finish()
+
+  // Closes the files; any not yet moved into place are deleted
+  @Override
+  public void close()
+  {
+    for(Closeable c : aStreams)
+    {
+      try
+      {
+        c.close();
+      }
+      catch(IOException ex)
+      {
+        // Closed by finish() already, or being thrown away
+      }
+    }
+    for(int i=nMoved; i<aTmps.size(); i++) aTmps.get(i).delete();
+  }
+
+} // class Outputs
@@ -0,0 +1,340 @@
+//==================================================================================
+// File: ParallelLoader.java
+//
+// Description: Loads a whole font file in parallel. The file is memory-mapped,
+//              split into chunks that each end on a line boundary, and the chunks
+//              are parsed on the common ForkJoinPool, each copied out of the
+//              mapping on its own; the file as a whole is never on the heap.
+//              Results are merged back in file order, with the line number of
+//              every line that would not parse.
+//
+//              Lines end at "\n", "\r\n" or "\r", as with Scanner.nextLine().
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Chunks parse into GlyphStores, merged in file order -- RL
+// 2026Oct17 Glyph rows, for columns of more than one word -- RL
+// 2026Oct17 The store gets the file as its FontSource -- RL
+// 2026Oct17 ParseTask serialVersionUID -- RL
+// 2026Oct17 Parses the mapped file a chunk at a time rather than reading it
+//           all into a byte[]; chunks may end after a lone '\r' -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+  //=================================================================================
+  // Class: ParallelLoader
+  // Description: Fork/join font file loader
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class ParallelLoader
+{
+  static final int CHUNK = 1 << 18;   // target chunk size in bytes
+
+  //=================================================================================
+  // Class: Result
+  // Description: The parsed lines of the file, and the 1-based numbers of the
+  //              lines that did not parse
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 GlyphStore rather than a List of LineBufs -- RL
+  //=================================================================================
+  static final class Result
+  {
+    final GlyphStore store;
+    final int[] aBadLines;
+
+    Result(GlyphStore store, int[] aBadLines)
+    {
+      this.store = store;
+      this.aBadLines = aBadLines;
+    }
+  } // class Result
+
+  // One newline aligned piece of the file, and what parsing it produced
+  private static final class Chunk
+  {
+    final long lStart;
+    final long lEnd;
+    GlyphStore store;
+    int[] aBad;       // indexes into store
+    int nBad;
+    int[] aLines;     // start of each line in store, from lStart
+
+    Chunk(long lStart, long lEnd)
+    {
+      this.lStart = lStart;
+      this.lEnd = lEnd;
+    }
+  } // class Chunk
+
+  private ParallelLoader()
+  {
+  }
+
+  //=================================================================================
+  // Function:    load(File f, int iRows, int iCols)
+  // Description: Maps and parses f
+  // Input:       File f: font file
+  //              int iRows, int iCols: glyph size
+  // Output:      None
+  // Returns:     Result: lines in file order, with f as their source, and the
+  //              lines that did not parse
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Sets the store's source -- RL
+  // 2026Oct17 Mapped, in MappedFont's segments, not read; the source comes
+  //           from the line starts the chunks found -- RL
+  //=================================================================================
+  static Result load(File f, int iRows, int iCols) throws IOException
+  {
+    long lModified = f.lastModified();
+    MappedByteBuffer[] aSegs;
+    long lLength;
+    try(FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ))
+    {
+      lLength = ch.size();
+      aSegs = new MappedByteBuffer[(int)((lLength + MappedFont.SEG_SIZE-1) >>> MappedFont.SEG_SHIFT)];
+      for(int s=0; s<aSegs.length; s++)
+      {
+        long lPos = (long)s << MappedFont.SEG_SHIFT;
+        aSegs[s] = ch.map(FileChannel.MapMode.READ_ONLY, lPos, Math.min(MappedFont.SEG_SIZE, lLength-lPos));
+      }
+    }
+    List<Chunk> chunks = split(aSegs, lLength, CHUNK);
+    ForkJoinPool.commonPool().invoke(new ParseTask(aSegs, chunks, 0, chunks.size(), iRows, iCols));
+
+    int n = 0;
+    int nBad = 0;
+    for(Chunk c : chunks)
+    {
+      n += c.store.size();
+      nBad += c.nBad;
+    }
+    GlyphStore store = new GlyphStore(iRows, iCols, n);
+    int[] aBadLines = new int[nBad];
+    long[] aStarts = new long[n];
+    nBad = 0;
+    for(Chunk c : chunks)
+    {
+      for(int i=0; i<c.nBad; i++) aBadLines[nBad++] = store.size()+c.aBad[i]+1;
+      for(int i=0; i<c.store.size(); i++) aStarts[store.size()+i] = c.lStart+c.aLines[i];
+      store.addAll(c.store);
+      c.store = null;
+      c.aLines = null;
+    }
+    store.setSource(source(f, aSegs, lLength, lModified, aStarts));
+    return new Result(store, aBadLines);
+
+  } // load()
+
+  private static byte byteAt(MappedByteBuffer[] aSegs, long p)
+  {
+    return aSegs[(int)(p >>> MappedFont.SEG_SHIFT)].get((int)(p & (MappedFont.SEG_SIZE-1)));
+  }
+
+  // True if a chunk may end at p: just after a '\n', or after a '\r' that does
+  // not start a "\r\n"
+  private static boolean lineEnd(MappedByteBuffer[] aSegs, long lLength, long p)
+  {
+    if(p >= lLength) return true;
+    byte b = byteAt(aSegs, p-1);
+    return b == '\n' || (b == '\r' && byteAt(aSegs, p) != '\n');
+  }
+
+  //=================================================================================
+  // Function:    split(MappedByteBuffer[] aSegs, long lLength, int iTarget)
+  // Description: Splits the file into chunks of about iTarget bytes, each ending
+  //              just after a line terminator (or at the end of the file)
+  // Input:       MappedByteBuffer[] aSegs: the file; long lLength: its length
+  //              int iTarget: chunk size to aim for
+  // Output:      None
+  // Returns:     List<Chunk>: the chunks, in order
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Of the mapped file; a lone '\r' ends a chunk too -- RL
+  //=================================================================================
+  private static List<Chunk> split(MappedByteBuffer[] aSegs, long lLength, int iTarget)
+    throws IOException
+  {
+    List<Chunk> chunks = new ArrayList<Chunk>((int)Math.min(Integer.MAX_VALUE-8, lLength/iTarget + 1));
+    long lStart = 0;
+    while(lStart < lLength)
+    {
+      long lEnd = Math.min(lLength, lStart+iTarget);
+      while(!lineEnd(aSegs, lLength, lEnd)) lEnd++;
+      // A chunk is parsed from one byte[]
+      if(lEnd-lStart > Integer.MAX_VALUE-8) throw new IOException("line too long at "+lStart);
+      chunks.add(new Chunk(lStart, lEnd));
+      lStart = lEnd;
+    }
+    return chunks;
+
+  } // split()
+
+  //=================================================================================
+  // Function:    source(File f, MappedByteBuffer[] aSegs, long lLength,
+  //                     long lModified, long[] aStarts)
+  // Description: The FontSource of the file, from the line starts the chunks
+  //              found, as MappedFont.source() makes it
+  // Input:       File f: the file; MappedByteBuffer[] aSegs: its mapping
+  //              long lLength: its length; long lModified: its modified time
+  //              before it was mapped; long[] aStarts: start of every line
+  // Output:      None
+  // Returns:     FontSource: its lines
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static FontSource source(File f, MappedByteBuffer[] aSegs, long lLength, long lModified,
+                                   long[] aStarts)
+  {
+    // The file's terminator is the one ending its first line
+    String sNl = System.lineSeparator();
+    long p = 0;
+    while(p < lLength && byteAt(aSegs, p) != '\n' && byteAt(aSegs, p) != '\r') p++;
+    if(p < lLength)
+    {
+      boolean bCRLF = byteAt(aSegs, p) == '\r' && p+1 < lLength && byteAt(aSegs, p+1) == '\n';
+      sNl = bCRLF ? "\r\n" : (byteAt(aSegs, p) == '\r') ? "\r" : "\n";
+    }
+    boolean bTerminated = lLength > 0 && (byteAt(aSegs, lLength-1) == '\n' || byteAt(aSegs, lLength-1) == '\r');
+    return new FontSource(f, lLength, lModified, aStarts, aStarts.length, sNl, bTerminated);
+
+  } // source()
+
+  //=================================================================================
+  // Class: ParseTask
+  // Description: Parses a range of chunks, halving it until one chunk is left
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private static final class ParseTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final MappedByteBuffer[] aSegs;
+    private final List<Chunk> chunks;
+    private final int lo;
+    private final int hi;
+    private final int iRows;
+    private final int iCols;
+
+    ParseTask(MappedByteBuffer[] aSegs, List<Chunk> chunks, int lo, int hi, int iRows, int iCols)
+    {
+      this.aSegs = aSegs;
+      this.chunks = chunks;
+      this.lo = lo;
+      this.hi = hi;
+      this.iRows = iRows;
+      this.iCols = iCols;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if(hi - lo > 1)
+      {
+        int mid = (lo+hi) >>> 1;
+        invokeAll(new ParseTask(aSegs, chunks, lo, mid, iRows, iCols),
+                  new ParseTask(aSegs, chunks, mid, hi, iRows, iCols));
+      }
+      else if(hi > lo)
+      {
+        parseChunk(aSegs, chunks.get(lo), iRows, iCols);
+      }
+    }
+  } // class ParseTask
+
+  //=================================================================================
+  // Function:    parseChunk(MappedByteBuffer[] aSegs, Chunk c, int iRows, int iCols)
+  // Description: Copies one chunk out of the mapping, splits it into lines and
+  //              scans each of them
+  // Input:       MappedByteBuffer[] aSegs: the file; Chunk c: the chunk
+  //              int iRows, int iCols: glyph size
+  // Output:      c.store, c.aBad, c.nBad, c.aLines
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 Scans straight into a GlyphStore -- RL
+  // 2026Oct17 From the mapping; keeps where each line starts -- RL
+  //=================================================================================
+  private static void parseChunk(MappedByteBuffer[] aSegs, Chunk c, int iRows, int iCols)
+  {
+    // The chunk may straddle two segments
+    int iEnd = (int)(c.lEnd-c.lStart);
+    byte[] a = new byte[iEnd];
+    for(int k=0; k<iEnd; )
+    {
+      long p = c.lStart+k;
+      MappedByteBuffer seg = aSegs[(int)(p >>> MappedFont.SEG_SHIFT)];
+      int off = (int)(p & (MappedFont.SEG_SIZE-1));
+      int len = Math.min(iEnd-k, seg.limit()-off);
+      seg.get(off, a, k, len);
+      k += len;
+    }
+
+    char[] aChars = new char[256];
+    // Records are rarely under 64 bytes; start near the final size
+    GlyphStore store = new GlyphStore(iRows, iCols, iEnd/64 + 1);
+    int[] aBad = new int[8];
+    int nBad = 0;
+    int[] aLines = new int[iEnd/64 + 1];
+
+    int p = 0;
+    while(p < iEnd)
+    {
+      int q = p;
+      while(q < iEnd && a[q] != '\n' && a[q] != '\r') q++;
+
+      char[] aSrc;
+      int len = q-p;
+      if(aChars.length < len) aChars = new char[Math.max(len, 2*aChars.length)];
+      if(GlyphScanner.widen(a, p, len, aChars) >= 0)
+      {
+        aSrc = aChars;
+      }
+      else
+      {
+        aSrc = new String(a, p, len, StandardCharsets.UTF_8).toCharArray();
+        len = aSrc.length;
+      }
+
+      if(store.size() == aLines.length) aLines = Arrays.copyOf(aLines, 2*aLines.length);
+      aLines[store.size()] = p;
+      if(!store.add(aSrc, 0, len))
+      {
+        if(nBad == aBad.length) aBad = Arrays.copyOf(aBad, 2*nBad);
+        aBad[nBad++] = store.size()-1;
+      }
+
+      // Step over the line terminator
+      if(q < iEnd)
+      {
+        if(a[q] == '\r' && q+1 < iEnd && a[q+1] == '\n') q += 2;
+        else q++;
+      }
+      p = q;
+    }
+    c.store = store;
+    c.aBad = aBad;
+    c.nBad = nBad;
+    c.aLines = aLines;
+
+  } // parseChunk()
+
+} // class ParallelLoader
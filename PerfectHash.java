@@ -0,0 +1,177 @@
+//==================================================================================
+// File: PerfectHash.java
+//
+// Description: Perfect hash of a set of codepoints (hash and displace): a first
+//              hash puts each key in one of about n/4 buckets; every bucket then
+//              gets a displacement d, the smallest for which the second hash,
+//              seeded with d, sends each of its keys to a slot no other key
+//              has. Buckets are placed largest first, while the table is still
+//              empty. A lookup is then two hashes and one compare against the
+//              key stored in the slot, whatever the size of the font:
+//
+//                slot = mix(cp ^ seed(disp[mix(cp) % buckets])) % slots
+//
+//              with mix() the 32 bit finalizer below and seed(d) = (d+1) *
+//              0x9e3779b9, all in unsigned 32 bit arithmetic so the firmware
+//              gets the same numbers. The table has about n*10/9 slots, so
+//              there is always room; if some bucket needs a displacement past
+//              MAXDISP the table is made larger and built again.
+//
+// History:
+// 2026Oct17 Created -- RL
+//==================================================================================
+package cbarray;
+
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: PerfectHash
+  // Description: Hash and displace perfect hash over int keys
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class PerfectHash
+{
+  static final int MAXDISP = 0xffff;        // displacements fit a uint16_t
+  static final int KEYS_PER_BUCKET = 4;
+
+  private final int nBuckets;
+  private final int nSlots;
+  private final int[] aDisp;
+  private final int[] aSlots;              // key index in each slot, or -1
+  private int iMaxDisp;
+
+  //=================================================================================
+  // Function:    PerfectHash(int[] aKeys, int n)
+  // Description: Builds the hash of n distinct keys
+  // Input:       int[] aKeys: the keys, in [0, n)
+  //              int n: number of keys
+  // Output:      None
+  // Returns:     None; throws IllegalArgumentException for repeated keys
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  PerfectHash(int[] aKeys, int n)
+  {
+    int nBuckets = Math.max(1, (n + KEYS_PER_BUCKET-1)/KEYS_PER_BUCKET);
+    int nSlots = Math.max(1, n + n/9 + 1);
+    int[] aDisp = new int[nBuckets];
+    int[] aSlots = new int[nSlots];
+
+    // Keys grouped by bucket, biggest bucket first
+    int[] aCount = new int[nBuckets+1];
+    int[] aBucketOf = new int[n];
+    for(int i=0; i<n; i++)
+    {
+      aBucketOf[i] = Integer.remainderUnsigned(mix(aKeys[i]), nBuckets);
+      aCount[aBucketOf[i]+1]++;
+    }
+    long[] aOrder = new long[nBuckets];
+    for(int b=0; b<nBuckets; b++) aOrder[b] = ((long)(n - aCount[b+1]) << 32) | b;
+    Arrays.sort(aOrder);
+    for(int b=0; b<nBuckets; b++) aCount[b+1] += aCount[b];
+    int[] aMembers = new int[n];
+    int[] aFill = Arrays.copyOf(aCount, nBuckets);
+    for(int i=0; i<n; i++) aMembers[aFill[aBucketOf[i]]++] = i;
+
+    int[] aTry = new int[64];
+    while(!place(aKeys, aOrder, aCount, aMembers, aDisp, aSlots, aTry))
+    {
+      nSlots += nSlots/8 + 1;
+      aSlots = new int[nSlots];
+    }
+    this.nBuckets = nBuckets;
+    this.nSlots = nSlots;
+    this.aDisp = aDisp;
+    this.aSlots = aSlots;
+
+  } // PerfectHash()
+
+  // Places every bucket, largest first; false if one won't go with any
+  // displacement up to MAXDISP
+  private boolean place(int[] aKeys, long[] aOrder, int[] aCount, int[] aMembers,
+                        int[] aDisp, int[] aSlots, int[] aTry)
+  {
+    int nSlots = aSlots.length;
+    Arrays.fill(aSlots, -1);
+    iMaxDisp = 0;
+    for(long l : aOrder)
+    {
+      int b = (int)l;
+      int i0 = aCount[b];
+      int nIn = aCount[b+1] - i0;
+      if(nIn == 0) break;
+      if(aTry.length < nIn) aTry = new int[nIn];
+
+      int d = 0;
+      for(; d<=MAXDISP; d++)
+      {
+        int seed = seed(d);
+        int j = 0;
+        for(; j<nIn; j++)
+        {
+          int s = Integer.remainderUnsigned(mix(aKeys[aMembers[i0+j]] ^ seed), nSlots);
+          if(aSlots[s] >= 0) break;
+          int q = 0;
+          while(q < j && aTry[q] != s) q++;
+          if(q < j)
+          {
+            if(aKeys[aMembers[i0+q]] == aKeys[aMembers[i0+j]])
+            {
+              throw new IllegalArgumentException("key "+aKeys[aMembers[i0+j]]+" is repeated");
+            }
+            break;
+          }
+          aTry[j] = s;
+        }
+        if(j == nIn) break;
+      }
+      if(d > MAXDISP) return false;
+
+      aDisp[b] = d;
+      iMaxDisp = Math.max(iMaxDisp, d);
+      for(int j=0; j<nIn; j++) aSlots[aTry[j]] = aMembers[i0+j];
+    }
+    return true;
+
+  } // place()
+
+  // 32 bit finalizer; the firmware's copy must match
+  static int mix(int x)
+  {
+    x ^= x >>> 16;
+    x *= 0x7feb352d;
+    x ^= x >>> 15;
+    x *= 0x846ca68b;
+    x ^= x >>> 16;
+    return x;
+  }
+
+  static int seed(int d) { return (d+1) * 0x9e3779b9; }
+
+  int buckets() { return nBuckets; }
+  int slots() { return nSlots; }
+  int disp(int b) { return aDisp[b]; }
+  int key(int s) { return aSlots[s]; }          // key index in slot s, or -1
+  int maxDisp() { return iMaxDisp; }
+
+  //=================================================================================
+  // Function:    slot(int key)
+  // Description: Reference lookup, as the firmware does it
+  // Input:       int key: any key
+  // Output:      None
+  // Returns:     int: the only slot the key can be in
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  int slot(int key)
+  {
+    int d = aDisp[Integer.remainderUnsigned(mix(key), nBuckets)];
+    return Integer.remainderUnsigned(mix(key ^ seed(d)), nSlots);
+
+  } // slot()
+
+} // class PerfectHash
@@ -0,0 +1,255 @@
+//==================================================================================
+// File: PixelGrid.java
+//
+// Description: The 'pixel' grid of the editor as one component. The pixels are a
+//              bit array painted directly; mouse presses and drags are hit-tested
+//              here, and only the cells that change are repainted. Replaces the
+//              rows*cols JToggleButtons (and their icon files) CBArray used.
+//
+//              Pressing on a pixel toggles it; dragging from there paints every
+//              cell passed over with the value the first pixel took, so a stroke
+//              either sets or clears pixels.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 load() takes columns of more than one word, for up to 64 rows -- RL
+// 2026Oct17 Presses are ignored while the grid is disabled -- RL
+// 2026Oct17 serialVersionUID -- RL
+//==================================================================================
+package cbarray;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JComponent;
+
+  //=================================================================================
+  // Class: PixelGrid
+  // Description: Custom painted, mouse editable grid of rows x cols pixels
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class PixelGrid extends JComponent
+{
+  private static final long serialVersionUID = 1L;
+
+  // Told of every pixel the user changes (not of changes made through set/load)
+  interface Listener
+  {
+    void pixelChanged(int row, int col, boolean bOn);
+  }
+
+  static final Color ON = Color.BLACK;
+  static final Color OFF = Color.WHITE;
+  static final Color LINE = new Color(0xc0c0c0);
+
+  private final int iRows;
+  private final int iCols;
+  private final int iCell;            // cell size in pixels, grid line included
+  private final long[] aBits;         // pixel (row, col) is bit col*rows+row
+  private Listener listener;
+
+  // Drag state
+  private boolean bPaintOn;
+  private int iLastRow = -1;
+  private int iLastCol = -1;
+
+  //=================================================================================
+  // Function:    PixelGrid(int iRows, int iCols)
+  // Description: Empty grid; cells are 15 pixels up to 32x32 and shrink (to no
+  //              less than 5) so larger grids still fit on screen
+  // Input:       int iRows, int iCols: size of the grid
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  PixelGrid(int iRows, int iCols)
+  {
+    this.iRows = iRows;
+    this.iCols = iCols;
+    this.iCell = Math.max(5, Math.min(15, 480/Math.max(iRows, iCols)));
+    this.aBits = new long[(iRows*iCols + 63) >>> 6];
+    setOpaque(true);
+
+    MouseAdapter ma = new MouseAdapter()
+    {
+      @Override
+      public void mousePressed(MouseEvent e)
+      {
+        if(!isEnabled()) return;
+        int row = e.getY() / iCell;
+        int col = e.getX() / iCell;
+        if(row < 0 || row >= iRows || col < 0 || col >= iCols) return;
+        bPaintOn = !get(row, col);
+        iLastRow = row;
+        iLastCol = col;
+        change(row, col, bPaintOn);
+      }
+
+      @Override
+      public void mouseDragged(MouseEvent e)
+      {
+        if(iLastRow < 0) return;
+        int row = Math.max(0, Math.min(iRows-1, e.getY() / iCell));
+        int col = Math.max(0, Math.min(iCols-1, e.getX() / iCell));
+        stroke(iLastRow, iLastCol, row, col);
+        iLastRow = row;
+        iLastCol = col;
+      }
+
+      @Override
+      public void mouseReleased(MouseEvent e)
+      {
+        iLastRow = -1;
+      }
+    };
+    addMouseListener(ma);
+    addMouseMotionListener(ma);
+  }
+
+  void setListener(Listener l) { listener = l; }
+  int rows() { return iRows; }
+  int cols() { return iCols; }
+
+  boolean get(int row, int col)
+  {
+    int b = col*iRows + row;
+    return (aBits[b >>> 6] & (1L << b)) != 0;
+  }
+
+  // Sets one pixel without telling the listener
+  void set(int row, int col, boolean bOn)
+  {
+    if(get(row, col) == bOn) return;
+    int b = col*iRows + row;
+    aBits[b >>> 6] ^= 1L << b;
+    repaint(col*iCell, row*iCell, iCell, iCell);
+  }
+
+  //=================================================================================
+  // Function:    load(int[] aColumns)
+  // Description: Shows a record: bit r of column c is pixel (r, c), with rows 32
+  //              on in each column's second word (Geometry.column()). The
+  //              listener is not told.
+  // Input:       int[] aColumns: column words, Geometry.wordsPerColumn(rows) a
+  //              column
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  void load(int[] aColumns)
+  {
+    java.util.Arrays.fill(aBits, 0);
+    int iWpc = Geometry.wordsPerColumn(iRows);
+    for(int col=0; col<iCols; col++)
+    {
+      long code = Geometry.column(aColumns, col*iWpc, iWpc);
+      for(int row=0; row<iRows; row++)
+      {
+        if(((code >>> row) & 1) != 0)
+        {
+          int b = col*iRows + row;
+          aBits[b >>> 6] |= 1L << b;
+        }
+      }
+    }
+    repaint();
+
+  } // load()
+
+  // Sets one pixel as the user did, telling the listener
+  private void change(int row, int col, boolean bOn)
+  {
+    if(get(row, col) == bOn) return;
+    set(row, col, bOn);
+    if(listener != null) listener.pixelChanged(row, col, bOn);
+  }
+
+  //=================================================================================
+  // Function:    stroke(int r0, int c0, int r1, int c1)
+  // Description: Paints the cells on the line between two drag positions, so a
+  //              fast drag does not leave gaps
+  // Input:       r0, c0: last position; r1, c1: new position
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  private void stroke(int r0, int c0, int r1, int c1)
+  {
+    int dr = Math.abs(r1-r0);
+    int dc = Math.abs(c1-c0);
+    int sr = (r0 < r1) ? 1 : -1;
+    int sc = (c0 < c1) ? 1 : -1;
+    int err = dc - dr;
+    for(;;)
+    {
+      change(r0, c0, bPaintOn);
+      if(r0 == r1 && c0 == c1) break;
+      int e2 = 2*err;
+      if(e2 > -dr) { err -= dr; c0 += sc; }
+      if(e2 < dc) { err += dc; r0 += sr; }
+    }
+
+  } // stroke()
+
+  @Override
+  public Dimension getPreferredSize()
+  {
+    return new Dimension(iCols*iCell + 1, iRows*iCell + 1);
+  }
+
+  @Override
+  public Dimension getMinimumSize()
+  {
+    return getPreferredSize();
+  }
+
+  @Override
+  public Dimension getMaximumSize()
+  {
+    return getPreferredSize();
+  }
+
+  //=================================================================================
+  // Function:    paintComponent(Graphics g)
+  // Description: Paints only the cells inside the clip
+  // Input:       Graphics g
+  // Output:      None
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  protected void paintComponent(Graphics g)
+  {
+    Rectangle clip = g.getClipBounds();
+    if(clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+    int c0 = Math.max(0, clip.x / iCell);
+    int c1 = Math.min(iCols-1, (clip.x + clip.width) / iCell);
+    int r0 = Math.max(0, clip.y / iCell);
+    int r1 = Math.min(iRows-1, (clip.y + clip.height) / iCell);
+
+    g.setColor(LINE);
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+    for(int col=c0; col<=c1; col++)
+    {
+      for(int row=r0; row<=r1; row++)
+      {
+        g.setColor(get(row, col) ? ON : OFF);
+        g.fillRect(col*iCell + 1, row*iCell + 1, iCell - 1, iCell - 1);
+      }
+    }
+
+  } // paintComponent()
+
+} // class PixelGrid
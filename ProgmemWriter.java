@@ -0,0 +1,253 @@
+//==================================================================================
+// File: ProgmemWriter.java
+//
+// Description: Writes a font as a complete C/C++ declaration of uint32_t words
+//              for PROGMEM, one word per column (bit r is row r, rows past the
+//              glyph height zero), in an array aligned to 4 bytes. Every glyph
+//              is cols words, so every word in the array is 4 byte aligned and
+//              the firmware can fetch a column with one pgm_read_dword() - the
+//              ESP8266 faults on unaligned flash reads, which is what sent the
+//              2015 code to byte split output.
+//
+//              Glyphs taller than 32 rows are written as uint64_t words aligned to
+//              8 bytes instead, each read as two pgm_read_dword()s, low half
+//              first (AVR and the ESP boards are little-endian).
+//
+//              Lines are written as they come, so a font of any size streams
+//              through; the glyph count needed by the report is only known at
+//              finish().
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 A GlyphEncoder -- RL
+// 2026Oct17 uint64_t columns for 33 to 64 rows; columnType(), putColumn() for
+//           TrimWriter and DedupWriter too -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+
+  //=================================================================================
+  // Class: ProgmemWriter
+  // Description: Streams glyphs out as an aligned uint32_t PROGMEM array and
+  //              reports its size and layout
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class ProgmemWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final int iAlign;             // bytes a column; the array is aligned to it
+  private final long lMask;
+  private final char[] a;
+  private int nGlyphs;
+
+  //=================================================================================
+  // Function:    ProgmemWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes and the opening of the declaration
+  // Input:       Writer w: output
+  //              String sName: C identifier for the array
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: glyph width; words per glyph
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException if a column doesn't fit a
+  //              uint64_t
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 uint64_t past 32 rows -- RL
+  //=================================================================================
+  ProgmemWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS)
+    {
+      throw new IllegalArgumentException("PROGMEM output needs rows of 1 to "+Geometry.MAXROWS+", not "+iRows);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.iAlign = columnBytes(iRows);
+    this.lMask = Geometry.mask(iRows);
+    this.a = new char[nCols*(3 + 8*iWpc) + 2];
+
+    String sNl = System.lineSeparator();
+    String sType = columnType(iRows);
+    w.write("// "+sName+": generated by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows x "+nCols+" columns; one "+sType+" per column, bit r is row r."+sNl);
+    w.write("// Each glyph is "+nCols+" words ("+glyphBytes()+" bytes) and the array is "
+            +iAlign+" byte aligned,"+sNl);
+    if(iWpc == 1)
+    {
+      w.write("// so pgm_read_dword(&"+sName+"[glyph][col]) is always an aligned read."+sNl);
+    }
+    else
+    {
+      w.write("// so the two pgm_read_dword()s of a column (rows 0-31 first) are aligned reads."+sNl);
+    }
+    writeIncludes(w);
+    w.write("const "+sType+" "+sName+"["+"]["+nCols+"] PROGMEM __attribute__((aligned("+iAlign+"))) = {"+sNl);
+
+  } // ProgmemWriter()
+
+  int glyphs() { return nGlyphs; }
+  int glyphBytes() { return nCols*iAlign; }
+
+  // C type of a column of iRows rows, and its size in bytes
+  static String columnType(int iRows)
+  {
+    return (Geometry.wordsPerColumn(iRows) == 1) ? "uint32_t" : "uint64_t";
+  }
+
+  static int columnBytes(int iRows)
+  {
+    return 4*Geometry.wordsPerColumn(iRows);
+  }
+
+  // Column v as 0x and 8 hex digits, or 16 if iWpc is 2, followed by ','
+  static int putColumn(char[] a, int k, long v, int iWpc)
+  {
+    a[k++] = '0';
+    a[k++] = 'x';
+    for(int sh=32*iWpc-4; sh>=0; sh-=4) a[k++] = FontFormat.HEX[(int)(v >>> sh) & 0xf];
+    a[k++] = ',';
+    return k;
+  }
+
+  // The headers a PROGMEM declaration needs, on AVR and on the ESP boards
+  static void writeIncludes(Writer w) throws IOException
+  {
+    String sNl = System.lineSeparator();
+    w.write("#include <stdint.h>"+sNl);
+    w.write("#if defined(__AVR__)"+sNl);
+    w.write("#include <avr/pgmspace.h>"+sNl);
+    w.write("#else"+sNl);
+    w.write("#include <pgmspace.h>"+sNl);
+    w.write("#endif"+sNl);
+    w.write(sNl);
+  }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: One glyph of the array, with its line end comment if any
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int k = 0;
+    a[k++] = '{';
+    for(int col=0; col<nCols; col++)
+    {
+      k = putColumn(a, k, Geometry.column(aWords, off+col*iWpc, iWpc) & lMask, iWpc);
+    }
+    a[k-1] = '}';
+    a[k++] = ',';
+    w.write(a, 0, k);
+    if(sComment.length() > 0)
+    {
+      w.write(' ');
+      w.write(sComment);
+    }
+    w.write(System.lineSeparator());
+    nGlyphs++;
+
+  } // glyph()
+
+  // A whole line comment from the font, kept in place
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    if((iFlags & FontLines.F_COMMENT) == 0) return;
+    w.write(sComment);
+    w.write(System.lineSeparator());
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the declaration, adds a glyph count and compile time
+  //              checks of the layout, and makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the size and alignment report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("#define "+sUpper+"_GLYPHS "+nGlyphs+sNl);
+    w.write("#define "+sUpper+"_ROWS "+iRows+sNl);
+    w.write("#define "+sUpper+"_COLS "+nCols+sNl);
+    w.write("#ifdef __cplusplus"+sNl);
+    w.write("static_assert(sizeof("+sName+"[0]) % "+iAlign+" == 0, \"glyphs must keep words aligned\");"+sNl);
+    w.write("static_assert(alignof(decltype("+sName+")) >= "+iAlign+", \"array must be word aligned\");"+sNl);
+    w.write("#endif"+sNl);
+
+    int nBytes8 = nCols*((iRows+7)/8);
+    StringBuilder sb = new StringBuilder(512);
+    sb.append("PROGMEM layout of ").append(sName).append(sNl);
+    sb.append("  glyphs:          ").append(nGlyphs).append(sNl);
+    sb.append("  glyph size:      ").append(iRows).append(" rows x ").append(nCols).append(" columns").append(sNl);
+    sb.append("  words per glyph: ").append(nCols).append(' ').append(columnType(iRows)).append(", one per column");
+    if(iRows < 32*iWpc) sb.append(" (").append(32*iWpc-iRows).append(" high bits zero)");
+    sb.append(sNl);
+    sb.append("  bytes per glyph: ").append(glyphBytes()).append(" (byte split: ").append(nBytes8).append(')').append(sNl);
+    sb.append("  array size:      ").append((long)nGlyphs*glyphBytes()).append(" bytes (byte split: ")
+      .append((long)nGlyphs*nBytes8).append(')').append(sNl);
+    sb.append("  alignment:       ").append(iAlign).append(" bytes; glyph stride ").append(glyphBytes())
+      .append(" is a multiple of ").append(iAlign).append(", so every word is aligned").append(sNl);
+    sb.append("  reads per glyph: ").append(nCols*iWpc).append(" pgm_read_dword() (byte split: ")
+      .append(nBytes8).append(" pgm_read_byte())").append(sNl);
+    return sb.toString();
+
+  } // finish()
+
+  //=================================================================================
+  // Function:    identifier(String sFile)
+  // Description: A C identifier made from a file name: the name up to its first
+  //              '.', with anything else not allowed in an identifier made '_'
+  // Input:       String sFile: file name, with or without a directory
+  // Output:      None
+  // Returns:     String: the identifier
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static String identifier(String sFile)
+  {
+    String s = new java.io.File(sFile).getName();
+    int p = s.indexOf('.');
+    if(p > 0) s = s.substring(0, p);
+    StringBuilder sb = new StringBuilder(s.length()+1);
+    for(int i=0; i<s.length(); i++)
+    {
+      char c = s.charAt(i);
+      sb.append((c < 128 && Character.isLetterOrDigit(c)) || c == '_' ? c : '_');
+    }
+    if(sb.length() == 0 || Character.isDigit(sb.charAt(0))) sb.insert(0, '_');
+    return sb.toString();
+
+  } // identifier()
+
+} // class ProgmemWriter
@@ -0,0 +1,113 @@
+//==================================================================================
+// File: SplitWriter.java
+//
+// Description: The 8 bit font file ('byte split', or SSD1306 page order): the
+//              32 bit file with each record's column words split into bytes
+//              (FontFormat.putBytes()). A record with text of its own keeps what
+//              comes before its '{' and after its "}," (FontFormat.put8Bit());
+//              a GlyphStore record is split straight from its words and comment,
+//              as put8Bit() would split the line appendRecord() makes. Other
+//              lines are copied. Each line is built in one reused char[] and
+//              written from it.
+//
+// History:
+// 2026Oct17 Created (the line loop of FontFormat.write8Bit()) -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+
+  //=================================================================================
+  // Class: SplitWriter
+  // Description: GlyphEncoder for the 8 bit forms
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class SplitWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final int iRows;
+  private final int nCols;
+  private final int iOrder;
+  private final char[] aNl = System.lineSeparator().toCharArray();
+  private char[] a = new char[2048];
+
+  //=================================================================================
+  // Function:    SplitWriter(Writer w, int iRows, int nCols, int iOrder)
+  // Description: Nothing is written until the first line
+  // Input:       Writer w: output
+  //              int iRows: bits per column, a multiple of 8
+  //              int nCols: columns per record
+  //              int iOrder: FontFormat.SPLIT, PAGES or PAGES_MSB_TOP
+  // Output:      None
+  // Returns:     None; throws IllegalArgumentException if iRows can't be split
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  SplitWriter(Writer w, int iRows, int nCols, int iOrder)
+  {
+    FontFormat.check8BitRows(iRows);
+    this.w = w;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iOrder = iOrder;
+
+  } // SplitWriter()
+
+  // Makes room for n chars and the line separator
+  private void need(int n)
+  {
+    n += aNl.length;
+    if(a.length < n) a = new char[Math.max(n, 2*a.length)];
+  }
+
+  // Writes a[0..k) and the line separator in one call
+  private void writeLine(int k) throws IOException
+  {
+    System.arraycopy(aNl, 0, a, k, aNl.length);
+    w.write(a, 0, k + aNl.length);
+  }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: One record, split
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    if(sText != null)
+    {
+      need(FontFormat.put8BitLength(sText, nCols, iRows));
+      writeLine(FontFormat.put8Bit(a, sText, aWords, off, nCols, iRows, iOrder, bLast));
+      return;
+    }
+    // What put8Bit() keeps of appendRecord()'s line: the bytes, then the text
+    // from two past the '}' - " comment", or "comment" on the last line
+    need(nCols*(iRows/8)*5 + 3 + sComment.length());
+    int k = FontFormat.putBytes(a, 0, aWords, off, nCols, iRows, iOrder, bLast);
+    if(sComment.length() > 0)
+    {
+      if(!bLast) a[k++] = ' ';
+      k = FontFormat.putText(a, k, sComment);
+    }
+    writeLine(k);
+
+  } // glyph()
+
+  // Comment or empty line - nothing to split
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    need(sText.length());
+    writeLine(FontFormat.putText(a, 0, sText));
+  }
+
+} // class SplitWriter
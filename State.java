@@ -0,0 +1,17 @@
+//==================================================================================
+// File: State.java
+//
+// Description: One state of the States machine: reads from its Input and
+//              returns the next state.
+//
+// History:
+// 2015Dec Created (in CBArray.java) -- RL
+// 2026Oct17 Out of CBArray.java, with States -- RL
+//==================================================================================
+package cbarray;
+
+// State machine for parsing input file
+interface State {
+    public State next(Input word);
+
+} // interface State
@@ -0,0 +1,225 @@
+//==================================================================================
+// File: States.java
+//
+// Description: The original line parsing state machine, run by GlyphParser.
+//
+// History:
+// 2015Dec Created (in CBArray.java) -- RL
+// 2026Oct17 Own file, as GlyphParser runs it from outside CBArray.java -- RL
+//==================================================================================
+package cbarray;
+
+  //=================================================================================
+  // enum: States
+  // Description: The state machine for parsing a line of the input file
+  // Input: N/A
+  // Output:
+  // Returns:
+  // History:
+  // 2015Dec Created -- RL
+  // 2026Oct17 A literal past 32 bits is a NumberFormatException rather than
+  //           being cut down to an int, as GlyphScanner fails it -- RL
+  //=================================================================================
+enum States implements State {
+//    static String sCode = new String("");
+  Init
+  {
+    @Override
+    public State next(Input word)
+    {
+// System.out.println("Init, evaluating "+Input.getcur());
+      char c = word.read();
+//      if(c == 0) return DONE;
+//      else
+//      {
+        switch(c)
+        {
+          case 0: return DONENULL;
+          case ' ': return SPACELAST;
+          case '/': return COMMENT2;
+          case '{': return PARSECODE;
+          default: return Fail;
+        }
+//      }
+    }
+  },
+  SPACELAST
+  {
+    @Override
+    public State next(Input word)
+    {
+      if(word.endofinput()) return Fail; // nothing but spaces
+      char c = word.read();
+//System.out.println("SPACELAST, evaluating "+c);
+      switch(c)
+      {
+        case ' ': return SPACELAST;
+        case '/': return COMMENT2;
+        case '{': return PARSECODE;
+        default: return Fail;
+      }
+    }
+  },
+  COMMENT2
+  {
+    @Override
+    public State next(Input word)
+    {
+      char c = word.read();
+//System.out.println("COMMENT2, curchar="+c);
+      switch(c)
+      {
+        case '/':
+        {
+          word.buf.bCommentPresent=true;
+          return COMMENTLINE;
+        }
+        default: return Fail;
+      }
+    }
+  },
+  COMMENTLINE
+  {
+    @Override
+    public State next(Input word)
+    {
+// System.out.println("COMMENTLINE, curchar="+Input.getcur());
+      // Save comment as it is
+      word.buf.comment = word.input;
+      return DONE;
+    }
+  },
+  PARSECODE
+  {
+    @Override
+    public State next(Input word)
+    {
+      if(word.endofinput()) return Fail; // no closing '}'
+      char a = word.read();
+      Character b = new Character(a);
+      Character c = b.toUpperCase(b);
+//System.out.println("PARSECODE, Evaluating passed value "+c);
+      if(Character.isWhitespace(a))
+      {
+        return PARSECODE; // skip whitespace
+      }
+      else if(Character.isDigit(a) || c == 'A' || c == 'B' || c == 'C' || c == 'D' ||
+              c == 'E' || c == 'F' || c == 'X')
+      {
+        if(c == 'X') word.buf.sethex();
+        word.buf.sbCode.append(a);
+        return PARSECODE;
+      }
+      else if(c == ',' || c == '}')
+      {
+        // Save sCode.toInt(); 
+        Buf buf = word.buf;
+        String s = buf.sbCode.toString();
+        long lCode;
+        if(buf.gethex()) lCode = Long.parseLong(s.substring(2), 16);
+        else lCode = Long.parseLong(s, 10);
+        if((lCode >>> 32) != 0) throw new NumberFormatException("more than 32 bits: "+s);
+        int thiscode = (int)lCode;
+        buf.iBuf[buf.i++] = thiscode; 
+//System.out.println("PARSECODE, thiscode="+thiscode);
+        buf.resethex();
+        buf.sbCode.setLength(0);
+        if(c == ',')
+        {
+          return PARSECODE;
+        }
+        else if(c == '}')
+        {
+         buf.bCharacterPresent=true;
+         return CODEDONE;
+        }
+        else
+        {
+          return Fail;
+        }
+      }
+      else
+      {
+        return Fail;
+      }
+    }
+  },
+  CODEDONE
+  {
+    @Override
+    public State next(Input word)
+    {
+      if(word.endofinput()) return DONE;
+      char c = word.read();
+//System.out.println("CODEDONE, curchar="+c);
+      
+      switch(c)
+      {
+        case ',': return CODEDONE;
+        case ' ': return CODEDONE;
+        case '/':
+        {
+          // Clear StringBuffer
+          word.buf.sbCode.setLength(0);
+          // Append this to stringbuffer
+          word.buf.sbCode.append(c);
+          return LINEENDCOMMENT;
+        }
+        default: return Fail;
+      }
+    }
+  },
+  LINEENDCOMMENT
+  {
+    @Override
+    public State next(Input word) {
+      char c = word.read();
+//System.out.println("LINEENDCOMMENT, curchar="+c);
+      if(word.endofinput())
+      {
+        word.buf.sbCode.append(c);
+        word.buf.comment = word.buf.sbCode.toString();
+        return DONE;
+      }
+      else if(!Character.isISOControl(c))
+      {
+        word.buf.sbCode.append(c);
+        return LINEENDCOMMENT;
+      }
+      else
+      {
+        return Fail;
+      }
+    }
+  },
+  DONENULL
+  {
+    @Override
+    public State next(Input word)
+    {
+      return DONENULL;
+    }
+  },
+  DONE
+  {
+    @Override
+    public State next(Input word)
+    {
+      char c = word.read();
+//System.out.println("DONE, curchar="+c);
+      return DONE;
+    }
+  },
+  Fail
+  {
+    @Override
+    public State next(Input word)
+    {
+// System.out.println("Fail, curchar="+Input.getcur());
+      return Fail;
+    }
+  };
+ 
+  public abstract State next(Input word);
+
+} // enum States
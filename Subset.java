@@ -0,0 +1,286 @@
+//==================================================================================
+// File: Subset.java
+//
+// Description: Cuts a font down to the glyphs a device will actually show. The
+//              strings it shows are given as UTF-8 text files (any size; each is
+//              read once, straight from bytes, into a codepoint set), then the
+//              font is streamed through and only the records for characters in
+//              the set are kept. A record's character comes from its line end
+//              comment (see Codepoints.fromComment()) or, with -first, from its
+//              position: the n-th record is codepoint first+n.
+//
+//              The kept records are written in codepoint order as a font CBArray
+//              and FontConv read, and the remap table - the codepoint of each
+//              kept record, ascending, so the firmware can binary search it - as
+//              a C header beside it.
+//
+//              Usage: java cbarray.Subset [-rows n] [-cols n] [-first cp] [-name id]
+//                       <font.h> <out.h> <corpus.txt> [corpus.txt ...]
+//              Writes <out.h> and <out.h>map; reports what was kept and which
+//              corpus characters the font has no glyph for. The glyph size is
+//              read from <font.h> unless -rows or -cols is given.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Glyph size detected as FontConv does; up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: Subset
+  // Description: Command line font subsetter
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class Subset
+{
+  static final int MAXMISSING = 40;
+
+  private Subset()
+  {
+  }
+
+  //=================================================================================
+  // Function:    subset(File fFont, long[] used, int iFirst, Geometry size,
+  //                     Map<Integer,Glyph> kept)
+  // Description: Streams the font through the parser and keeps the records whose
+  //              character is in used; the first record for a character wins
+  // Input:       File fFont: the font
+  //              long[] used: codepoint set (Codepoints.newSet())
+  //              int iFirst: codepoint of the first record, or -1 to go by the
+  //              record comments
+  //              Geometry size: glyph size
+  //              Map<Integer,Glyph> kept: filled with codepoint -> record
+  // Output:      kept; a message on System.err for each line not parsed
+  // Returns:     int[]: records read, records with no character, lines not parsed
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int[] subset(File fFont, long[] used, int iFirst, Geometry size, Map<Integer,Glyph> kept)
+    throws IOException
+  {
+    GlyphParser parser = new GlyphParser(size.rows(), size.cols());
+    int iRecords = 0;
+    int iUnnamed = 0;
+    int iBad = 0;
+    try(BufferedReader in = new BufferedReader(new InputStreamReader(
+          new FileInputStream(fFont), StandardCharsets.UTF_8), FontConv.BUFSIZE))
+    {
+      int iLine = 0;
+      String sLine;
+      while((sLine = in.readLine()) != null)
+      {
+        iLine++;
+        Glyph g = parser.parse(sLine);
+        if(g == null)
+        {
+          System.err.println(fFont+":"+iLine+": couldn't parse; skipped");
+          iBad++;
+          continue;
+        }
+        if(!g.characterPresent()) continue;
+
+        int cp = (iFirst >= 0) ? iFirst + iRecords : Codepoints.fromComment(g.comment());
+        iRecords++;
+        if(cp < 0 || cp >= Codepoints.LIMIT)
+        {
+          iUnnamed++;
+          continue;
+        }
+        if(Codepoints.contains(used, cp) && !kept.containsKey(cp)) kept.put(cp, g);
+      }
+    }
+    return new int[] { iRecords, iUnnamed, iBad };
+
+  } // subset()
+
+  //=================================================================================
+  // Function:    writeFont(Writer w, Map<Integer,Glyph> kept, Geometry size,
+  //                        String sFrom)
+  // Description: Writes the kept records as a font, in codepoint order, each with
+  //              the comment it had
+  // Input:       Writer w: output; Map<Integer,Glyph> kept: sorted by codepoint
+  //              Geometry size: glyph size the records were parsed for
+  //              String sFrom: description for the first line
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void writeFont(Writer w, Map<Integer,Glyph> kept, Geometry size, String sFrom) throws IOException
+  {
+    String sNl = System.lineSeparator();
+    w.write("// "+sFrom+sNl);
+    StringBuilder sb = new StringBuilder(512);
+    int[] aWords = new int[size.lineWords()];
+    int i = 0;
+    for(Glyph g : kept.values())
+    {
+      g.copyWords(aWords);
+      sb.setLength(0);
+      FontFormat.appendRecord(sb, aWords, 0, size.cols(), size.rows(), ++i == kept.size(), g.comment());
+      sb.append(sNl);
+      w.write(sb.toString());
+    }
+
+  } // writeFont()
+
+  //=================================================================================
+  // Function:    writeMap(Writer w, Map<Integer,Glyph> kept, String sName, String sFont)
+  // Description: Writes the remap table: the codepoint of each record of the subset
+  //              font, ascending
+  // Input:       Writer w: output; Map<Integer,Glyph> kept: sorted by codepoint
+  //              String sName: C identifier; String sFont: the subset font's name
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void writeMap(Writer w, Map<Integer,Glyph> kept, String sName, String sFont) throws IOException
+  {
+    String sNl = System.lineSeparator();
+    int iMax = kept.isEmpty() ? 0 : ((TreeMap<Integer,Glyph>)kept).lastKey();
+    String sType = (iMax <= 0xffff) ? "uint16_t" : "uint32_t";
+    w.write("// "+sName+": codepoints of the records of "+sFont+", ascending; record i draws"+sNl);
+    w.write("// "+sName+"_cp[i], so a binary search of "+sName+"_cp finds a character's record."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("const "+sType+" "+sName+"_cp[] PROGMEM = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    int i = 0;
+    for(int cp : kept.keySet())
+    {
+      sb.append(String.format("0x%04x,", cp));
+      if(++i % 12 == 0 || i == kept.size())
+      {
+        sb.append(sNl);
+        w.write(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("#define "+sName.toUpperCase()+"_GLYPHS "+kept.size()+sNl);
+
+  } // writeMap()
+
+  static void usage()
+  {
+    System.err.println("Usage: java cbarray.Subset [-rows n] [-cols n] [-first cp] [-name id]");
+    System.err.println("         <font.h> <out.h> <corpus.txt> [corpus.txt ...]");
+    System.err.println("       writes <out.h> and <out.h>map");
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    String sFont = null;
+    String sOut = null;
+    String sName = null;
+    int iFirst = -1;
+    boolean bSize = false;
+    List<String> asCorpus = new ArrayList<String>();
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-rows") && i+1 < args.length)
+      {
+        CharSize.rows = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-cols") && i+1 < args.length)
+      {
+        CharSize.cols = Integer.parseInt(args[++i]);
+        bSize = true;
+      }
+      else if(args[i].equals("-first") && i+1 < args.length) iFirst = Integer.decode(args[++i]);
+      else if(args[i].equals("-name") && i+1 < args.length) sName = args[++i];
+      else if(sFont == null) sFont = args[i];
+      else if(sOut == null) sOut = args[i];
+      else asCorpus.add(args[i]);
+    }
+    if(sFont == null || sOut == null || asCorpus.isEmpty())
+    {
+      usage();
+      System.exit(2);
+    }
+    if(sName == null) sName = ProgmemWriter.identifier(sOut);
+
+    long t0 = System.nanoTime();
+    long[] used = Codepoints.newSet();
+    long lChars = 0;
+    long lBytes = 0;
+    for(String s : asCorpus)
+    {
+      try(InputStream in = new FileInputStream(s))
+      {
+        lChars += Codepoints.scanUtf8(in, used);
+      }
+      lBytes += new File(s).length();
+    }
+    long t1 = System.nanoTime();
+
+    Geometry size = new Geometry(CharSize.rows, CharSize.cols);
+    if(!bSize) size = Geometry.detect(new File(sFont), size);
+    TreeMap<Integer,Glyph> kept = new TreeMap<Integer,Glyph>();
+    int[] aCounts = subset(new File(sFont), used, iFirst, size, kept);
+
+    File fOut = new File(sOut);
+    File fMap = new File(sOut+"map");
+    File fTmp = new File(sOut+".tmp");
+    File fTmpMap = new File(fMap.getPath()+".tmp");
+    try(Writer w = new BufferedWriter(new OutputStreamWriter(
+          new FileOutputStream(fTmp), StandardCharsets.UTF_8), FontConv.BUFSIZE);
+        Writer wm = new BufferedWriter(new OutputStreamWriter(
+          new FileOutputStream(fTmpMap), StandardCharsets.UTF_8), FontConv.BUFSIZE))
+    {
+      writeFont(w, kept, size, "subset of "+new File(sFont).getName()+": "+kept.size()+" of "+aCounts[0]+" glyphs");
+      writeMap(wm, kept, sName, fOut.getName());
+    }
+    Files.move(fTmp.toPath(), fOut.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    Files.move(fTmpMap.toPath(), fMap.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+    // Printable corpus characters with no glyph
+    StringBuilder sbMissing = new StringBuilder();
+    int iMissing = 0;
+    for(int cp=0x20; cp<Codepoints.LIMIT; cp++)
+    {
+      if(!Codepoints.contains(used, cp) || kept.containsKey(cp) || Character.isISOControl(cp)) continue;
+      if(iMissing++ < MAXMISSING) sbMissing.append(String.format(" U+%04X", cp));
+    }
+    if(iMissing > MAXMISSING) sbMissing.append(" ...");
+
+    System.out.printf("corpus:  %d file(s), %d bytes, %d characters, %d distinct, read in %d ms%n",
+                      asCorpus.size(), lBytes, lChars, Codepoints.count(used), (t1-t0)/1000000);
+    System.out.printf("font:    %d records, %d with no character named%n", aCounts[0], aCounts[1]);
+    System.out.printf("kept:    %d glyphs in %s, remap table in %s%n", kept.size(), fOut, fMap);
+    if(iMissing > 0) System.out.println("missing: "+iMissing+" character(s) with no glyph:"+sbMissing);
+    if(aCounts[2] > 0)
+    {
+      System.err.println(aCounts[2]+" line(s) could not be parsed");
+      System.exit(1);
+    }
+
+  } // main()
+
+} // class Subset
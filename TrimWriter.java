@@ -0,0 +1,241 @@
+//==================================================================================
+// File: TrimWriter.java
+//
+// Description: Writes a font for proportional text: each glyph cut down to the
+//              columns from its leftmost to its rightmost one with a pixel set,
+//              stored back to back as uint32_t column words (bit r is row r;
+//              uint64_t past 32 rows) in a PROGMEM array aligned to the word
+//              size, with per glyph tables of where its
+//              columns start, how far into the cell the first one was and how
+//              many there are. The firmware then sends and draws only inked
+//              columns and can advance by the glyph's own width.
+//
+//              One pass over the column words of each glyph, streamed; only the
+//              three tables (6 bytes a glyph) are held until finish(), so the
+//              pass is cheap enough to run on every save.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 A GlyphEncoder, fed by FontConv's read loop or GlyphEncoder.encode();
+//           write() removed -- RL
+// 2026Oct17 Up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+  //=================================================================================
+  // Class: TrimWriter
+  // Description: Streams glyphs out trimmed to their inked columns, with offset,
+  //              left and width tables and a size report
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class TrimWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final long lMask;
+  private final char[] a;
+  private int[] aOffsets = new int[1024];
+  private byte[] aLeft = new byte[1024];
+  private byte[] aWidth = new byte[1024];
+  private int nGlyphs;
+  private long lColumns;
+  private int iMinWidth = Integer.MAX_VALUE;
+  private int iMaxWidth;
+  private int nBlank;
+
+  //=================================================================================
+  // Function:    TrimWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes, a description of the layout and the opening
+  //              of the column array
+  // Input:       Writer w: output
+  //              String sName: C identifier; the arrays are sName_cols,
+  //              sName_offset, sName_left and sName_width
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: cell width, 1 to 255
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException for sizes the tables can't
+  //              hold
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  TrimWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS || nCols < 1 || nCols > 255)
+    {
+      throw new IllegalArgumentException("trimmed output needs 1-"+Geometry.MAXROWS
+                                         +" rows and 1-255 columns, not "+iRows+"x"+nCols);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.lMask = Geometry.mask(iRows);
+    this.a = new char[nCols*(3 + 8*iWpc)];
+
+    String sNl = System.lineSeparator();
+    w.write("// "+sName+": trimmed by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows, cells "+nCols+" columns. Glyph g is "+sName+"_width[g] columns from "
+            +sName+"_cols["+sName+"_offset[g]],"+sNl);
+    w.write("// drawn "+sName+"_left[g] columns into its cell; one "+ProgmemWriter.columnType(iRows)
+            +" per column, bit r is row r."+sNl);
+    w.write("// Blank glyphs have width 0."+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("const "+ProgmemWriter.columnType(iRows)+" "+sName+"_cols[] PROGMEM __attribute__((aligned("
+            +ProgmemWriter.columnBytes(iRows)+"))) = {"+sNl);
+
+  } // TrimWriter()
+
+  int glyphs() { return nGlyphs; }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Finds the first and last inked columns and writes those between
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int x0 = 0;
+    while(x0 < nCols && (Geometry.column(aWords, off+x0*iWpc, iWpc) & lMask) == 0) x0++;
+    int x1 = nCols;
+    while(x1 > x0 && (Geometry.column(aWords, off+(x1-1)*iWpc, iWpc) & lMask) == 0) x1--;
+    int iWidth = x1 - x0;
+    if(iWidth == 0)
+    {
+      x0 = x1 = 0;
+      nBlank++;
+    }
+
+    if(nGlyphs == aOffsets.length)
+    {
+      aOffsets = Arrays.copyOf(aOffsets, 2*nGlyphs);
+      aLeft = Arrays.copyOf(aLeft, 2*nGlyphs);
+      aWidth = Arrays.copyOf(aWidth, 2*nGlyphs);
+    }
+    aOffsets[nGlyphs] = (int)lColumns;
+    aLeft[nGlyphs] = (byte)x0;
+    aWidth[nGlyphs] = (byte)iWidth;
+    nGlyphs++;
+    lColumns += iWidth;
+    iMinWidth = Math.min(iMinWidth, iWidth);
+    iMaxWidth = Math.max(iMaxWidth, iWidth);
+
+    int k = 0;
+    for(int col=x0; col<x1; col++)
+    {
+      k = ProgmemWriter.putColumn(a, k, Geometry.column(aWords, off+col*iWpc, iWpc) & lMask, iWpc);
+    }
+    w.write(a, 0, k);
+    w.write((k == 0) ? "// " : " // ");
+    w.write(Integer.toString(nGlyphs-1));
+    if(sComment.length() > 0)
+    {
+      w.write(' ');
+      w.write(sComment.startsWith("//") ? sComment.substring(2).trim() : sComment);
+    }
+    w.write(System.lineSeparator());
+
+  } // glyph()
+
+  // A whole line comment from the font, kept in place
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    if((iFlags & FontLines.F_COMMENT) == 0) return;
+    w.write(sComment);
+    w.write(System.lineSeparator());
+  }
+
+  // One table of values, 16 to a line
+  private void table(String sDecl, int n, java.util.function.IntUnaryOperator value) throws IOException
+  {
+    String sNl = System.lineSeparator();
+    w.write(sDecl+" = {"+sNl);
+    StringBuilder sb = new StringBuilder(128);
+    for(int g=0; g<n; g++)
+    {
+      sb.append(value.applyAsInt(g)).append(',');
+      if(g % 16 == 15 || g == n-1)
+      {
+        sb.append(sNl);
+        w.write(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    w.write("};"+sNl);
+    w.write(sNl);
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the column array, writes the offset, left and width tables
+  //              and makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the size report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    boolean bShort = lColumns <= 0xffff;
+    String sType = bShort ? "uint16_t" : "uint32_t";
+    int iOffsetBytes = bShort ? 2 : 4;
+
+    w.write("};"+sNl);
+    w.write(sNl);
+    table("const "+sType+" "+sName+"_offset[] PROGMEM __attribute__((aligned("+iOffsetBytes+")))",
+          nGlyphs, g -> aOffsets[g]);
+    table("const uint8_t "+sName+"_left[] PROGMEM", nGlyphs, g -> aLeft[g] & 0xff);
+    table("const uint8_t "+sName+"_width[] PROGMEM", nGlyphs, g -> aWidth[g] & 0xff);
+    w.write("#define "+sUpper+"_GLYPHS "+nGlyphs+sNl);
+    w.write("#define "+sUpper+"_ROWS "+iRows+sNl);
+    w.write("#define "+sUpper+"_COLS "+nCols+sNl);
+
+    int iColBytes = ProgmemWriter.columnBytes(iRows);
+    long lFull = (long)nGlyphs*nCols*iColBytes;
+    long lTrim = lColumns*iColBytes + (long)nGlyphs*(iOffsetBytes + 2);
+    double dGlyphs = Math.max(1, nGlyphs);
+    StringBuilder sb = new StringBuilder(512);
+    sb.append("Trimmed layout of ").append(sName).append(sNl);
+    sb.append(String.format("  glyphs:           %d (%dx%d), %d blank%n", nGlyphs, iRows, nCols, nBlank));
+    sb.append(String.format("  columns kept:     %d of %d (%.1f a glyph, %d to %d)%n",
+                            lColumns, (long)nGlyphs*nCols, lColumns/dGlyphs,
+                            (nGlyphs == 0) ? 0 : iMinWidth, iMaxWidth));
+    sb.append(String.format("  column data:      %d bytes%n", lColumns*iColBytes));
+    sb.append(String.format("  tables:           %d bytes (%s offset, uint8_t left and width)%n",
+                            (long)nGlyphs*(iOffsetBytes + 2), sType));
+    double dSaved = (lFull == 0) ? 0.0 : 100.0*(lFull - lTrim)/lFull;
+    sb.append(String.format("  total:            %d bytes, against %d for full cells: %.1f%% %s%n",
+                            lTrim, lFull, Math.abs(dSaved), (dSaved < 0) ? "larger" : "smaller"));
+    sb.append(String.format("  reads per glyph:  %.1f pgm_read_dword() and 3 table reads, against %d%n",
+                            lColumns*iWpc/dGlyphs, nCols*iWpc));
+    return sb.toString();
+
+  } // finish()
+
+} // class TrimWriter
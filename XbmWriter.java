@@ -0,0 +1,175 @@
+//==================================================================================
+// File: XbmWriter.java
+//
+// Description: Writes a font row-major, as XBM bitmaps: each glyph its rows top
+//              to bottom, each row (cols+7)/8 bytes with the leftmost pixel in
+//              bit 0 of the first byte. This is the layout u8g2's drawXBMP()
+//              (and U8glib's, and Adafruit GFX's drawXBitmap()) take, so a glyph
+//              is drawn with u8g2.drawXBMP(x, y, NAME_WIDTH, NAME_HEIGHT,
+//              name_bits[glyph]) at any y, where the 8 bit outputs go to the
+//              SSD1306 a page at a time.
+//
+//              Every glyph is the same size, so the array is two dimensional and
+//              nothing is held back for finish().
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Up to 64 rows -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.io.Writer;
+
+  //=================================================================================
+  // Class: XbmWriter
+  // Description: Streams glyphs out as row-major XBM bitmaps, with a size report
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+final class XbmWriter implements GlyphEncoder
+{
+  private final Writer w;
+  private final String sName;
+  private final int iRows;
+  private final int nCols;
+  private final int iWpc;
+  private final int iRowBytes;
+  private final char[] a;
+  private int nGlyphs;
+
+  //=================================================================================
+  // Function:    XbmWriter(Writer w, String sName, String sFrom, int iRows, int nCols)
+  // Description: Writes the includes, the size #defines and the opening of the
+  //              array
+  // Input:       Writer w: output
+  //              String sName: C identifier; the array is sName_bits
+  //              String sFrom: where the font came from, for the header comment
+  //              int iRows: glyph height, 1 to 64
+  //              int nCols: glyph width
+  // Output:      w
+  // Returns:     None; throws IllegalArgumentException if rows aren't 1 to 64
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  XbmWriter(Writer w, String sName, String sFrom, int iRows, int nCols) throws IOException
+  {
+    if(iRows < 1 || iRows > Geometry.MAXROWS)
+    {
+      throw new IllegalArgumentException("XBM output needs rows of 1 to "+Geometry.MAXROWS+", not "+iRows);
+    }
+    this.w = w;
+    this.sName = sName;
+    this.iRows = iRows;
+    this.nCols = nCols;
+    this.iWpc = Geometry.wordsPerColumn(iRows);
+    this.iRowBytes = (nCols+7)/8;
+    this.a = new char[iRows*iRowBytes*5 + 2];
+
+    String sNl = System.lineSeparator();
+    String sUpper = sName.toUpperCase();
+    w.write("// "+sName+": XBM bitmaps by FontConv from "+sFrom+sNl);
+    w.write("// "+iRows+" rows x "+nCols+" columns, row by row; "+iRowBytes
+            +" byte(s) a row, bit 0 the leftmost pixel."+sNl);
+    w.write("// u8g2.drawXBMP(x, y, "+sUpper+"_WIDTH, "+sUpper+"_HEIGHT, "+sName+"_bits[glyph])"+sNl);
+    ProgmemWriter.writeIncludes(w);
+    w.write("#define "+sUpper+"_WIDTH "+nCols+sNl);
+    w.write("#define "+sUpper+"_HEIGHT "+iRows+sNl);
+    w.write(sNl);
+    w.write("const uint8_t "+sName+"_bits[]["+glyphBytes()+"] PROGMEM = {"+sNl);
+
+  } // XbmWriter()
+
+  int glyphs() { return nGlyphs; }
+  int glyphBytes() { return iRows*iRowBytes; }
+
+  //=================================================================================
+  // Function:    glyph(int[] aWords, int off, String sComment, CharSequence sText,
+  //                    boolean bLast)
+  // Description: Turns the column words into rows and writes them
+  // Input:       int[] aWords, int off: the column words
+  //              String sComment: line end comment, as the font has it, or ""
+  //              (sText and bLast are not used)
+  // Output:      w
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public void glyph(int[] aWords, int off, String sComment, CharSequence sText, boolean bLast)
+    throws IOException
+  {
+    int k = 0;
+    a[k++] = '{';
+    for(int y=0; y<iRows; y++)
+    {
+      // Rows 32 on are in each column's second word
+      int iWord = off + (y >>> 5);
+      int sh = y & 31;
+      for(int x=0; x<nCols; x+=8)
+      {
+        int v = 0;
+        int n = Math.min(8, nCols-x);
+        for(int j=0; j<n; j++) v |= ((aWords[iWord+(x+j)*iWpc] >>> sh) & 1) << j;
+        a[k++] = '0';
+        a[k++] = 'x';
+        a[k++] = FontFormat.HEX[v >>> 4];
+        a[k++] = FontFormat.HEX[v & 0xf];
+        a[k++] = ',';
+      }
+    }
+    a[k-1] = '}';
+    a[k++] = ',';
+    w.write(a, 0, k);
+    w.write(" // ");
+    w.write(Integer.toString(nGlyphs++));
+    if(sComment.length() > 0)
+    {
+      w.write(' ');
+      w.write(sComment.startsWith("//") ? sComment.substring(2).trim() : sComment);
+    }
+    w.write(System.lineSeparator());
+
+  } // glyph()
+
+  // A whole line comment from the font, kept in place
+  @Override
+  public void line(int iFlags, String sComment, CharSequence sText, boolean bLast) throws IOException
+  {
+    if((iFlags & FontLines.F_COMMENT) == 0) return;
+    w.write(sComment);
+    w.write(System.lineSeparator());
+  }
+
+  //=================================================================================
+  // Function:    finish()
+  // Description: Closes the array, adds the glyph count and makes the report
+  // Input:       None
+  // Output:      w
+  // Returns:     String: the size report
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  @Override
+  public String finish() throws IOException
+  {
+    String sNl = System.lineSeparator();
+    w.write("};"+sNl);
+    w.write(sNl);
+    w.write("#define "+sName.toUpperCase()+"_GLYPHS "+nGlyphs+sNl);
+
+    int iPages = nCols*((iRows+7)/8);
+    StringBuilder sb = new StringBuilder(256);
+    sb.append("XBM layout of ").append(sName).append(sNl);
+    sb.append(String.format("  glyphs:           %d (%dx%d)%n", nGlyphs, iRows, nCols));
+    sb.append(String.format("  bytes per glyph:  %d, %d a row (column bytes: %d)%n",
+                            glyphBytes(), iRowBytes, iPages));
+    sb.append(String.format("  array size:       %d bytes%n", (long)nGlyphs*glyphBytes()));
+    return sb.toString();
+
+  } // finish()
+
+} // class XbmWriter
@@ -0,0 +1,270 @@
+//==================================================================================
+// File: MicroBench.java
+//
+// Description: Microbenchmarks for the per-line and per-record hot paths: warmup
+//              and measured iterations of fixed length, average time per
+//              operation. It needs nothing beyond the JDK, as the project has no
+//              build file to pull JMH in with. It is not JMH and only times the
+//              operations; it does not measure allocation.
+//
+//              Benchmarks, each run at every geometry (CharSize.rows x cols):
+//                parse.states.comment   States machine, comment-only line
+//                parse.states.record    States machine, cols-column record
+//                parse.scanner.record   GlyphScanner, same record (reference)
+//                encode.itemStateChanged  one pixel toggle: column model bit flip
+//                                         and one code label, as itemStateChanged()
+//                rebuild.buildRec       column model into the store, as buildRec(),
+//                                       then the record text as Save File writes it
+//                split.saveFileAs8Bit   byte split of one record, as
+//                                       saveFileAs8Bit()
+//
+//              Usage: java [-Xmx..] cbarray.MicroBench [-wi n] [-i n] [-t ms]
+//                       [-geom RxC,RxC,...] [name-substring ...]
+//              Defaults: 5 warmup and 10 measured iterations of 200 ms, geometries
+//              8x8, 16x16 and 32x32.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 encode/rebuild follow the column model in CBArray -- RL
+// 2026Oct17 split uses FontFormat.put8Bit() -- RL
+// 2026Oct17 Parser and store take the rows too -- RL
+// 2026Oct17 Timing only; the per-thread allocation count is gone -- RL
+//==================================================================================
+package cbarray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: MicroBench
+  // Description: Small timing harness and the benchmarks run under it
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class MicroBench
+{
+  static volatile int sink;
+
+  // One benchmark at one geometry; run(n) performs the operation n times
+  interface Op
+  {
+    int run(int n);
+  }
+
+  // Makes the Op for the geometry currently in CharSize
+  interface Bench
+  {
+    Op setup(Random r);
+  }
+
+  static final List<String> asNames = new ArrayList<String>();
+  static final List<Bench> benches = new ArrayList<Bench>();
+
+  static void add(String sName, Bench b)
+  {
+    asNames.add(sName);
+    benches.add(b);
+  }
+
+  private MicroBench()
+  {
+  }
+
+  //=================================================================================
+  // Function:    record(Random r, int iCols, String sComment)
+  // Description: One record line as Save File writes it
+  // Input:       Random r; int iCols: words; String sComment: "" for none
+  // Output:      None
+  // Returns:     String: the line, ending "},"
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static String record(Random r, int iCols, String sComment)
+  {
+    int[] aWords = new int[iCols];
+    for(int col=0; col<iCols; col++) aWords[col] = r.nextInt() & mask(CharSize.rows);
+    return FontFormat.appendRecord(new StringBuilder(), aWords, 0, iCols, CharSize.rows, false, sComment).toString();
+  }
+
+  static int mask(int iRows)
+  {
+    return (iRows >= 32) ? -1 : (1 << iRows) - 1;
+  }
+
+  static
+  {
+    add("parse.states.comment", r ->
+    {
+      GlyphParser p = new GlyphParser(CharSize.rows, CharSize.cols);
+      String s = "// Block 12: Latin-1 supplement, U+00C0 to U+00FF";
+      return n -> { int h = 0; for(int k=0; k<n; k++) h += p.parseStates(s).comment().length(); return h; };
+    });
+    add("parse.states.record", r ->
+    {
+      GlyphParser p = new GlyphParser(CharSize.rows, CharSize.cols);
+      String s = record(r, CharSize.cols, "// 'A'");
+      return n -> { int h = 0; for(int k=0; k<n; k++) h += p.parseStates(s).word(0); return h; };
+    });
+    add("parse.scanner.record", r ->
+    {
+      GlyphScanner sc = new GlyphScanner();
+      char[] a = record(r, CharSize.cols, "// 'A'").toCharArray();
+      int[] aWords = new int[CharSize.cols];
+      return n -> { int h = 0; for(int k=0; k<n; k++) h += sc.scan(a, 0, a.length, aWords) + aWords[0]; return h; };
+    });
+    add("encode.itemStateChanged", r ->
+    {
+      int rows = CharSize.rows;
+      int cols = CharSize.cols;
+      int[] aColumns = new int[cols];
+      for(int col=0; col<cols; col++) aColumns[col] = r.nextInt() & mask(rows);
+      String[] asCodes = new String[cols];
+      StringBuilder sbLabel = new StringBuilder(16);
+      // Same work as CBArray.itemStateChanged() for one pixel toggle: flip one
+      // bit of the column model and relabel that column
+      return n ->
+      {
+        int h = 0;
+        for(int k=0; k<n; k++)
+        {
+          int row = k % rows;
+          int col = (k / rows) % cols;
+          aColumns[col] ^= 1 << row;
+          sbLabel.setLength(0);
+          asCodes[col] = FontFormat.appendHexWord(sbLabel, aColumns[col]).toString();
+          h += asCodes[col].length();
+        }
+        return h;
+      };
+    });
+    add("rebuild.buildRec", r ->
+    {
+      int cols = CharSize.cols;
+      int[] aColumns = new int[cols];
+      for(int col=0; col<cols; col++) aColumns[col] = r.nextInt() & mask(CharSize.rows);
+      GlyphStore store = new GlyphStore(CharSize.rows, cols);
+      store.insert(0, -1);
+      StringBuilder sb = new StringBuilder(512);
+      // CBArray.buildRec() storing the column model, then the text Save File writes
+      return n ->
+      {
+        int h = 0;
+        for(int k=0; k<n; k++)
+        {
+          store.set(0, aColumns, "// 'A'");
+          sb.setLength(0);
+          h += store.appendLine(sb, 0, false).length();
+        }
+        return h;
+      };
+    });
+    add("split.saveFileAs8Bit", r ->
+    {
+      int cols = CharSize.cols;
+      int rows = CharSize.rows;
+      String s = record(r, cols, "// 'A'");
+      int[] aWords = new GlyphParser(rows, cols).parse(s).copyWords(new int[cols]);
+      char[] a = new char[FontFormat.put8BitLength(s, cols, rows)];
+      return n ->
+      {
+        int h = 0;
+        for(int k=0; k<n; k++)
+        {
+          h += FontFormat.put8Bit(a, s, aWords, 0, cols, rows, false);
+        }
+        return h;
+      };
+    });
+  }
+
+  //=================================================================================
+  // Function:    measure(Op op, int iWarmup, int iIters, long lIterNanos)
+  // Description: Finds how many operations fill an iteration, then runs the warmup
+  //              and measured iterations
+  // Input:       Op op; iteration counts and length
+  // Output:      None
+  // Returns:     double[]: mean ns/op, half width of the 99.9% interval
+  // History:
+  // 2026Oct17 Created -- RL
+  // 2026Oct17 No allocation count -- RL
+  //=================================================================================
+  static double[] measure(Op op, int iWarmup, int iIters, long lIterNanos)
+  {
+    int n = 1;
+    for(;;)
+    {
+      long t0 = System.nanoTime();
+      sink += op.run(n);
+      long t = System.nanoTime() - t0;
+      if(t > lIterNanos/10 || n > (1 << 28)) { n = (int)Math.max(1, (long)n*lIterNanos/Math.max(t, 1)); break; }
+      n *= 2;
+    }
+
+    for(int it=0; it<iWarmup; it++) sink += op.run(n);
+
+    double[] aNs = new double[iIters];
+    for(int it=0; it<iIters; it++)
+    {
+      long t0 = System.nanoTime();
+      sink += op.run(n);
+      long t = System.nanoTime() - t0;
+      aNs[it] = (double)t/n;
+    }
+
+    double mean = 0;
+    for(double d : aNs) mean += d;
+    mean /= iIters;
+    double var = 0;
+    for(double d : aNs) var += (d-mean)*(d-mean);
+    double sd = (iIters > 1) ? Math.sqrt(var/(iIters-1)) : 0;
+    // z for 99.9%; JMH uses Student's t, which differs little at 10 iterations
+    double err = 3.29*sd/Math.sqrt(iIters);
+    return new double[] { mean, err };
+
+  } // measure()
+
+  public static void main(String[] args)
+  {
+    int iWarmup = 5;
+    int iIters = 10;
+    long lIterMs = 200;
+    String sGeom = "8x8,16x16,32x32";
+    List<String> asFilters = new ArrayList<String>();
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-wi") && i+1 < args.length) iWarmup = Integer.parseInt(args[++i]);
+      else if(args[i].equals("-i") && i+1 < args.length) iIters = Integer.parseInt(args[++i]);
+      else if(args[i].equals("-t") && i+1 < args.length) lIterMs = Long.parseLong(args[++i]);
+      else if(args[i].equals("-geom") && i+1 < args.length) sGeom = args[++i];
+      else asFilters.add(args[i]);
+    }
+    System.out.printf("%-26s %6s %6s %5s %4s %12s %10s %8s%n",
+                      "Benchmark", "(rows)", "(cols)", "Mode", "Cnt", "Score", "Error", "Units");
+    for(int b=0; b<benches.size(); b++)
+    {
+      String sName = asNames.get(b);
+      boolean bRun = asFilters.isEmpty();
+      for(String f : asFilters) bRun |= sName.contains(f);
+      if(!bRun) continue;
+
+      for(String g : sGeom.split(","))
+      {
+        String[] rc = g.split("x");
+        CharSize.rows = Integer.parseInt(rc[0].trim());
+        CharSize.cols = Integer.parseInt(rc[1].trim());
+        Op op = benches.get(b).setup(new Random(42));
+        double[] r = measure(op, iWarmup, iIters, lIterMs*1000000L);
+        System.out.printf("%-26s %6d %6d %5s %4d %12.1f +- %7.1f %8s%n",
+                          sName, CharSize.rows, CharSize.cols, "avgt", iIters, r[0], r[1], "ns/op");
+      }
+    }
+
+  } // main()
+
+} // class MicroBench
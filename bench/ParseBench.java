@@ -0,0 +1,153 @@
+//==================================================================================
+// File: ParseBench.java
+//
+// Description: Compares lines/sec of the States machine with GlyphScanner on the
+//              same lines, after checking that both give the same result for
+//              every line.
+//
+//              Usage: java cbarray.ParseBench [font.h]
+//              With no file, a synthetic 32x32 font of 20000 lines is used.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 GlyphParser takes the rows too -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: ParseBench
+  // Description: Parser throughput benchmark
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class ParseBench
+{
+  static final int WARMUP = 5;
+  static final int RUNS = 10;
+
+  static volatile int sink;
+
+  private ParseBench()
+  {
+  }
+
+  //=================================================================================
+  // Function:    synthetic(int n, int cols, long seed)
+  // Description: Makes n lines of random records, with a comment line every 16
+  //              lines and a line end comment on every third record
+  // Input:       int n: number of lines; int cols: words per record; long seed
+  // Output:      None
+  // Returns:     List<String>: the lines
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static List<String> synthetic(int n, int cols, long seed)
+  {
+    Random r = new Random(seed);
+    List<String> lines = new ArrayList<String>(n);
+    StringBuilder sb = new StringBuilder();
+    for(int i=0; i<n; i++)
+    {
+      sb.setLength(0);
+      if(i % 16 == 0)
+      {
+        sb.append("// Block ").append(i/16);
+      }
+      else
+      {
+        sb.append('{');
+        for(int col=0; col<cols; col++)
+        {
+          if(col > 0) sb.append(',');
+          sb.append(String.format("0x%08x", r.nextInt()));
+        }
+        sb.append(i < n-1 ? "}," : "}");
+        if(i % 3 == 0) sb.append(" // char ").append(i);
+      }
+      lines.add(sb.toString());
+    }
+    return lines;
+
+  } // synthetic()
+
+  static long timeStates(GlyphParser parser, List<String> lines)
+  {
+    long t0 = System.nanoTime();
+    int h = 0;
+    for(String s : lines)
+    {
+      Glyph g = parser.parseStates(s);
+      if(g != null) h += g.word(0);
+    }
+    sink = h;
+    return System.nanoTime() - t0;
+  }
+
+  static long timeScanner(char[][] lines, int cols)
+  {
+    GlyphScanner sc = new GlyphScanner();
+    int[] aWords = new int[cols];
+    long t0 = System.nanoTime();
+    int h = 0;
+    for(char[] a : lines)
+    {
+      if(sc.scan(a, 0, a.length, aWords) != GlyphScanner.FAIL) h += aWords[0];
+    }
+    sink = h;
+    return System.nanoTime() - t0;
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    int cols = CharSize.cols;
+    List<String> lines = (args.length > 0)
+      ? Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)
+      : synthetic(20000, cols, 1);
+    char[][] aLines = new char[lines.size()][];
+    for(int i=0; i<aLines.length; i++) aLines[i] = lines.get(i).toCharArray();
+
+    GlyphParser parser = new GlyphParser(CharSize.rows, cols);
+    for(int i=0; i<lines.size(); i++)
+    {
+      if(!Objects.equals(parser.parseStates(lines.get(i)), parser.parse(lines.get(i))))
+      {
+        System.out.println("Mismatch on line "+(i+1)+": "+lines.get(i));
+        System.exit(1);
+      }
+    }
+
+    long tStates = Long.MAX_VALUE;
+    long tScan = Long.MAX_VALUE;
+    for(int run=0; run<WARMUP+RUNS; run++)
+    {
+      long t1 = timeStates(parser, lines);
+      long t2 = timeScanner(aLines, cols);
+      if(run >= WARMUP)
+      {
+        tStates = Math.min(tStates, t1);
+        tScan = Math.min(tScan, t2);
+      }
+    }
+    double n = lines.size();
+    System.out.printf("lines:        %d%n", lines.size());
+    System.out.printf("States:       %,.0f lines/s%n", n*1e9/tStates);
+    System.out.printf("GlyphScanner: %,.0f lines/s%n", n*1e9/tScan);
+    System.out.printf("speedup:      %.1fx%n", (double)tStates/tScan);
+
+  } // main()
+
+} // class ParseBench
@@ -0,0 +1,163 @@
+//==================================================================================
+// File: ParseStress.java
+//
+// Description: Concurrency check of GlyphParser. One GlyphParser is shared by
+//              N threads, which all parse the same corpus at once, each from its
+//              own starting line, with both parse() and parseStates(); every
+//              Glyph must equal the one a single-threaded parse gave for that
+//              line. Any difference is printed and the exit status is 1.
+//
+//              Usage: java cbarray.ParseStress [-threads n] [-rounds n] [font.h]
+//              With no file, ParseBench's synthetic 32x32 font of 20000 lines
+//              is used, and the glyph size is read from the file otherwise.
+//              The default is a thread per processor, at least 4, and 5 rounds.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Checks parseStates() too; the corpus is ParseBench's -- RL
+// 2026Oct17 Glyph size read from the file with Geometry.detect() -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: ParseStress
+  // Description: Many threads, one parser, the same answers as one thread
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class ParseStress
+{
+  static final int MAXREPORT = 10;     // mismatches printed
+
+  private ParseStress()
+  {
+  }
+
+  //=================================================================================
+  // Function:    check(GlyphParser parser, List<String> lines, Glyph[] aScan,
+  //                    Glyph[] aStates, int iStart, int nRounds,
+  //                    AtomicLong nBad)
+  // Description: One thread's share: parses every line nRounds times, starting
+  //              at iStart and wrapping, with parse() and parseStates(), and
+  //              counts the results that differ from the single-threaded ones
+  // Input:       GlyphParser parser: shared by every thread
+  //              List<String> lines: the corpus
+  //              Glyph[] aScan, aStates: the single-threaded results
+  //              int iStart: first line; int nRounds: passes over the corpus
+  //              AtomicLong nBad: mismatches so far, for every thread
+  // Output:      nBad; the first MAXREPORT mismatches on the console
+  // Returns:     long: lines parsed, each way
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static long check(GlyphParser parser, List<String> lines, Glyph[] aScan, Glyph[] aStates,
+                    int iStart, int nRounds, AtomicLong nBad)
+  {
+    int n = lines.size();
+    long nParsed = 0;
+    for(int round=0; round<nRounds; round++)
+    {
+      for(int j=0; j<n; j++)
+      {
+        int i = (iStart + j) % n;
+        String s = lines.get(i);
+        Glyph g = parser.parse(s);
+        Glyph gs = parser.parseStates(s);
+        nParsed++;
+        if(Objects.equals(g, aScan[i]) && Objects.equals(gs, aStates[i])) continue;
+        if(nBad.incrementAndGet() <= MAXREPORT)
+        {
+          System.out.println(Thread.currentThread().getName()+": line "+(i+1)+" differs: "+s);
+        }
+      }
+    }
+    return nParsed;
+
+  } // check()
+
+  public static void main(String[] args) throws IOException, InterruptedException
+  {
+    int nThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+    int nRounds = 5;
+    String sFont = null;
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-threads") && i+1 < args.length) nThreads = Integer.parseInt(args[++i]);
+      else if(args[i].equals("-rounds") && i+1 < args.length) nRounds = Integer.parseInt(args[++i]);
+      else sFont = args[i];
+    }
+
+    Geometry size = new Geometry(CharSize.rows, CharSize.cols);
+    List<String> lines;
+    if(sFont != null)
+    {
+      size = Geometry.detect(new File(sFont), size);
+      lines = Files.readAllLines(Paths.get(sFont), StandardCharsets.UTF_8);
+    }
+    else
+    {
+      lines = ParseBench.synthetic(20000, size.cols(), 1);
+    }
+    GlyphParser parser = new GlyphParser(size.rows(), size.cols());
+
+    // The reference: one thread, before any other starts
+    Glyph[] aScan = new Glyph[lines.size()];
+    Glyph[] aStates = new Glyph[lines.size()];
+    for(int i=0; i<aScan.length; i++)
+    {
+      aScan[i] = parser.parse(lines.get(i));
+      aStates[i] = parser.parseStates(lines.get(i));
+    }
+
+    // All threads are let go together, so they overlap as much as they can
+    AtomicLong nBad = new AtomicLong();
+    AtomicLong nParsed = new AtomicLong();
+    CountDownLatch go = new CountDownLatch(1);
+    final int nR = nRounds;
+    Thread[] aThreads = new Thread[nThreads];
+    for(int t=0; t<nThreads; t++)
+    {
+      final int iStart = (int)((long)t*lines.size()/nThreads);
+      aThreads[t] = new Thread(() ->
+      {
+        try
+        {
+          go.await();
+        }
+        catch(InterruptedException ex)
+        {
+          return;
+        }
+        nParsed.addAndGet(check(parser, lines, aScan, aStates, iStart, nR, nBad));
+      }, "parser-"+t);
+      aThreads[t].start();
+    }
+    long t0 = System.nanoTime();
+    go.countDown();
+    for(Thread th : aThreads) th.join();
+    long lMs = (System.nanoTime()-t0)/1000000;
+
+    System.out.printf("lines:        %d (%s)%n", lines.size(), size);
+    System.out.printf("threads:      %d x %d rounds%n", nThreads, nRounds);
+    System.out.printf("parsed:       %,d lines each way in %d ms%n", nParsed.get(), lMs);
+    System.out.printf("mismatches:   %d%n", nBad.get());
+    if(nParsed.get() != (long)nThreads*nRounds*lines.size() || nBad.get() > 0) System.exit(1);
+
+  } // main()
+
+} // class ParseStress
@@ -0,0 +1,373 @@
+//==================================================================================
+// File: ScaleBench.java
+//
+// Description: End to end scale benchmark. For each size it writes a synthetic
+//              font file in the form openFile() reads (random records, comment
+//              lines, line end comments and empty lines), then times the headless
+//              equivalents of what the editor does with it:
+//                open      Scanner loop into a GlyphStore, as openFile()
+//                open.par  ParallelLoader (-parallel)
+//                open.mmap MappedFont index (-mmap)
+//                nav       displayLine() of every line in order (read into a
+//                          CharBuf), per line latency
+//                edit      buildRec() of random records plus Ins/Del Rec, per
+//                          edit latency
+//                save      FontFormat.write(), as Save File
+//                export8   FontFormat.write8Bit(), as saveFileAs8Bit()
+//              and writes a report, one JSON object per line, with throughput
+//              (items/s), p50/p99 latency (us) and peak heap (MB) of each step.
+//
+//              Thresholds make the run fail (exit status 1) on a regression:
+//                -max <step>.<size>.<metric>=<value>   e.g. -max edit.1000000.p99=200
+//                -min <step>.<size>.<metric>=<value>   e.g. -min open.100000.tput=1e6
+//              metric is one of tput, p50, p99, heap, ms; <size> may be '*'.
+//
+//              Usage: java -Xmx4g cbarray.ScaleBench [-sizes 1000,10000,...]
+//                       [-o report.jsonl] [-max ...] [-min ...]
+//              Default sizes: 1000, 10000, 100000, 1000000.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Loaders take the rows too -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Scanner;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: ScaleBench
+  // Description: Synthetic font generator and end to end timings at several sizes
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class ScaleBench
+{
+  static final int EDITS = 1000;       // buildRec() edits per size
+  static final int INSERTS = 20;       // Ins Rec and Del Rec each per size
+
+  static volatile int sink;
+
+  // One line of the report
+  static final class Step
+  {
+    String sName;
+    int iSize;
+    long lItems;
+    long lNanos;
+    double dP50 = Double.NaN;    // us
+    double dP99 = Double.NaN;    // us
+    double dHeapMB;
+
+    double tput() { return lItems*1e9/Math.max(lNanos, 1); }
+
+    double metric(String s)
+    {
+      switch(s)
+      {
+        case "tput": return tput();
+        case "p50": return dP50;
+        case "p99": return dP99;
+        case "heap": return dHeapMB;
+        case "ms": return lNanos/1e6;
+        default: throw new IllegalArgumentException("unknown metric "+s);
+      }
+    }
+
+    String json()
+    {
+      return String.format(Locale.ROOT,
+        "{\"step\":\"%s\",\"size\":%d,\"items\":%d,\"ms\":%.3f,\"tput\":%.1f,\"p50\":%s,\"p99\":%s,\"heapMB\":%.1f}",
+        sName, iSize, lItems, lNanos/1e6, tput(), num(dP50), num(dP99), dHeapMB);
+    }
+
+    static String num(double d)
+    {
+      return Double.isNaN(d) ? "null" : String.format(Locale.ROOT, "%.3f", d);
+    }
+  } // class Step
+
+  private ScaleBench()
+  {
+  }
+
+  //=================================================================================
+  // Function:    generate(File f, int n, int iCols, long seed)
+  // Description: Writes a font file of n lines: a comment line every 16 lines, an
+  //              empty line every 50, the rest records, one in three of them with
+  //              a line end comment
+  // Input:       File f: output; int n: lines; int iCols: words per record
+  // Output:      f
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void generate(File f, int n, int iCols, long seed) throws IOException
+  {
+    Random r = new Random(seed);
+    int[] aWords = new int[iCols];
+    StringBuilder sb = new StringBuilder(512);
+    try(PrintWriter w = new PrintWriter(new BufferedWriter(new FileWriter(f), 1 << 16)))
+    {
+      for(int i=0; i<n; i++)
+      {
+        sb.setLength(0);
+        if(i % 16 == 0) sb.append("// Block ").append(i/16);
+        else if(i % 50 == 25) { }
+        else
+        {
+          for(int col=0; col<iCols; col++) aWords[col] = r.nextInt();
+          FontFormat.appendRecord(sb, aWords, 0, iCols, 32, i == n-1, (i % 3 == 0) ? "// char "+i : "");
+        }
+        w.println(sb);
+      }
+    }
+
+  } // generate()
+
+  // Peak heap since the last reset, in MB
+  static double peakHeapMB()
+  {
+    long b = 0;
+    for(MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if(p.getType() == MemoryType.HEAP && p.getPeakUsage() != null) b += p.getPeakUsage().getUsed();
+    }
+    return b/1048576.0;
+  }
+
+  static void resetPeak()
+  {
+    System.gc();
+    for(MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if(p.getType() == MemoryType.HEAP) p.resetPeakUsage();
+    }
+  }
+
+  static Step step(String sName, int iSize, long lItems, long lNanos, long[] aLat, int nLat)
+  {
+    Step s = new Step();
+    s.sName = sName;
+    s.iSize = iSize;
+    s.lItems = lItems;
+    s.lNanos = lNanos;
+    if(aLat != null && nLat > 0)
+    {
+      Arrays.sort(aLat, 0, nLat);
+      s.dP50 = aLat[(int)(0.50*(nLat-1))]/1000.0;
+      s.dP99 = aLat[(int)(0.99*(nLat-1))]/1000.0;
+    }
+    s.dHeapMB = peakHeapMB();
+    return s;
+  }
+
+  //=================================================================================
+  // Function:    run(File dir, int n, List<Step> steps)
+  // Description: Generates the font of n lines and times every step on it
+  // Input:       File dir: scratch directory; int n: lines
+  // Output:      steps: one Step per step
+  // Returns:     None
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static void run(File dir, int n, List<Step> steps) throws IOException
+  {
+    int iCols = CharSize.cols;
+    int iRows = CharSize.rows;
+    File f = new File(dir, "font"+n+".h");
+    generate(f, n, iCols, n);
+
+    // open: as openFile()
+    resetPeak();
+    long t0 = System.nanoTime();
+    GlyphStore store = new GlyphStore(iRows, iCols);
+    try(Scanner s = new Scanner(new BufferedReader(new FileReader(f))))
+    {
+      while(s.hasNextLine()) store.add(s.nextLine());
+    }
+    steps.add(step("open", n, store.size(), System.nanoTime()-t0, null, 0));
+
+    resetPeak();
+    t0 = System.nanoTime();
+    ParallelLoader.Result pr = ParallelLoader.load(f, iRows, iCols);
+    steps.add(step("open.par", n, pr.store.size(), System.nanoTime()-t0, null, 0));
+    pr = null;
+
+    resetPeak();
+    t0 = System.nanoTime();
+    MappedFont mf = MappedFont.open(f, iRows, iCols);
+    steps.add(step("open.mmap", n, mf.size(), System.nanoTime()-t0, null, 0));
+    mf.close();
+    mf = null;
+
+    // nav: Next Rec through the whole file
+    CharBuf cb = new CharBuf(store.lineWords());
+    long[] aLat = new long[store.size()];
+    int h = 0;
+    resetPeak();
+    t0 = System.nanoTime();
+    for(int i=0; i<store.size(); i++)
+    {
+      long t = System.nanoTime();
+      if((store.flags(i) & FontLines.F_RAW) == 0) store.read(i, cb);
+      aLat[i] = System.nanoTime() - t;
+      h += cb.aEncoding[0];
+    }
+    steps.add(step("nav", n, store.size(), System.nanoTime()-t0, aLat, store.size()));
+
+    // edit: buildRec() of random records, then Ins Rec / Del Rec
+    Random r = new Random(1);
+    int nEdits = EDITS + 2*INSERTS;
+    aLat = new long[nEdits];
+    int[] aWords = new int[iCols];
+    resetPeak();
+    t0 = System.nanoTime();
+    for(int k=0; k<nEdits; k++)
+    {
+      int i = r.nextInt(store.size());
+      for(int col=0; col<iCols; col++) aWords[col] = r.nextInt();
+      long t = System.nanoTime();
+      if(k < EDITS) store.set(i, aWords, "// edited");
+      else if(k < EDITS+INSERTS) store.insert(i, i);
+      else store.remove(i);
+      aLat[k] = System.nanoTime() - t;
+    }
+    steps.add(step("edit", n, nEdits, System.nanoTime()-t0, aLat, nEdits));
+
+    // save, export8
+    File fOut = new File(dir, "out"+n+".h");
+    resetPeak();
+    t0 = System.nanoTime();
+    try(PrintWriter w = new PrintWriter(new BufferedWriter(new FileWriter(fOut), 1 << 16)))
+    {
+      FontFormat.write(w, store);
+    }
+    steps.add(step("save", n, store.size(), System.nanoTime()-t0, null, 0));
+
+    resetPeak();
+    t0 = System.nanoTime();
+    try(PrintWriter w = new PrintWriter(new BufferedWriter(new FileWriter(fOut.getPath()+"8bit"), 1 << 16)))
+    {
+      FontFormat.write8Bit(w, store, iRows);
+    }
+    steps.add(step("export8", n, store.size(), System.nanoTime()-t0, null, 0));
+
+    sink = h;
+    f.delete();
+    fOut.delete();
+    new File(fOut.getPath()+"8bit").delete();
+
+  } // run()
+
+  //=================================================================================
+  // Function:    check(List<Step> steps, String sRule, boolean bMax)
+  // Description: Applies one -max/-min threshold
+  // Input:       steps: the report; sRule: step.size.metric=value
+  //              bMax: true for an upper limit
+  // Output:      A line on System.err per violation
+  // Returns:     int: number of violations
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+  static int check(List<Step> steps, String sRule, boolean bMax)
+  {
+    int e = sRule.indexOf('=');
+    String sKey = sRule.substring(0, e);
+    double dLimit = Double.parseDouble(sRule.substring(e+1));
+    int d2 = sKey.lastIndexOf('.');
+    int d1 = sKey.lastIndexOf('.', d2-1);
+    String sStep = sKey.substring(0, d1);
+    String sSize = sKey.substring(d1+1, d2);
+    String sMetric = sKey.substring(d2+1);
+
+    int nBad = 0;
+    for(Step s : steps)
+    {
+      if(!s.sName.equals(sStep)) continue;
+      if(!sSize.equals("*") && s.iSize != Integer.parseInt(sSize)) continue;
+      double v = s.metric(sMetric);
+      if(bMax ? v > dLimit : v < dLimit)
+      {
+        System.err.println("FAIL "+s.sName+"."+s.iSize+"."+sMetric+" = "+v
+                           +(bMax ? " > " : " < ")+dLimit);
+        nBad++;
+      }
+    }
+    return nBad;
+
+  } // check()
+
+  public static void main(String[] args) throws IOException
+  {
+    int[] aSizes = { 1000, 10000, 100000, 1000000 };
+    String sOut = null;
+    List<String> asMax = new ArrayList<String>();
+    List<String> asMin = new ArrayList<String>();
+    for(int i=0; i<args.length; i++)
+    {
+      if(args[i].equals("-sizes") && i+1 < args.length)
+      {
+        String[] a = args[++i].split(",");
+        aSizes = new int[a.length];
+        for(int k=0; k<a.length; k++) aSizes[k] = Integer.parseInt(a[k].trim());
+      }
+      else if(args[i].equals("-o") && i+1 < args.length) sOut = args[++i];
+      else if(args[i].equals("-max") && i+1 < args.length) asMax.add(args[++i]);
+      else if(args[i].equals("-min") && i+1 < args.length) asMin.add(args[++i]);
+      else
+      {
+        System.err.println("Usage: java cbarray.ScaleBench [-sizes n,...] [-o report.jsonl]"
+                           +" [-max step.size.metric=v] [-min step.size.metric=v]");
+        System.exit(2);
+      }
+    }
+
+    File dir = java.nio.file.Files.createTempDirectory("scalebench").toFile();
+    List<Step> steps = new ArrayList<Step>();
+    PrintWriter out = (sOut == null) ? new PrintWriter(System.out, true)
+                                     : new PrintWriter(new FileWriter(sOut));
+    try
+    {
+      for(int n : aSizes)
+      {
+        int iFirst = steps.size();
+        run(dir, n, steps);
+        for(int k=iFirst; k<steps.size(); k++) out.println(steps.get(k).json());
+        out.flush();
+      }
+    }
+    finally
+    {
+      if(sOut == null) out.flush();
+      else out.close();
+      dir.delete();
+    }
+
+    int nBad = 0;
+    for(String s : asMax) nBad += check(steps, s, true);
+    for(String s : asMin) nBad += check(steps, s, false);
+    if(nBad > 0) System.exit(1);
+
+  } // main()
+
+} // class ScaleBench
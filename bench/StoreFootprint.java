@@ -0,0 +1,103 @@
+//==================================================================================
+// File: StoreFootprint.java
+//
+// Description: Measures the heap held per line by the old in-memory form of a font
+//              file (an ArrayList of LineBuf, each holding the line's String and,
+//              once displayed, its parsed Glyph) against GlyphStore.
+//
+//              Usage: java cbarray.StoreFootprint [font.h]
+//              With no file, a synthetic 32x32 font of 100000 lines is used.
+//              Figures are from Runtime after a full GC, so run with a fixed heap
+//              (e.g. -Xms1g -Xmx1g) for steady numbers.
+//
+// History:
+// 2026Oct17 Created -- RL
+// 2026Oct17 Parser and store take the rows too -- RL
+//==================================================================================
+package cbarray;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import fontdev.CharSize;
+
+  //=================================================================================
+  // Class: StoreFootprint
+  // Description: Heap per line, old list of lines versus GlyphStore
+  // Input:
+  // Output:
+  // Returns:
+  // History:
+  // 2026Oct17 Created -- RL
+  //=================================================================================
+public final class StoreFootprint
+{
+  // Stand-in for the LineBuf class CBArray used to keep per line
+  private static final class OldLine
+  {
+    String sLine;
+    Glyph glyph;
+  }
+
+  static Object keep;
+
+  private StoreFootprint()
+  {
+  }
+
+  static long used()
+  {
+    Runtime rt = Runtime.getRuntime();
+    for(int i=0; i<4; i++)
+    {
+      System.gc();
+      try { Thread.sleep(50); } catch(InterruptedException ex) { }
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    List<String> src;
+    if(args.length > 0) src = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+    else src = ParseBench.synthetic(100000, CharSize.cols, 1);
+    int n = src.size();
+
+    // Lines as read from a file are separate Strings, not shared with src
+    long b0 = used();
+    List<OldLine> old = new ArrayList<OldLine>();
+    for(int i=0; i<n; i++)
+    {
+      OldLine ol = new OldLine();
+      ol.sLine = new String(src.get(i).toCharArray());
+      old.add(ol);
+    }
+    keep = old;
+    long bText = used() - b0;
+
+    GlyphParser parser = new GlyphParser(CharSize.rows, CharSize.cols);
+    for(OldLine ol : old) ol.glyph = parser.parse(ol.sLine);
+    long bParsed = used() - b0;
+    keep = null;
+    old = null;
+
+    long b1 = used();
+    GlyphStore store = new GlyphStore(CharSize.rows, CharSize.cols);
+    for(int i=0; i<n; i++) store.add(src.get(i));
+    keep = store;
+    long bStore = used() - b1;
+
+    System.out.println(n+" lines, "+CharSize.cols+" cols");
+    System.out.printf("LineBuf + String      %8.1f bytes/line%n", (double)bText/n);
+    System.out.printf("LineBuf + String+Glyph%8.1f bytes/line%n", (double)bParsed/n);
+    System.out.printf("GlyphStore            %8.1f bytes/line (estimate %.1f)%n",
+                      (double)bStore/n, (double)store.heapBytes()/n);
+    keep = null;
+
+  } // main()
+
+} // class StoreFootprint